@@ -0,0 +1,125 @@
+package org.example.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.example.entity.Badge;
+import org.example.entity.User;
+import org.example.entity.UserRole;
+import org.example.index.BadgeRuleTable;
+import org.example.index.SolverLeaderboard;
+import org.example.repository.BadgeAwardRepository;
+import org.example.repository.BadgeRepository;
+import org.example.repository.UserRepository;
+import org.example.service.BadgeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * BadgeService achievement evaluation for solvers who qualify for every achievement badge, one
+ * user at a time and as a batch. With {@code alreadyHeld} the users hold them all (the common
+ * case on each re-check); otherwise every rule awards. Repository calls are in-memory, so this
+ * measures the rule pass and the number of lookups it issues, not database latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BadgeEvaluationBenchmark {
+
+    private static final String[] ACHIEVEMENT_BADGES = {
+        "First Case Solver", "Case Solver", "Experienced Solver", "Veteran Solver", "Master Solver",
+        "Legendary Solver", "Highly Rated", "Excellence", "Perfect Score", "Active Participant",
+        "Dedicated Solver"
+    };
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"true", "false"})
+    public boolean alreadyHeld;
+
+    private BadgeService badgeService;
+    private User solver;
+    private List<Long> batchUserIds;
+
+    @Setup
+    public void setUp() {
+        List<Badge> badges = new ArrayList<>();
+        long id = 1;
+        for (String name : ACHIEVEMENT_BADGES) {
+            Badge badge = new Badge();
+            badge.setId(id++);
+            badge.setName(name);
+            badges.add(badge);
+        }
+
+        batchUserIds = LongStream.rangeClosed(1, BATCH_SIZE).boxed().toList();
+        BadgeRepository badgeRepository = Stubs.repository(BadgeRepository.class, Map.of(
+            "findByActive", args -> badges));
+        BadgeAwardRepository badgeAwardRepository = Stubs.repository(BadgeAwardRepository.class, Map.of(
+            "findHeldBadgeIds", args -> heldRows((Collection<?>) args[0], badges)));
+        UserRepository userRepository = Stubs.repository(UserRepository.class, Map.of(
+            "findBadgeStatsByIds", args -> ((Collection<?>) args[0]).stream()
+                .map(userId -> new Object[] {userId, UserRole.SOLVER, 100, 5.0, 20, 5})
+                .toList()));
+        // Award inserts are one JDBC batch per call; count them instead of executing
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                return new int[batchArgs.size()];
+            }
+        };
+
+        badgeService = new BadgeService();
+        Stubs.inject(badgeService, "badgeRepository", badgeRepository);
+        Stubs.inject(badgeService, "badgeAwardRepository", badgeAwardRepository);
+        Stubs.inject(badgeService, "userRepository", userRepository);
+        Stubs.inject(badgeService, "badgeRuleTable", Stubs.inject(new BadgeRuleTable(), "badgeRepository", badgeRepository));
+        Stubs.inject(badgeService, "jdbcTemplate", jdbcTemplate);
+        Stubs.inject(badgeService, "solverLeaderboard", new SolverLeaderboard());
+
+        solver = new User();
+        solver.setId(42L);
+        solver.setUsername("solver42");
+        solver.setRole(UserRole.SOLVER);
+        solver.setSolvedCasesCount(100);
+        solver.setAverageRating(5.0);
+        solver.setTotalRatings(20);
+        solver.setActiveCasesCount(5);
+    }
+
+    @Benchmark
+    public List<String> checkAndAwardAchievementBadges() {
+        return badgeService.checkAndAwardAchievementBadges(solver);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int evaluateAchievementBadgesBatch() {
+        return badgeService.evaluateAchievementBadges(batchUserIds);
+    }
+
+    private List<Object[]> heldRows(Collection<?> userIds, List<Badge> badges) {
+        if (!alreadyHeld) {
+            return List.of();
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (Object userId : userIds) {
+            for (Badge badge : badges) {
+                rows.add(new Object[] {userId, badge.getId()});
+            }
+        }
+        return rows;
+    }
+}
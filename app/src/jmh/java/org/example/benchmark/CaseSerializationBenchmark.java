@@ -0,0 +1,144 @@
+package org.example.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.example.dto.CaseSummaryDTO;
+import org.example.entity.CaseDifficulty;
+import org.example.entity.CaseStatus;
+import org.example.entity.CaseType;
+import org.example.entity.CrimeCase;
+import org.example.entity.User;
+import org.example.entity.UserRole;
+import org.example.repository.CrimeCaseRepository;
+import org.example.repository.CrimeCaseRepository.CaseSummaryView;
+import org.example.service.CrimeCaseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * The GET /api/cases list path: mapping projection rows to CaseSummaryDTO and serializing the
+ * page, compared with serializing the equivalent CrimeCase entity graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CaseSerializationBenchmark {
+
+    @Param({"20", "200"})
+    public int caseCount;
+
+    private static final int TAGS_PER_CASE = 4;
+    private static final int SOLVERS_PER_CASE = 3;
+
+    private ObjectMapper objectMapper;
+    private CrimeCaseService crimeCaseService;
+    private List<CrimeCase> cases;
+    private List<CaseSummaryDTO> summaries;
+
+    @Setup
+    public void setUp() {
+        // Same modules Spring Boot registers (JavaTimeModule for LocalDateTime)
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        User organization = user(1L, "org", UserRole.ORGANIZATION);
+        List<User> solvers = new ArrayList<>();
+        for (int i = 0; i < SOLVERS_PER_CASE; i++) {
+            solvers.add(user(100L + i, "solver" + i, UserRole.SOLVER));
+        }
+
+        cases = new ArrayList<>(caseCount);
+        List<CaseSummaryView> rows = new ArrayList<>(caseCount);
+        List<Object[]> tagRows = new ArrayList<>(caseCount * TAGS_PER_CASE);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < caseCount; i++) {
+            long id = i + 1;
+            CrimeCase crimeCase = new CrimeCase();
+            crimeCase.setId(id);
+            crimeCase.setTitle("Case " + id);
+            crimeCase.setDescription("Warehouse break-in reported on the east side; several witnesses, partial plate number.");
+            crimeCase.setLocation("Downtown");
+            crimeCase.setCaseType(CaseType.ROBBERY);
+            crimeCase.setDifficulty(CaseDifficulty.MEDIUM);
+            crimeCase.setStatus(CaseStatus.OPEN);
+            crimeCase.setPostedBy(organization);
+            crimeCase.setAssignedSolvers(new ArrayList<>(solvers));
+            crimeCase.setPostedAt(now.minusHours(i));
+            crimeCase.setImageUrl("/uploads/case-" + id + ".jpg");
+            List<String> tags = new ArrayList<>();
+            for (int t = 0; t < TAGS_PER_CASE; t++) {
+                tags.add("tag" + t);
+                tagRows.add(new Object[] {id, "tag" + t});
+            }
+            crimeCase.setTags(tags);
+            cases.add(crimeCase);
+            rows.add(new SummaryRow(crimeCase));
+        }
+
+        CrimeCaseRepository repository = Stubs.repository(CrimeCaseRepository.class, Map.of(
+            "findAllSummaries", args -> rows,
+            "findTagsByCaseIds", args -> tagRows));
+        crimeCaseService = Stubs.inject(new CrimeCaseService(), "crimeCaseRepository", repository);
+        summaries = crimeCaseService.getAllCaseSummaries();
+    }
+
+    @Benchmark
+    public List<CaseSummaryDTO> mapSummaries() {
+        return crimeCaseService.getAllCaseSummaries();
+    }
+
+    @Benchmark
+    public byte[] serializeSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(crimeCaseService.getAllCaseSummaries());
+    }
+
+    @Benchmark
+    public byte[] serializeEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cases);
+    }
+
+    private static User user(Long id, String username, UserRole role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(username + "@example.org");
+        user.setRole(role);
+        return user;
+    }
+
+    private static final class SummaryRow implements CaseSummaryView {
+        private final CrimeCase crimeCase;
+
+        private SummaryRow(CrimeCase crimeCase) {
+            this.crimeCase = crimeCase;
+        }
+
+        public Long getId() { return crimeCase.getId(); }
+        public String getTitle() { return crimeCase.getTitle(); }
+        public String getDescription() { return crimeCase.getDescription(); }
+        public CaseStatus getStatus() { return crimeCase.getStatus(); }
+        public LocalDateTime getPostedAt() { return crimeCase.getPostedAt(); }
+        public String getImageUrl() { return crimeCase.getImageUrl(); }
+        public String getMediaUrl() { return crimeCase.getMediaUrl(); }
+        public CaseType getCaseType() { return crimeCase.getCaseType(); }
+        public CaseDifficulty getDifficulty() { return crimeCase.getDifficulty(); }
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.example.entity.Evidence;
+import org.example.entity.User;
+import org.example.entity.UserRole;
+import org.example.repository.CustodyEntryRepository;
+import org.example.repository.EvidenceRepository;
+import org.example.service.CustodyLedgerService;
+import org.example.service.EvidenceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One EvidenceService.addChainOfCustodyEntry call against an evidence item that already has
+ * {@code existingEntries} custody entries. {@code legacyStringAppend} reproduces the former
+ * free-text concatenation, whose cost grew with history; the ledger append reads only the head.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChainOfCustodyBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int existingEntries;
+
+    private EvidenceService evidenceService;
+    private Evidence evidence;
+    private User handler;
+    private String existingChain;
+
+    @Setup
+    public void setUp() {
+        handler = new User();
+        handler.setId(7L);
+        handler.setUsername("analyst7");
+        handler.setRole(UserRole.SOLVER);
+
+        StringBuilder chain = new StringBuilder();
+        for (int i = 0; i < existingEntries; i++) {
+            if (i > 0) {
+                chain.append("; ");
+            }
+            chain.append("analyst7 - TRANSFERRED - 2024-01-01T10:00:00 - sealed bag #").append(i);
+        }
+        existingChain = chain.toString();
+
+        evidence = new Evidence();
+        evidence.setId(1L);
+        EvidenceRepository repository = Stubs.repository(EvidenceRepository.class, Map.of(
+            "touchUpdatedAt", args -> 1,
+            "findById", args -> Optional.of(evidence),
+            "getReferenceById", args -> evidence,
+            "save", args -> args[0]));
+        List<Object[]> head = List.<Object[]>of(new Object[] {existingEntries, CustodyLedgerService.GENESIS_HASH});
+        CustodyEntryRepository custodyEntryRepository = Stubs.repository(CustodyEntryRepository.class, Map.of(
+            "findHead", args -> head,
+            "save", args -> args[0]));
+
+        evidenceService = new EvidenceService();
+        Stubs.inject(evidenceService, "evidenceRepository", repository);
+        Stubs.inject(evidenceService, "custodyLedgerService",
+            Stubs.inject(new CustodyLedgerService(), "custodyEntryRepository", custodyEntryRepository));
+    }
+
+    // Each call appends, so restore the starting history before every invocation
+    @Setup(Level.Invocation)
+    public void resetChain() {
+        evidence.setChainOfCustody(existingChain);
+    }
+
+    @Benchmark
+    public Evidence addChainOfCustodyEntry() {
+        return evidenceService.addChainOfCustodyEntry(1L, handler, "TRANSFERRED", "moved to lab");
+    }
+
+    @Benchmark
+    public Evidence legacyStringAppend() {
+        String newEntry = handler.getUsername() + " - TRANSFERRED - " + LocalDateTime.now() + " - moved to lab";
+        String currentChain = evidence.getChainOfCustody();
+        evidence.setChainOfCustody(currentChain != null && !currentChain.isEmpty() ? currentChain + "; " + newEntry : newEntry);
+        return evidence;
+    }
+}
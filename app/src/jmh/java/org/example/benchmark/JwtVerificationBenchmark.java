@@ -0,0 +1,76 @@
+package org.example.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.example.entity.User;
+import org.example.entity.UserRole;
+import org.example.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Per-request token verification cost. {@code legacyRequest} reproduces what the filter did
+ * before JwtService cached its key and parser: three parses, each rebuilding both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtVerificationBenchmark {
+
+    static final String SECRET = "your-secret-key-here-make-it-long-and-secure-in-production";
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, TimeUnit.DAYS.toMillis(1));
+        user = new User();
+        user.setId(42L);
+        user.setUsername("solver42");
+        user.setRole(UserRole.SOLVER);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public void legacyRequest(Blackhole bh) {
+        // extractUsername, then isTokenValid -> extractUsername + isTokenExpired
+        String username = legacyClaims(token).getSubject();
+        bh.consume(username.equals(legacyClaims(token).getSubject()));
+        bh.consume(legacyClaims(token).getExpiration().before(new Date()));
+    }
+
+    @Benchmark
+    public void verifiedTokenRequest(Blackhole bh) {
+        JwtService.VerifiedToken verified = jwtService.verify(token);
+        bh.consume(verified.getSubject());
+        bh.consume(verified.getUserId());
+        bh.consume(verified.getRole());
+        bh.consume(verified.getTokenVersion());
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.example.entity.User;
+import org.example.entity.UserRole;
+import org.example.index.SolverLeaderboard;
+import org.example.index.SolverLeaderboard.Board;
+import org.example.index.SolverLeaderboard.Standing;
+import org.example.repository.BadgeAwardRepository;
+import org.example.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * SolverLeaderboard reads and incremental updates over a populated board, against sorting every
+ * solver per request as the ORDER BY queries it replaces effectively did.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SolverLeaderboardBenchmark {
+
+    @Param({"10000", "100000"})
+    public int solvers;
+
+    private SolverLeaderboard leaderboard;
+    private List<Object[]> rows;
+    private User solver;
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(solvers);
+        SplittableRandom seed = new SplittableRandom(42);
+        for (long id = 1; id <= solvers; id++) {
+            rows.add(new Object[] {id, seed.nextInt(200), 1 + seed.nextInt(400) / 100.0, seed.nextInt(50)});
+        }
+        UserRepository userRepository = Stubs.repository(UserRepository.class, Map.of(
+            "findLeaderboardStatsByRole", args -> rows));
+        BadgeAwardRepository badgeAwardRepository = Stubs.repository(BadgeAwardRepository.class, Map.of(
+            "countAwardsByUser", args -> List.of()));
+        leaderboard = new SolverLeaderboard();
+        Stubs.inject(leaderboard, "userRepository", userRepository);
+        Stubs.inject(leaderboard, "badgeAwardRepository", badgeAwardRepository);
+        leaderboard.reconcile();
+
+        solver = new User();
+        solver.setRole(UserRole.SOLVER);
+        solver.setAverageRating(4.0);
+        solver.setTotalRatings(10);
+    }
+
+    @Benchmark
+    public List<Standing> top20() {
+        return leaderboard.top(Board.RATING, 20);
+    }
+
+    @Benchmark
+    public List<Standing> aroundRandomUser() {
+        return leaderboard.around(Board.SOLVED_CASES, 1 + random.nextLong(solvers), 5);
+    }
+
+    // Solved case count of a random solver moves by one, as on each solveCase
+    @Benchmark
+    public Standing incrementSolvedCases() {
+        long id = 1 + random.nextLong(solvers);
+        solver.setId(id);
+        solver.setSolvedCasesCount(random.nextInt(200));
+        leaderboard.updateAfterCommit(solver);
+        return leaderboard.rankOf(Board.SOLVED_CASES, id);
+    }
+
+    @Benchmark
+    public List<Object[]> sortAllTop20() {
+        List<Object[]> sorted = new ArrayList<>(rows);
+        sorted.sort((a, b) -> Double.compare((Double) b[2], (Double) a[2]));
+        return sorted.subList(0, 20);
+    }
+}
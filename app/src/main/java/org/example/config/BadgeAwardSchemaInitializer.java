@@ -0,0 +1,62 @@
+package org.example.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ensures one award per (user, badge) in badge_awards and user_badges, which BadgeService's
+ * ON CONFLICT inserts rely on. ddl-auto declares the keys on new tables but cannot add them to a
+ * table that already holds duplicates, so existing duplicates are removed (keeping the earliest
+ * row) before the unique indexes are created.
+ */
+@Component
+@Order(0)
+public class BadgeAwardSchemaInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BadgeAwardSchemaInitializer.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!isPostgres()) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            int awards = jdbcTemplate.update("DELETE FROM badge_awards a USING badge_awards b " +
+                "WHERE a.user_id = b.user_id AND a.badge_id = b.badge_id AND a.id > b.id");
+            int names = jdbcTemplate.update("DELETE FROM user_badges a USING user_badges b " +
+                "WHERE a.user_id = b.user_id AND a.badge = b.badge AND a.ctid > b.ctid");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_badge_awards_user_badge ON badge_awards (user_id, badge_id)");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_user_badges_user_badge ON user_badges (user_id, badge)");
+            if (awards > 0 || names > 0) {
+                logger.warn("Removed {} duplicate badge awards and {} duplicate user badges", awards, names);
+            }
+        });
+    }
+
+    private boolean isPostgres() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+}
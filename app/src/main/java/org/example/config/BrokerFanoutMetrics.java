@@ -0,0 +1,139 @@
+package org.example.config;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.example.dto.BrokerDestinationStatsDTO;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-destination STOMP fan-out for this instance: messages published by the application, frames
+ * delivered to connected clients, and live subscriptions. Ids in destinations are folded into
+ * {@code {id}} ({@code /topic/case.42} counts as {@code /topic/case.{id}}) to keep the key set small,
+ * and user destinations are counted as the client sees them ({@code /user/42/queue/dm} as
+ * {@code /user/queue/dm}).
+ *
+ * With the broker relay a message published on one node is delivered on others, so delivered over
+ * published is only meaningful summed across instances.
+ */
+@Component
+public class BrokerFanoutMetrics {
+
+    private static final Pattern USER_PREFIX = Pattern.compile("^/user/\\d+/");
+    private static final Pattern ID_SEGMENT = Pattern.compile("(?<=[./])\\d+(?=$|[./])");
+
+    private final Map<String, Counters> byDestination = new ConcurrentHashMap<>();
+    // session id -> subscription id -> destination key
+    private final Map<String, Map<String, String>> subscriptionsBySession = new ConcurrentHashMap<>();
+
+    // clientInboundChannel: tracks SUBSCRIBE, UNSUBSCRIBE and DISCONNECT
+    private final ChannelInterceptor inboundInterceptor = new ChannelInterceptor() {
+        @Override
+        public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+            if (sent) {
+                trackSubscription(message);
+            }
+        }
+    };
+
+    // brokerChannel: application publishes, e.g. SimpMessagingTemplate.convertAndSend
+    private final ChannelInterceptor publishedInterceptor = new ChannelInterceptor() {
+        @Override
+        public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+            // Messages re-sent after user destination resolution were already counted under /user/...
+            if (sent && SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE
+                    && !message.getHeaders().containsKey(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION)) {
+                counters(SimpMessageHeaderAccessor.getDestination(message.getHeaders())).published.increment();
+            }
+        }
+    };
+
+    // clientOutboundChannel: one MESSAGE frame per subscribed session. User destinations arrive
+    // resolved to a per-session queue and are counted under the destination the client subscribed to.
+    private final ChannelInterceptor deliveredInterceptor = new ChannelInterceptor() {
+        @Override
+        public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+            if (sent && SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+                String destination = (String) message.getHeaders().get(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION);
+                if (destination == null) {
+                    destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                }
+                counters(destination).delivered.increment();
+            }
+        }
+    };
+
+    public ChannelInterceptor inboundInterceptor() { return inboundInterceptor; }
+    public ChannelInterceptor publishedInterceptor() { return publishedInterceptor; }
+    public ChannelInterceptor deliveredInterceptor() { return deliveredInterceptor; }
+
+    public List<BrokerDestinationStatsDTO> snapshot() {
+        return byDestination.entrySet().stream()
+            .map(e -> new BrokerDestinationStatsDTO(e.getKey(), e.getValue().published.sum(),
+                e.getValue().delivered.sum(), e.getValue().subscriptions.get()))
+            .sorted(Comparator.comparingLong(BrokerDestinationStatsDTO::getDelivered).reversed()
+                .thenComparing(BrokerDestinationStatsDTO::getDestination))
+            .toList();
+    }
+
+    static String destinationKey(String destination) {
+        if (destination == null) {
+            return "(none)";
+        }
+        String clientDestination = USER_PREFIX.matcher(destination).replaceFirst("/user/");
+        return ID_SEGMENT.matcher(clientDestination).replaceAll("{id}");
+    }
+
+    private void trackSubscription(Message<?> message) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (type == null || sessionId == null) {
+            return;
+        }
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        switch (type) {
+            case SUBSCRIBE -> {
+                String key = destinationKey(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+                if (subscriptionId != null && subscriptionsBySession
+                        .computeIfAbsent(sessionId, s -> new ConcurrentHashMap<>())
+                        .putIfAbsent(subscriptionId, key) == null) {
+                    counters(key).subscriptions.incrementAndGet();
+                }
+            }
+            case UNSUBSCRIBE -> {
+                Map<String, String> subscriptions = subscriptionsBySession.get(sessionId);
+                String key = subscriptions != null && subscriptionId != null ? subscriptions.remove(subscriptionId) : null;
+                if (key != null) {
+                    counters(key).subscriptions.decrementAndGet();
+                }
+            }
+            case DISCONNECT -> {
+                Map<String, String> subscriptions = subscriptionsBySession.remove(sessionId);
+                if (subscriptions != null) {
+                    subscriptions.values().forEach(key -> counters(key).subscriptions.decrementAndGet());
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private Counters counters(String destination) {
+        return byDestination.computeIfAbsent(destinationKey(destination), k -> new Counters());
+    }
+
+    private static final class Counters {
+        private final LongAdder published = new LongAdder();
+        private final LongAdder delivered = new LongAdder();
+        private final AtomicLong subscriptions = new AtomicLong();
+    }
+}
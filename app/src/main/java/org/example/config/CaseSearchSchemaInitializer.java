@@ -0,0 +1,113 @@
+package org.example.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the PostgreSQL full-text search structures for crime cases.
+ *
+ * Hibernate's ddl-auto cannot express tsvector columns, GIN indexes or triggers, so they are
+ * created here idempotently on startup. The search_vector column is maintained by triggers on
+ * crime_cases and case_tags, which keeps it correct no matter which code path writes a case.
+ */
+@Component
+@Order(0)
+public class CaseSearchSchemaInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaseSearchSchemaInitializer.class);
+
+    // Title > tags > location > description
+    private static final String VECTOR_FUNCTION =
+        "CREATE OR REPLACE FUNCTION crime_case_search_vector(case_id bigint, title text, location text, description text) " +
+        "RETURNS tsvector AS $$ " +
+        "  SELECT setweight(to_tsvector('english', coalesce(title, '')), 'A') || " +
+        "         setweight(to_tsvector('english', coalesce((SELECT string_agg(t.tag, ' ') FROM case_tags t WHERE t.case_id = $1), '')), 'B') || " +
+        "         setweight(to_tsvector('english', coalesce(location, '')), 'C') || " +
+        "         setweight(to_tsvector('english', coalesce(description, '')), 'D') " +
+        "$$ LANGUAGE sql STABLE";
+
+    // Used when only the tags change; sets search_vector alone, so the case trigger does not fire
+    private static final String REFRESH_FUNCTION =
+        "CREATE OR REPLACE FUNCTION refresh_crime_case_search_vector(target_id bigint) RETURNS void AS $$ " +
+        "BEGIN " +
+        "  UPDATE crime_cases c SET search_vector = crime_case_search_vector(c.id, c.title, c.location, c.description) " +
+        "  WHERE c.id = target_id; " +
+        "END; $$ LANGUAGE plpgsql";
+
+    // Computes the vector on the row being written, so a case write stays a single row write
+    private static final String CASE_TRIGGER_FUNCTION =
+        "CREATE OR REPLACE FUNCTION crime_cases_search_trigger() RETURNS trigger AS $$ " +
+        "BEGIN " +
+        "  NEW.search_vector := crime_case_search_vector(NEW.id, NEW.title, NEW.location, NEW.description); " +
+        "  RETURN NEW; " +
+        "END; $$ LANGUAGE plpgsql";
+
+    private static final String TAG_TRIGGER_FUNCTION =
+        "CREATE OR REPLACE FUNCTION case_tags_search_trigger() RETURNS trigger AS $$ " +
+        "BEGIN " +
+        "  IF TG_OP = 'DELETE' THEN " +
+        "    PERFORM refresh_crime_case_search_vector(OLD.case_id); " +
+        "  ELSE " +
+        "    PERFORM refresh_crime_case_search_vector(NEW.case_id); " +
+        "  END IF; " +
+        "  RETURN NULL; " +
+        "END; $$ LANGUAGE plpgsql";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.fulltext.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!enabled || !isPostgres()) {
+            logger.info("Full-text case search schema skipped (disabled or not PostgreSQL)");
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE crime_cases ADD COLUMN IF NOT EXISTS search_vector tsvector");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_crime_cases_search_vector ON crime_cases USING GIN (search_vector)");
+
+        jdbcTemplate.execute(VECTOR_FUNCTION);
+        jdbcTemplate.execute(REFRESH_FUNCTION);
+        jdbcTemplate.execute(CASE_TRIGGER_FUNCTION);
+        jdbcTemplate.execute(TAG_TRIGGER_FUNCTION);
+
+        // Only react to the searchable columns, so tag refreshes and unrelated updates skip it
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS trg_crime_cases_search ON crime_cases");
+        jdbcTemplate.execute("CREATE TRIGGER trg_crime_cases_search " +
+            "BEFORE INSERT OR UPDATE OF title, description, location ON crime_cases " +
+            "FOR EACH ROW EXECUTE FUNCTION crime_cases_search_trigger()");
+
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS trg_case_tags_search ON case_tags");
+        jdbcTemplate.execute("CREATE TRIGGER trg_case_tags_search " +
+            "AFTER INSERT OR UPDATE OR DELETE ON case_tags " +
+            "FOR EACH ROW EXECUTE FUNCTION case_tags_search_trigger()");
+
+        // Backfill rows written before the triggers existed
+        int backfilled = jdbcTemplate.update(
+            "UPDATE crime_cases SET title = title WHERE search_vector IS NULL");
+        logger.info("Full-text case search schema ready ({} cases backfilled)", backfilled);
+    }
+
+    private boolean isPostgres() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.config;
+
+import java.util.List;
+
+import org.example.entity.CasePrivacy;
+import org.example.entity.UserRole;
+import org.example.repository.CrimeCaseRepository;
+import org.example.service.CaseActivityPublisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides what a client may SUBSCRIBE to. Only two kinds of destination are open:
+ * <ul>
+ *   <li>{@code /user/queue/**}, which Spring resolves to the subscribing session's own queue.</li>
+ *   <li>A case's activity topic ({@code /topic/case.{id}}). Public cases are open to every
+ *       authenticated user; private cases to their poster, assigned solvers and active
+ *       participants; restricted cases additionally to organizations. Admins see everything.</li>
+ * </ul>
+ * Everything else is refused, notably raw {@code /queue/dm-user{session}} queues, which would
+ * read another user's messages, and the relay's user-registry broadcast topics.
+ */
+@Component
+public class CaseTopicAuthorizer {
+
+    static final String USER_QUEUE_PREFIX = "/user/queue/";
+
+    @Autowired
+    private CrimeCaseRepository crimeCaseRepository;
+
+    public boolean canSubscribe(StompPrincipal principal, String destination) {
+        if (destination == null) {
+            return false;
+        }
+        // Relay brokers treat these as wildcards, which would match every case topic
+        if (destination.indexOf('*') >= 0 || destination.indexOf('#') >= 0) {
+            return false;
+        }
+        if (destination.startsWith(USER_QUEUE_PREFIX)) {
+            return true;
+        }
+        if (!destination.startsWith(CaseActivityPublisher.DESTINATION_PREFIX)) {
+            return false;
+        }
+        Long caseId;
+        try {
+            caseId = Long.valueOf(destination.substring(CaseActivityPublisher.DESTINATION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        List<CasePrivacy> privacy = crimeCaseRepository.findPrivacyById(caseId);
+        if (privacy.isEmpty()) {
+            return false;
+        }
+        if (privacy.get(0) == null || privacy.get(0) == CasePrivacy.PUBLIC) {
+            return true;
+        }
+        String role = principal.getRole();
+        if (UserRole.ADMIN.name().equals(role)
+                || (privacy.get(0) == CasePrivacy.RESTRICTED && UserRole.ORGANIZATION.name().equals(role))) {
+            return true;
+        }
+        return crimeCaseRepository.countMembership(caseId, principal.getUserId()) > 0;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attaches direct messages written before conversations existed to their conversation, creating
+ * the conversation rows and last-message pointers as needed. Every statement is idempotent, so
+ * an interrupted run simply finishes on the next start. Backfilled conversations start with no
+ * unread messages.
+ */
+@Component
+public class ConversationBackfillInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationBackfillInitializer.class);
+
+    private static final String CREATE_CONVERSATIONS =
+        "INSERT INTO conversations (user_low_id, user_high_id, unread_low, unread_high) " +
+        "SELECT DISTINCT LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id), 0, 0 " +
+        "FROM direct_messages WHERE conversation_id IS NULL AND sender_id IS NOT NULL AND receiver_id IS NOT NULL " +
+        "ON CONFLICT (user_low_id, user_high_id) DO NOTHING";
+
+    private static final String ATTACH_MESSAGES =
+        "UPDATE direct_messages m SET conversation_id = c.id FROM conversations c " +
+        "WHERE m.conversation_id IS NULL " +
+        "AND c.user_low_id = LEAST(m.sender_id, m.receiver_id) AND c.user_high_id = GREATEST(m.sender_id, m.receiver_id)";
+
+    private static final String POINT_AT_LAST_MESSAGE =
+        "UPDATE conversations c SET last_message_id = last.id, last_message_at = last.sent_at " +
+        "FROM (SELECT DISTINCT ON (conversation_id) conversation_id, id, sent_at FROM direct_messages " +
+        "      WHERE conversation_id IS NOT NULL ORDER BY conversation_id, id DESC) last " +
+        "WHERE last.conversation_id = c.id AND (c.last_message_id IS NULL OR c.last_message_id < last.id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        Boolean pending = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM direct_messages WHERE conversation_id IS NULL)", Boolean.class);
+        if (!Boolean.TRUE.equals(pending)) {
+            return;
+        }
+        int created = jdbcTemplate.update(CREATE_CONVERSATIONS);
+        int attached = jdbcTemplate.update(ATTACH_MESSAGES);
+        jdbcTemplate.update(POINT_AT_LAST_MESSAGE);
+        logger.info("Direct message backfill: {} conversations created, {} messages attached", created, attached);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Makes the custody_entries to evidences key ON DELETE CASCADE on schemas created before CustodyEntry
+ * declared it; ddl-auto never alters an existing key, and without the cascade deleting evidence (or a
+ * case with evidence) fails once custody entries exist. A key that already cascades is left alone.
+ */
+@Component
+@Order(0)
+public class CustodySchemaInitializer implements CommandLineRunner {
+
+    private static final String CASCADE_EVIDENCE_FOREIGN_KEY =
+        "DO $$ DECLARE fk text; BEGIN " +
+        "FOR fk IN SELECT conname FROM pg_constraint " +
+        "WHERE conrelid = 'custody_entries'::regclass AND confrelid = 'evidences'::regclass " +
+        "AND contype = 'f' AND confdeltype <> 'c' LOOP " +
+        "EXECUTE format('ALTER TABLE custody_entries DROP CONSTRAINT %I', fk); " +
+        "END LOOP; " +
+        "IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'custody_entries'::regclass " +
+        "AND confrelid = 'evidences'::regclass AND contype = 'f') THEN " +
+        "ALTER TABLE custody_entries ADD CONSTRAINT fk_custody_entries_evidence FOREIGN KEY (evidence_id) REFERENCES evidences (id) ON DELETE CASCADE; " +
+        "END IF; " +
+        "END $$";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!isPostgres()) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.execute(CASCADE_EVIDENCE_FOREIGN_KEY));
+    }
+
+    private boolean isPostgres() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+}
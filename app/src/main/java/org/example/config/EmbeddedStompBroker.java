@@ -0,0 +1,348 @@
+package org.example.config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.BindException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Minimal in-process STOMP 1.2 broker used when {@code app.websocket.broker=embedded}. It speaks
+ * just enough of the protocol for Spring's broker relay (CONNECT, SUBSCRIBE, UNSUBSCRIBE, SEND,
+ * DISCONNECT, receipts) and copies each SEND to every subscription on exactly that destination,
+ * so the relay path can be exercised without RabbitMQ or ActiveMQ. App instances on one host share
+ * it: the first to start binds the port and the others relay to it.
+ *
+ * Stand-in only: no wildcards, acks, transactions, heart-beats or persistence.
+ */
+public class EmbeddedStompBroker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedStompBroker.class);
+
+    private final int port;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<Subscription>> subscriptionsByDestination = new ConcurrentHashMap<>();
+    private final AtomicLong messageIds = new AtomicLong();
+    private volatile ServerSocket serverSocket;
+
+    public EmbeddedStompBroker(int port) {
+        this.port = port;
+    }
+
+    public void start() throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        try {
+            socket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (BindException e) {
+            socket.close();
+            logger.info("Embedded STOMP broker port {} already in use; relaying to the broker bound there", port);
+            return;
+        }
+        serverSocket = socket;
+        Thread.ofPlatform().name("stomp-embedded-accept").daemon(true).start(this::acceptLoop);
+        logger.info("Embedded STOMP broker listening on {}:{}", socket.getInetAddress().getHostAddress(), port);
+    }
+
+    public void stop() throws IOException {
+        ServerSocket socket = serverSocket;
+        serverSocket = null;
+        if (socket != null) {
+            socket.close();
+        }
+        connections.forEach(Connection::close);
+    }
+
+    private void acceptLoop() {
+        ServerSocket socket = serverSocket;
+        while (socket != null && !socket.isClosed()) {
+            try {
+                Connection connection = new Connection(socket.accept());
+                connections.add(connection);
+                Thread.ofVirtual().name("stomp-embedded-connection").start(connection::readLoop);
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    logger.warn("Embedded STOMP broker accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void publish(Map<String, String> sendHeaders, byte[] body) {
+        String destination = sendHeaders.get("destination");
+        Set<Subscription> subscriptions = subscriptionsByDestination.get(destination);
+        if (subscriptions == null) {
+            return;
+        }
+        String messageId = String.valueOf(messageIds.incrementAndGet());
+        for (Subscription subscription : subscriptions) {
+            Map<String, String> headers = new LinkedHashMap<>(sendHeaders);
+            headers.remove("receipt");
+            headers.remove("transaction");
+            headers.put("subscription", subscription.id);
+            headers.put("message-id", messageId);
+            subscription.connection.send("MESSAGE", headers, body);
+        }
+    }
+
+    private final class Connection {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        // subscription id -> destination
+        private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        private void readLoop() {
+            try {
+                while (true) {
+                    String command = readCommand();
+                    if (command == null) {
+                        break;
+                    }
+                    Map<String, String> headers = readHeaders(!command.equals("CONNECT") && !command.equals("STOMP"));
+                    byte[] body = readBody(headers.get("content-length"));
+                    if (!handle(command, headers, body)) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Embedded STOMP connection closed: {}", e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        // False once the connection should be closed
+        private boolean handle(String command, Map<String, String> headers, byte[] body) {
+            switch (command) {
+                case "CONNECT", "STOMP" -> {
+                    Map<String, String> connected = new LinkedHashMap<>();
+                    connected.put("version", "1.2");
+                    connected.put("heart-beat", "0,0");
+                    connected.put("server", "crimenet-embedded");
+                    send("CONNECTED", connected, new byte[0]);
+                    return true;
+                }
+                case "SUBSCRIBE" -> {
+                    String id = headers.get("id");
+                    String destination = headers.get("destination");
+                    if (id == null || destination == null) {
+                        return error("SUBSCRIBE requires id and destination");
+                    }
+                    subscriptions.put(id, destination);
+                    // Added inside compute so a concurrent unsubscribe cannot drop the set it goes into
+                    Subscription subscription = new Subscription(this, id);
+                    subscriptionsByDestination.compute(destination, (d, subs) -> {
+                        Set<Subscription> target = subs != null ? subs : ConcurrentHashMap.<Subscription>newKeySet();
+                        target.add(subscription);
+                        return target;
+                    });
+                }
+                case "UNSUBSCRIBE" -> unsubscribe(headers.get("id"));
+                case "SEND" -> {
+                    if (headers.get("destination") == null) {
+                        return error("SEND requires a destination");
+                    }
+                    publish(headers, body);
+                }
+                case "DISCONNECT" -> {
+                    receipt(headers);
+                    return false;
+                }
+                default -> {
+                    return error("Unsupported frame " + command);
+                }
+            }
+            receipt(headers);
+            return true;
+        }
+
+        private void receipt(Map<String, String> headers) {
+            String receipt = headers.get("receipt");
+            if (receipt != null) {
+                send("RECEIPT", Map.of("receipt-id", receipt), new byte[0]);
+            }
+        }
+
+        private boolean error(String message) {
+            send("ERROR", Map.of("message", message), new byte[0]);
+            return false;
+        }
+
+        private void unsubscribe(String id) {
+            String destination = id != null ? subscriptions.remove(id) : null;
+            if (destination != null) {
+                subscriptionsByDestination.computeIfPresent(destination, (d, subs) -> {
+                    subs.remove(new Subscription(this, id));
+                    return subs.isEmpty() ? null : subs;
+                });
+            }
+        }
+
+        private synchronized void send(String command, Map<String, String> headers, byte[] body) {
+            StringBuilder frame = new StringBuilder(command).append('\n');
+            boolean escape = !command.equals("CONNECTED");
+            headers.forEach((name, value) -> {
+                if (!name.equals("content-length")) {
+                    frame.append(escape ? escape(name) : name).append(':')
+                        .append(escape ? escape(value) : value).append('\n');
+                }
+            });
+            frame.append("content-length:").append(body.length).append("\n\n");
+            try {
+                out.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+                out.write(body);
+                out.write(0);
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private void close() {
+            if (!connections.remove(this)) {
+                return;
+            }
+            subscriptions.keySet().forEach(this::unsubscribe);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already gone
+            }
+        }
+
+        // Skips the EOLs that separate frames (and heart-beats); null at end of stream
+        private String readCommand() throws IOException {
+            int b;
+            do {
+                b = in.read();
+                if (b == -1) {
+                    return null;
+                }
+            } while (b == '\n' || b == '\r');
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            line.write(b);
+            return readLine(line);
+        }
+
+        private Map<String, String> readHeaders(boolean unescape) throws IOException {
+            Map<String, String> headers = new LinkedHashMap<>();
+            String line;
+            while (!(line = readLine(new ByteArrayOutputStream())).isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon <= 0) {
+                    throw new IOException("Malformed STOMP header: " + line);
+                }
+                String name = unescape ? unescape(line.substring(0, colon)) : line.substring(0, colon);
+                String value = unescape ? unescape(line.substring(colon + 1)) : line.substring(colon + 1);
+                // The first occurrence of a repeated header wins
+                headers.putIfAbsent(name, value);
+            }
+            return headers;
+        }
+
+        private String readLine(ByteArrayOutputStream line) throws IOException {
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b == -1) {
+                    throw new IOException("Connection closed mid-frame");
+                }
+                line.write(b);
+            }
+            String text = line.toString(StandardCharsets.UTF_8);
+            return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+        }
+
+        private byte[] readBody(String contentLength) throws IOException {
+            if (contentLength != null) {
+                int length;
+                try {
+                    length = Integer.parseInt(contentLength.trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid content-length: " + contentLength);
+                }
+                byte[] body = in.readNBytes(length);
+                if (body.length < length || in.read() != 0) {
+                    throw new IOException("Frame not terminated by NUL");
+                }
+                return body;
+            }
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != 0) {
+                if (b == -1) {
+                    throw new IOException("Connection closed mid-frame");
+                }
+                body.write(b);
+            }
+            return body.toByteArray();
+        }
+    }
+
+    private static final class Subscription {
+        private final Connection connection;
+        private final String id;
+
+        private Subscription(Connection connection, String id) {
+            this.connection = connection;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Subscription other && other.connection == connection && other.id.equals(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(connection) * 31 + id.hashCode();
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\r", "\\r").replace("\n", "\\n").replace(":", "\\c");
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                result.append(switch (next) {
+                    case 'r' -> '\r';
+                    case 'n' -> '\n';
+                    case 'c' -> ':';
+                    default -> next;
+                });
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
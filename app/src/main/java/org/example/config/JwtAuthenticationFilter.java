@@ -1,19 +1,25 @@
     package org.example.config;
 
     import java.io.IOException;
+    import java.util.List;
 
+    import org.example.index.TokenVersionCache;
     import org.example.service.JwtService;
     import org.slf4j.Logger;
     import org.slf4j.LoggerFactory;
     import org.springframework.beans.factory.annotation.Autowired;
     import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+    import org.springframework.security.core.authority.SimpleGrantedAuthority;
     import org.springframework.security.core.context.SecurityContextHolder;
+    import org.springframework.security.core.userdetails.User;
     import org.springframework.security.core.userdetails.UserDetails;
     import org.springframework.security.core.userdetails.UserDetailsService;
+    import org.springframework.security.core.userdetails.UsernameNotFoundException;
     import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
     import org.springframework.stereotype.Component;
     import org.springframework.web.filter.OncePerRequestFilter;
 
+    import io.jsonwebtoken.JwtException;
     import jakarta.servlet.FilterChain;
     import jakarta.servlet.ServletException;
     import jakarta.servlet.http.HttpServletRequest;
@@ -30,6 +36,9 @@
         @Autowired
         private UserDetailsService userDetailsService;
 
+        @Autowired
+        private TokenVersionCache tokenVersionCache;
+
         @Override
         protected void doFilterInternal(
                 HttpServletRequest request,
@@ -37,7 +46,7 @@
                 FilterChain filterChain
         ) throws ServletException, IOException {
             
-            logger.info("DEBUG: JWT Filter processing request: " + request.getMethod() + " " + request.getRequestURI());
+            logger.debug("JWT Filter processing request: {} {}", request.getMethod(), request.getRequestURI());
             
             // Skip JWT filter only for login, register, and public-test endpoints
             String path = request.getRequestURI();
@@ -46,24 +55,20 @@
                 path.equals("/api/auth/register") ||
                 path.equals("/api/auth/public-test")
             ) {
-                logger.info("DEBUG: Skipping JWT filter for auth endpoint: " + path);
+                logger.debug("Skipping JWT filter for auth endpoint: {}", path);
                 filterChain.doFilter(request, response);
                 return;
             }
             
             final String authHeader = request.getHeader("Authorization");
-            final String jwt;
-            final String username;
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                logger.info("DEBUG: No Authorization header, continuing filter chain");
+                logger.debug("No Authorization header, continuing filter chain");
                 filterChain.doFilter(request, response);
                 return;
             }
-            jwt = authHeader.substring(7);
-            username = jwtService.extractUsername(jwt);
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = authenticate(authHeader.substring(7));
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -77,4 +82,36 @@
             }
             filterChain.doFilter(request, response);
         }
+
+        // Verifies the token once. Tokens carrying role and version claims are trusted without a
+        // user lookup; older tokens fall back to loading the user.
+        private UserDetails authenticate(String jwt) {
+            JwtService.VerifiedToken token;
+            try {
+                token = jwtService.verify(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("Rejected JWT: {}", e.getMessage());
+                return null;
+            }
+            String username = token.getSubject();
+            if (username == null) {
+                return null;
+            }
+
+            Long userId = token.getUserId();
+            String role = token.getRole();
+            Long version = token.getTokenVersion();
+            if (userId != null && role != null && version != null) {
+                if (!tokenVersionCache.isCurrent(userId, version)) {
+                    return null;
+                }
+                return new User(username, "", List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+            }
+
+            try {
+                return userDetailsService.loadUserByUsername(username);
+            } catch (UsernameNotFoundException e) {
+                return null;
+            }
+        }
     } 
\ No newline at end of file
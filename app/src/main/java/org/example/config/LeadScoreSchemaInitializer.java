@@ -0,0 +1,64 @@
+package org.example.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ties lead_scores rows to their lead with ON DELETE CASCADE, so deleting a lead (directly or with
+ * its case) also drops its score row. LeadScore maps lead_id as a plain id, so ddl-auto creates no
+ * key; scores left behind by leads deleted before the key existed are removed first.
+ */
+@Component
+@Order(0)
+public class LeadScoreSchemaInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeadScoreSchemaInitializer.class);
+
+    private static final String ADD_LEAD_FOREIGN_KEY =
+        "DO $$ BEGIN " +
+        "IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_lead_scores_lead') THEN " +
+        "ALTER TABLE lead_scores ADD CONSTRAINT fk_lead_scores_lead FOREIGN KEY (lead_id) REFERENCES leads (id) ON DELETE CASCADE; " +
+        "END IF; " +
+        "END $$";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!isPostgres()) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            int orphans = jdbcTemplate.update("DELETE FROM lead_scores s WHERE NOT EXISTS (SELECT 1 FROM leads l WHERE l.id = s.lead_id)");
+            jdbcTemplate.execute(ADD_LEAD_FOREIGN_KEY);
+            if (orphans > 0) {
+                logger.warn("Removed {} lead scores of deleted leads", orphans);
+            }
+        });
+    }
+
+    private boolean isPostgres() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+}
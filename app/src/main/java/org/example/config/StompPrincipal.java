@@ -0,0 +1,30 @@
+package org.example.config;
+
+import java.security.Principal;
+
+/**
+ * The user bound to a STOMP session when it authenticates. The name is the user id, so
+ * {@code convertAndSendToUser(String.valueOf(userId), ...)} reaches a user without looking up
+ * their username.
+ */
+public class StompPrincipal implements Principal {
+
+    private final Long userId;
+    private final String username;
+    private final String role;
+
+    public StompPrincipal(Long userId, String username, String role) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public String getRole() { return role; }
+}
@@ -0,0 +1,64 @@
+package org.example.config;
+
+import org.example.entity.User;
+import org.example.index.TokenVersionCache;
+import org.example.repository.UserRepository;
+import org.example.service.JwtService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Turns a bearer token into a {@link StompPrincipal}, once per WebSocket session. Follows
+ * JwtAuthenticationFilter: tokens with id, role and version claims are trusted without a user
+ * lookup; older tokens fall back to loading the user by name.
+ */
+@Component
+public class WebSocketAuthenticator {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketAuthenticator.class);
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Accepts the token with or without its "Bearer " prefix; null when it does not authenticate
+    public StompPrincipal authenticate(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String jwt = token.startsWith("Bearer ") ? token.substring(7) : token;
+        JwtService.VerifiedToken verified;
+        try {
+            verified = jwtService.verify(jwt.trim());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected WebSocket JWT: {}", e.getMessage());
+            return null;
+        }
+        String username = verified.getSubject();
+        if (username == null) {
+            return null;
+        }
+
+        Long userId = verified.getUserId();
+        String role = verified.getRole();
+        Long version = verified.getTokenVersion();
+        if (userId != null && role != null && version != null) {
+            return tokenVersionCache.isCurrent(userId, version) ? new StompPrincipal(userId, username, role) : null;
+        }
+
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            return null;
+        }
+        return new StompPrincipal(user.getId(), user.getUsername(), user.getRole() != null ? user.getRole().name() : null);
+    }
+}
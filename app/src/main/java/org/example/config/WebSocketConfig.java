@@ -1,49 +1,241 @@
 package org.example.config;
 
+import java.net.InetAddress;
+import java.security.Principal;
 import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+import org.springframework.web.util.UriComponentsBuilder;
 
+/**
+ * Authenticates the handshake from the Authorization header or, for browser clients that cannot
+ * set headers, an access_token query parameter. A valid token binds a {@link StompPrincipal} to
+ * the session; an invalid one is refused with 401. With no token the handshake proceeds and the
+ * STOMP CONNECT frame must authenticate instead (see {@link StompAuthChannelInterceptor}).
+ */
 class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    static final String PRINCIPAL_ATTRIBUTE = "stompPrincipal";
+
+    private final WebSocketAuthenticator authenticator;
+
+    JwtHandshakeInterceptor(WebSocketAuthenticator authenticator) {
+        this.authenticator = authenticator;
+    }
+
     @Override
     public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
                                    WebSocketHandler wsHandler, Map<String, Object> attributes) {
-        // Extract JWT from headers
-        String authHeader = request.getHeaders().getFirst("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            // TODO: Validate the token and set authentication in SecurityContextHolder
-            // You can use your JwtService or similar here
+        String token = request.getHeaders().getFirst("Authorization");
+        if (token == null) {
+            token = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("access_token");
+        }
+        if (token == null) {
+            return true;
         }
+        StompPrincipal principal = authenticator.authenticate(token);
+        if (principal == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        attributes.put(PRINCIPAL_ATTRIBUTE, principal);
         return true;
     }
+
     @Override
     public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
                                WebSocketHandler wsHandler, Exception exception) {}
 }
 
+// Makes the principal bound by JwtHandshakeInterceptor the WebSocket session's user
+class PrincipalHandshakeHandler extends DefaultHandshakeHandler {
+    @Override
+    protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler,
+                                      Map<String, Object> attributes) {
+        return (Principal) attributes.get(JwtHandshakeInterceptor.PRINCIPAL_ATTRIBUTE);
+    }
+}
+
+/**
+ * Requires every session to be authenticated before it can subscribe or send. Sessions whose
+ * handshake carried no token authenticate with an Authorization header on CONNECT; either way
+ * the token is checked once and later frames carry the session's principal.
+ *
+ * Clients may only SEND to application destinations (/app/**); broker destinations are written by
+ * the server alone, so a client cannot forge case activity or post into another user's queue.
+ * SUBSCRIBE is limited by {@link CaseTopicAuthorizer} to the session's own /user/queue/** and to
+ * case activity topics the user may see under the case's privacy.
+ */
+class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    static final String APPLICATION_PREFIX = "/app/";
+
+    private final WebSocketAuthenticator authenticator;
+    private final CaseTopicAuthorizer caseTopicAuthorizer;
+
+    StompAuthChannelInterceptor(WebSocketAuthenticator authenticator, CaseTopicAuthorizer caseTopicAuthorizer) {
+        this.authenticator = authenticator;
+        this.caseTopicAuthorizer = caseTopicAuthorizer;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        switch (accessor.getCommand()) {
+            case CONNECT, STOMP -> {
+                if (accessor.getUser() == null) {
+                    StompPrincipal principal = authenticator.authenticate(accessor.getFirstNativeHeader("Authorization"));
+                    if (principal == null) {
+                        throw new MessageDeliveryException("Authentication required");
+                    }
+                    accessor.setUser(principal);
+                }
+            }
+            case SEND -> {
+                if (accessor.getUser() == null) {
+                    throw new MessageDeliveryException("Authentication required");
+                }
+                String destination = accessor.getDestination();
+                if (destination == null || !destination.startsWith(APPLICATION_PREFIX)) {
+                    throw new MessageDeliveryException("Clients may only send to " + APPLICATION_PREFIX + "**");
+                }
+            }
+            case SUBSCRIBE -> {
+                if (!(accessor.getUser() instanceof StompPrincipal principal)) {
+                    throw new MessageDeliveryException("Authentication required");
+                }
+                if (!caseTopicAuthorizer.canSubscribe(principal, accessor.getDestination())) {
+                    throw new MessageDeliveryException("Not allowed to subscribe to " + accessor.getDestination());
+                }
+            }
+            default -> { }
+        }
+        return message;
+    }
+}
+
+/**
+ * STOMP over WebSocket. app.websocket.broker selects where subscriptions live:
+ * <ul>
+ *   <li>{@code simple} (default): Spring's in-memory broker, single instance only.</li>
+ *   <li>{@code relay}: forwards to an external STOMP broker (RabbitMQ, ActiveMQ) at
+ *       app.websocket.relay.*, so /user/queue/dm reaches a user's sessions on every instance.</li>
+ *   <li>{@code embedded}: the relay pointed at an {@link EmbeddedStompBroker} on the relay port, for
+ *       running several instances locally or testing the relay path without an external broker.</li>
+ * </ul>
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
+
+    @Value("${app.websocket.broker:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${app.websocket.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Autowired
+    private BrokerFanoutMetrics brokerFanoutMetrics;
+
+    @Autowired
+    private WebSocketAuthenticator webSocketAuthenticator;
+
+    @Autowired
+    private CaseTopicAuthorizer caseTopicAuthorizer;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "app.websocket.broker", havingValue = "embedded")
+    public EmbeddedStompBroker embeddedStompBroker() {
+        return new EmbeddedStompBroker(relayPort);
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        switch (brokerMode) {
+            case "simple" -> config.enableSimpleBroker("/topic", "/queue");
+            case "relay", "embedded" -> {
+                String host = brokerMode.equals("embedded") ? InetAddress.getLoopbackAddress().getHostAddress() : relayHost;
+                StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(host)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // Lets /user destinations resolve sessions connected to other instances
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+                if (!relayVirtualHost.isBlank()) {
+                    relay.setVirtualHost(relayVirtualHost);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown app.websocket.broker: " + brokerMode);
+        }
         config.setApplicationDestinationPrefixes("/app");
+        // /user/queue/dm resolves to the sessions of the principal named by the user id
+        config.setUserDestinationPrefix("/user");
+        config.configureBrokerChannel().interceptors(brokerFanoutMetrics.publishedInterceptor());
+        logger.info("STOMP broker mode: {}", brokerMode);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StompAuthChannelInterceptor(webSocketAuthenticator, caseTopicAuthorizer),
+            brokerFanoutMetrics.inboundInterceptor());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(brokerFanoutMetrics.deliveredInterceptor());
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
             .setAllowedOriginPatterns("*")
-            .addInterceptors(new JwtHandshakeInterceptor())
+            .setHandshakeHandler(new PrincipalHandshakeHandler())
+            .addInterceptors(new JwtHandshakeInterceptor(webSocketAuthenticator))
             .withSockJS();
     }
-} 
\ No newline at end of file
+}
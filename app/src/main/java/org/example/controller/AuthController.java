@@ -93,6 +93,21 @@ public class AuthController {
         return ResponseEntity.ok().build();
     }
 
+    // Revokes every token issued to the current user, on all devices
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Optional<User> user = authentication != null
+                ? userService.findByUsername(authentication.getName())
+                : Optional.empty();
+        if (user.isEmpty()) {
+            return ResponseEntity.status(401).build();
+        }
+        userService.revokeTokens(user.get().getId());
+        SecurityContextHolder.clearContext();
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping("/me")
     public ResponseEntity<User> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -5,12 +5,15 @@ import java.util.Map;
 
 import org.example.entity.Badge;
 import org.example.entity.BadgeAward;
+import org.example.entity.BadgeEvaluationRun;
 import org.example.entity.BadgeTier;
 import org.example.entity.BadgeType;
 import org.example.entity.User;
+import org.example.service.BadgeReevaluationJob;
 import org.example.service.BadgeService;
 import org.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -34,6 +37,9 @@ public class BadgeController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private BadgeReevaluationJob badgeReevaluationJob;
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Badge> createBadge(@RequestBody Badge badge) {
@@ -61,6 +67,24 @@ public class BadgeController {
         return ResponseEntity.ok().build();
     }
 
+    // Retro-awards every active badge to all solvers; runs in the background and resumes if interrupted
+    @PostMapping("/reevaluate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reevaluateBadges() {
+        if (!badgeReevaluationJob.startAsync()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Badge re-evaluation is already running"));
+        }
+        return ResponseEntity.accepted().body(Map.of("message", "Badge re-evaluation started"));
+    }
+
+    @GetMapping("/reevaluate/latest")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BadgeEvaluationRun> getLatestReevaluation() {
+        return badgeReevaluationJob.getLatestRun()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping
     public ResponseEntity<List<Badge>> getAllBadges() {
         return ResponseEntity.ok(badgeService.findAllBadges());
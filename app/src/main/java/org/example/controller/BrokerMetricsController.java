@@ -0,0 +1,34 @@
+package org.example.controller;
+
+import java.util.Map;
+
+import org.example.config.BrokerFanoutMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/broker")
+@CrossOrigin(origins = "*")
+public class BrokerMetricsController {
+
+    @Autowired
+    private BrokerFanoutMetrics brokerFanoutMetrics;
+
+    @Value("${app.websocket.broker:simple}")
+    private String brokerMode;
+
+    // Per-destination publish/delivery counts and live subscriptions on this instance
+    @GetMapping("/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getFanoutMetrics() {
+        return ResponseEntity.ok(Map.of(
+            "mode", brokerMode,
+            "destinations", brokerFanoutMetrics.snapshot()));
+    }
+}
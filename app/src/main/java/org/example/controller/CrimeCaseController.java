@@ -1,19 +1,31 @@
 package org.example.controller;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
+import org.example.dto.CaseStatisticsDTO;
+import org.example.dto.CaseSummaryDTO;
 import org.example.dto.CommentDTO;
 import org.example.entity.CaseDifficulty;
+import org.example.entity.CaseFile;
 import org.example.entity.CaseStatus;
 import org.example.entity.CaseType;
 import org.example.entity.CrimeCase;
 import org.example.entity.User;
+import org.example.index.TagIndex.TagCount;
+import org.example.service.CaseCommentService;
+import org.example.service.CaseSearchService;
 import org.example.service.CrimeCaseService;
+import org.example.service.FileDownloadService;
+import org.example.service.FileStorageService;
+import org.example.service.FileStorageService.StoredFile;
+import org.example.service.FileStorageService.UploadTooLargeException;
 import org.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -31,6 +43,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/api/cases")
 @CrossOrigin(origins = "*")
@@ -42,6 +57,18 @@ public class CrimeCaseController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CaseSearchService caseSearchService;
+
+    @Autowired
+    private CaseCommentService caseCommentService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private FileDownloadService fileDownloadService;
+
     @PostMapping
     @PreAuthorize("hasRole('ORGANIZATION')")
     public ResponseEntity<CrimeCase> createCase(@RequestBody CrimeCase crimeCase) {
@@ -77,60 +104,18 @@ public class CrimeCaseController {
     }
 
     @GetMapping
-    public ResponseEntity<List<CaseSummary>> getAllCases() {
-        List<CaseSummary> summaries = crimeCaseService.findAll().stream()
-            .map(c -> new CaseSummary(
-                c.getId(),
-                c.getTitle(),
-                c.getDescription(),
-                c.getStatus() != null ? c.getStatus().toString() : null,
-                c.getPostedAt() != null ? c.getPostedAt().toString() : null,
-                c.getImageUrl(),
-                c.getMediaUrl(),
-                c.getTags() != null ? new ArrayList<>(c.getTags()) : new ArrayList<>(),
-                c.getCaseType() != null ? c.getCaseType().toString() : null,
-                c.getDifficulty() != null ? c.getDifficulty().toString() : null
-            ))
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(summaries);
+    public ResponseEntity<List<CaseSummaryDTO>> getAllCases() {
+        return ResponseEntity.ok(crimeCaseService.getAllCaseSummaries());
     }
 
-    public static class CaseSummary {
-        private Long id;
-        private String title;
-        private String description;
-        private String status;
-        private String postedAt;
-        private String imageUrl;
-        private String mediaUrl;
-        private List<String> tags;
-        private String caseType;
-        private String difficulty;
-
-        public CaseSummary(Long id, String title, String description, String status, String postedAt, 
-                          String imageUrl, String mediaUrl, List<String> tags, String caseType, String difficulty) {
-            this.id = id;
-            this.title = title;
-            this.description = description;
-            this.status = status;
-            this.postedAt = postedAt;
-            this.imageUrl = imageUrl;
-            this.mediaUrl = mediaUrl;
-            this.tags = tags;
-            this.caseType = caseType;
-            this.difficulty = difficulty;
+    @GetMapping("/feed")
+    public ResponseEntity<?> getCaseFeed(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(crimeCaseService.getCaseFeed(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
-        
-        public Long getId() { return id; }
-        public String getTitle() { return title; }
-        public String getDescription() { return description; }
-        public String getStatus() { return status; }
-        public String getPostedAt() { return postedAt; }
-        public String getImageUrl() { return imageUrl; }
-        public String getMediaUrl() { return mediaUrl; }
-        public List<String> getTags() { return tags; }
-        public String getCaseType() { return caseType; }
-        public String getDifficulty() { return difficulty; }
     }
 
     @GetMapping("/public")
@@ -162,8 +147,14 @@ public class CrimeCaseController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<CrimeCase>> searchCases(@RequestParam String searchTerm) {
-        return ResponseEntity.ok(crimeCaseService.searchByTitleOrDescription(searchTerm));
+    public ResponseEntity<?> searchCases(@RequestParam String searchTerm,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(caseSearchService.search(searchTerm, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/tags/{tag}")
@@ -176,6 +167,28 @@ public class CrimeCaseController {
         return ResponseEntity.ok(crimeCaseService.getAllTags());
     }
 
+    @GetMapping("/tags/query")
+    public ResponseEntity<List<CaseSummaryDTO>> getCasesByTags(@RequestParam List<String> tags,
+                                                               @RequestParam(defaultValue = "any") String match) {
+        return ResponseEntity.ok(crimeCaseService.findCaseSummariesByTags(tags, "all".equalsIgnoreCase(match)));
+    }
+
+    @GetMapping("/tags/suggest")
+    public ResponseEntity<List<TagCount>> suggestTags(@RequestParam(defaultValue = "") String prefix,
+                                                      @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(crimeCaseService.suggestTags(prefix, limit));
+    }
+
+    @GetMapping("/statistics")
+    public ResponseEntity<CaseStatisticsDTO> getCaseStatistics() {
+        return ResponseEntity.ok(crimeCaseService.getCaseStatistics());
+    }
+
+    @GetMapping("/statistics/organization/{organizationId}")
+    public ResponseEntity<Map<String, Long>> getOrganizationCaseCount(@PathVariable Long organizationId) {
+        return ResponseEntity.ok(Map.of("totalCases", crimeCaseService.getCaseCountForOrganization(organizationId)));
+    }
+
     @GetMapping("/categories")
     public ResponseEntity<List<String>> getAllCategories() {
         List<String> categories = new ArrayList<>();
@@ -222,45 +235,79 @@ public class CrimeCaseController {
         }
     }
 
+    @GetMapping("/{id}/files")
+    public ResponseEntity<?> getCaseFiles(@PathVariable Long id) {
+        return ResponseEntity.ok(crimeCaseService.getCaseFiles(id));
+    }
+
+    // Raw request body streamed straight to disk (not multipart, so no size cap from spring.servlet.multipart)
+    @PostMapping("/{id}/files")
+    @PreAuthorize("hasRole('ORGANIZATION')")
+    public ResponseEntity<?> uploadCaseFile(@PathVariable Long id, @RequestParam(required = false) String filename,
+                                            HttpServletRequest request, @AuthenticationPrincipal UserDetails userDetails) {
+        if (crimeCaseService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        User user = userService.findByUsername(userDetails.getUsername())
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            StoredFile stored = fileStorageService.store(request.getInputStream());
+            return ResponseEntity.ok(crimeCaseService.addCaseFile(id, user, filename,
+                FileStorageService.contentTypeOrDefault(request.getContentType()), stored));
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Upload failed"));
+        }
+    }
+
+    @GetMapping("/{id}/files/{fileId}")
+    public void downloadCaseFile(@PathVariable Long id, @PathVariable Long fileId, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        Optional<CaseFile> fileOpt = crimeCaseService.findCaseFile(id, fileId);
+        if (fileOpt.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        CaseFile caseFile = fileOpt.get();
+        fileDownloadService.serve(request, response, caseFile.getFilePath(), caseFile.getContentHash(),
+            caseFile.getOriginalFileName() != null ? caseFile.getOriginalFileName() : caseFile.getFileName(), caseFile.getFileType());
+    }
+
     @GetMapping("/{id}/comments")
     public ResponseEntity<List<CommentDTO>> getCaseComments(@PathVariable Long id) {
-        return crimeCaseService.findById(id)
-            .map(crimeCase -> {
-                List<CommentDTO> comments = crimeCase.getComments().stream()
-                    .map(c -> {
-                        CommentDTO dto = new CommentDTO();
-                        dto.setId(c.getId());
-                        dto.setUserId(c.getUser() != null ? c.getUser().getId() : null);
-                        dto.setAuthor(c.getUser() != null ? c.getUser().getUsername() : "Unknown");
-                        dto.setContent(c.getContent());
-                        dto.setCreatedAt(c.getCreatedAt() != null ? c.getCreatedAt().toString() : null);
-                        return dto;
-                    })
-                    .collect(Collectors.toList());
-                return ResponseEntity.ok(comments);
-            })
+        return caseCommentService.getComments(id)
+            .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/comments/page")
+    public ResponseEntity<?> getCaseCommentPage(@PathVariable Long id,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "50") int size) {
+        try {
+            return caseCommentService.getCommentPage(id, cursor, size)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/{id}/comments")
     public ResponseEntity<?> addCaseComment(@PathVariable Long id, @RequestBody Map<String, String> body, @AuthenticationPrincipal UserDetails userDetails) {
         String content = body.get("content");
         if (content == null || content.trim().isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "Content is required"));
         }
-        return crimeCaseService.findById(id)
-            .map(crimeCase -> {
-                User user = userService.findByUsername(userDetails.getUsername())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-                org.example.entity.CaseComment comment = new org.example.entity.CaseComment();
-                comment.setContent(content);
-                comment.setCrimeCase(crimeCase);
-                comment.setUser(user);
-                // createdAt is set by @PrePersist
-                crimeCase.getComments().add(comment);
-                crimeCaseService.updateCase(crimeCase);
-                return ResponseEntity.ok().build();
-            })
-            .orElse(ResponseEntity.notFound().build());
+        User user = userService.findByUsername(userDetails.getUsername())
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            return ResponseEntity.ok(caseCommentService.addComment(id, user, content));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 }
\ No newline at end of file
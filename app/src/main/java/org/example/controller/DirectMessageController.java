@@ -1,6 +1,7 @@
 package org.example.controller;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.example.entity.DirectMessage;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -45,6 +47,45 @@ public class DirectMessageController {
         return ResponseEntity.ok(chat);
     }
 
+    // Get one page of chat history, newest page first; ?cursor= continues further back
+    @GetMapping("/chat/{userId}/page")
+    public ResponseEntity<?> getChatPage(@PathVariable Long userId, Authentication authentication,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int size) {
+        User user1 = userRepository.findByUsername(authentication.getName()).orElse(null);
+        User user2 = userRepository.findById(userId).orElse(null);
+        if (user1 == null || user2 == null) return ResponseEntity.badRequest().body("Invalid users");
+        try {
+            return ResponseEntity.ok(directMessageService.getChatPage(user1, user2, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Mark the chat with a user as read
+    @PostMapping("/chat/{userId}/read")
+    public ResponseEntity<?> markChatRead(@PathVariable Long userId, Authentication authentication) {
+        User user1 = userRepository.findByUsername(authentication.getName()).orElse(null);
+        User user2 = userRepository.findById(userId).orElse(null);
+        if (user1 == null || user2 == null) return ResponseEntity.badRequest().body("Invalid users");
+        directMessageService.markRead(user1, user2);
+        return ResponseEntity.ok().build();
+    }
+
+    // Get conversations with their last message and unread count, most recent first
+    @GetMapping("/conversations")
+    public ResponseEntity<?> getInbox(Authentication authentication,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "20") int size) {
+        User user = userRepository.findByUsername(authentication.getName()).orElse(null);
+        if (user == null) return ResponseEntity.badRequest().body("Invalid user");
+        try {
+            return ResponseEntity.ok(directMessageService.getInbox(user, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Get eligible DM users
     @GetMapping("/eligible")
     public ResponseEntity<?> getEligibleDMUsers(Authentication authentication) {
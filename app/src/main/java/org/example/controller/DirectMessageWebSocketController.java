@@ -1,16 +1,28 @@
 package org.example.controller;
 
+import java.security.Principal;
+
+import org.example.config.StompPrincipal;
+import org.example.dto.DirectMessageDTO;
 import org.example.entity.DirectMessage;
 import org.example.entity.User;
 import org.example.repository.UserRepository;
 import org.example.service.DirectMessageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 @Controller
 public class DirectMessageWebSocketController {
+    public static final String DM_QUEUE = "/queue/dm";
+    public static final String ERROR_QUEUE = "/queue/errors";
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectMessageWebSocketController.class);
+
     @Autowired
     private DirectMessageService directMessageService;
     @Autowired
@@ -18,21 +30,33 @@ public class DirectMessageWebSocketController {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    // The sender is the session's principal, bound at handshake or CONNECT; users are referenced
+    // by id without being loaded, so a message costs its inserts and no lookups
     @MessageMapping("/dm.send")
-    public void sendMessage(DMWebSocketMessage message) {
-        User sender = userRepository.findById(message.senderId).orElse(null);
-        User receiver = userRepository.findById(message.receiverId).orElse(null);
-        if (sender == null || receiver == null) return;
-        DirectMessage saved = directMessageService.sendMessage(sender, receiver, message.content);
-        // Send to receiver's topic
-        messagingTemplate.convertAndSend("/topic/dm." + receiver.getId(), saved);
-        // Optionally, send to sender's topic as well
-        messagingTemplate.convertAndSend("/topic/dm." + sender.getId(), saved);
+    public void sendMessage(DMWebSocketMessage message, Principal principal) {
+        if (!(principal instanceof StompPrincipal sender) || message.receiverId == null
+                || message.content == null || message.content.isBlank()) {
+            return;
+        }
+        DirectMessage saved;
+        try {
+            saved = directMessageService.sendMessage(userRepository.getReferenceById(sender.getUserId()),
+                userRepository.getReferenceById(message.receiverId), message.content);
+        } catch (DataIntegrityViolationException e) {
+            // The receiver id does not reference a user
+            logger.debug("Direct message from {} to {} rejected: {}", sender.getUserId(), message.receiverId, e.getMessage());
+            messagingTemplate.convertAndSendToUser(sender.getName(), ERROR_QUEUE, "Unknown receiver");
+            return;
+        }
+        DirectMessageDTO dto = new DirectMessageDTO(saved.getId(), sender.getUserId(), message.receiverId,
+            saved.getContent(), saved.getSentAt());
+        messagingTemplate.convertAndSendToUser(String.valueOf(message.receiverId), DM_QUEUE, dto);
+        // Also to the sender, so their other sessions see the message
+        messagingTemplate.convertAndSendToUser(sender.getName(), DM_QUEUE, dto);
     }
 
     public static class DMWebSocketMessage {
-        public Long senderId;
         public Long receiverId;
         public String content;
     }
-} 
\ No newline at end of file
+}
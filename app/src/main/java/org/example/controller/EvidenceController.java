@@ -1,16 +1,28 @@
 package org.example.controller;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import org.example.dto.CustodyEntryDTO;
+import org.example.dto.CustodyVerificationDTO;
 import org.example.entity.CrimeCase;
 import org.example.entity.Evidence;
 import org.example.entity.EvidenceStatus;
 import org.example.entity.EvidenceType;
 import org.example.entity.User;
 import org.example.service.CrimeCaseService;
+import org.example.service.CustodyLedgerService;
 import org.example.service.EvidenceService;
+import org.example.service.FileDownloadService;
+import org.example.service.FileStorageService;
+import org.example.service.FileStorageService.StoredFile;
+import org.example.service.FileStorageService.UploadTooLargeException;
 import org.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -26,6 +38,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/api/evidence")
 @CrossOrigin(origins = "*")
@@ -40,6 +55,15 @@ public class EvidenceController {
     @Autowired
     private CrimeCaseService crimeCaseService;
 
+    @Autowired
+    private CustodyLedgerService custodyLedgerService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private FileDownloadService fileDownloadService;
+
     @PostMapping
     @PreAuthorize("hasRole('SOLVER') or hasRole('ORGANIZATION')")
     public ResponseEntity<Evidence> createEvidence(@RequestBody Evidence evidence) {
@@ -110,11 +134,96 @@ public class EvidenceController {
         return ResponseEntity.ok(evidenceService.findByType(type));
     }
 
+    @GetMapping("/tags/{tag}")
+    public ResponseEntity<List<Evidence>> getEvidenceByTag(@PathVariable String tag) {
+        return ResponseEntity.ok(evidenceService.findByTag(tag));
+    }
+
     @GetMapping("/chain-of-custody/{evidenceId}")
     public ResponseEntity<List<Evidence>> getEvidenceWithChainOfCustody(@PathVariable Long evidenceId) {
         return ResponseEntity.ok(evidenceService.getEvidenceWithChainOfCustody());
     }
 
+    // Raw request body streamed straight to disk (not multipart, so no size cap from spring.servlet.multipart)
+    @PutMapping("/{id}/file")
+    @PreAuthorize("hasRole('SOLVER') or hasRole('ORGANIZATION')")
+    public ResponseEntity<?> uploadEvidenceFile(@PathVariable Long id, @RequestParam(required = false) String filename,
+                                          HttpServletRequest request) {
+        if (evidenceService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            StoredFile stored = fileStorageService.store(request.getInputStream());
+            return ResponseEntity.ok(evidenceService.attachFile(id, stored, filename,
+                FileStorageService.contentTypeOrDefault(request.getContentType())));
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Upload failed"));
+        }
+    }
+
+    // Supports Range, If-Range and conditional GETs so players can seek without fetching the whole file
+    @GetMapping("/{id}/file")
+    public void downloadEvidenceFile(@PathVariable Long id, HttpServletRequest request,
+                                     HttpServletResponse response) throws IOException {
+        Optional<Evidence> evidenceOpt = evidenceService.findById(id);
+        if (evidenceOpt.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Evidence evidence = evidenceOpt.get();
+        fileDownloadService.serve(request, response, evidence.getFilePath(), evidence.getContentHash(),
+            evidence.getOriginalFileName(), evidence.getFileType());
+    }
+
+    // JPEG preview written by MediaProcessingService; the file name under objects/ is its content hash
+    @GetMapping("/{id}/thumbnail")
+    public void getEvidenceThumbnail(@PathVariable Long id, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        Optional<Evidence> evidenceOpt = evidenceService.findById(id);
+        if (evidenceOpt.isEmpty() || evidenceOpt.get().getThumbnailPath() == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String thumbnailPath = evidenceOpt.get().getThumbnailPath();
+        fileDownloadService.serve(request, response, thumbnailPath,
+            thumbnailPath.substring(thumbnailPath.lastIndexOf('/') + 1), null, "image/jpeg");
+    }
+
+    @GetMapping("/{id}/custody")
+    public ResponseEntity<List<CustodyEntryDTO>> getCustodyEntries(@PathVariable Long id) {
+        return ResponseEntity.ok(custodyLedgerService.getEntries(id));
+    }
+
+    @PostMapping("/{id}/custody")
+    @PreAuthorize("hasRole('SOLVER') or hasRole('ORGANIZATION')")
+    public ResponseEntity<?> addCustodyEntry(@PathVariable Long id, @RequestBody Map<String, String> body) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = userService.findByUsername(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            return ResponseEntity.ok(evidenceService.recordCustodyEntry(id, currentUser, body.get("action"), body.get("notes")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            // Another entry took this sequence; the client can retry against the new head
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Custody chain changed concurrently, retry"));
+        }
+    }
+
+    @GetMapping("/{id}/custody/verify")
+    public ResponseEntity<CustodyVerificationDTO> verifyCustodyChain(@PathVariable Long id) {
+        return ResponseEntity.ok(custodyLedgerService.verify(id));
+    }
+
+    @PostMapping("/custody/verify")
+    public ResponseEntity<List<CustodyVerificationDTO>> verifyCustodyChains(@RequestBody List<Long> evidenceIds) {
+        return ResponseEntity.ok(custodyLedgerService.verifyAll(evidenceIds));
+    }
+
     @PostMapping("/{id}/status")
     @PreAuthorize("hasRole('SOLVER') or hasRole('ORGANIZATION')")
     public ResponseEntity<Evidence> updateEvidenceStatus(@PathVariable Long id, @RequestParam EvidenceStatus status) {
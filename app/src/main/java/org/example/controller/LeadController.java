@@ -1,16 +1,27 @@
 package org.example.controller;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import org.example.dto.LeadScoreDTO;
+import org.example.dto.TrendingLeadPageDTO;
 import org.example.entity.CrimeCase;
 import org.example.entity.Lead;
 import org.example.entity.LeadStatus;
+import org.example.entity.LeadVote;
 import org.example.entity.LeadType;
 import org.example.entity.User;
 import org.example.service.CrimeCaseService;
+import org.example.service.FileDownloadService;
+import org.example.service.FileStorageService;
+import org.example.service.FileStorageService.StoredFile;
+import org.example.service.FileStorageService.UploadTooLargeException;
 import org.example.service.LeadService;
 import org.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -26,6 +37,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/api/leads")
 @CrossOrigin(origins = "*")
@@ -40,6 +54,12 @@ public class LeadController {
     @Autowired
     private CrimeCaseService crimeCaseService;
 
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private FileDownloadService fileDownloadService;
+
     @PostMapping
     @PreAuthorize("hasRole('SOLVER') or hasRole('ORGANIZATION')")
     public ResponseEntity<Lead> createLead(@RequestBody Lead lead) {
@@ -78,6 +98,55 @@ public class LeadController {
         return ResponseEntity.ok(leadService.updateLead(lead));
     }
 
+    // Raw request body streamed straight to disk (not multipart, so no size cap from spring.servlet.multipart)
+    @PutMapping("/{id}/file")
+    @PreAuthorize("hasRole('SOLVER') or hasRole('ORGANIZATION')")
+    public ResponseEntity<?> uploadLeadFile(@PathVariable Long id, @RequestParam(required = false) String filename,
+                                          HttpServletRequest request) {
+        if (leadService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            StoredFile stored = fileStorageService.store(request.getInputStream());
+            return ResponseEntity.ok(leadService.attachFile(id, stored, filename,
+                FileStorageService.contentTypeOrDefault(request.getContentType())));
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Upload failed"));
+        }
+    }
+
+    // Supports Range, If-Range and conditional GETs so players can seek without fetching the whole file
+    @GetMapping("/{id}/file")
+    public void downloadLeadFile(@PathVariable Long id, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        Optional<Lead> leadOpt = leadService.findById(id);
+        if (leadOpt.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Lead lead = leadOpt.get();
+        fileDownloadService.serve(request, response, lead.getFilePath(), lead.getContentHash(),
+            lead.getOriginalFileName(), lead.getFileType());
+    }
+
+    // JPEG preview written by MediaProcessingService; the file name under objects/ is its content hash
+    @GetMapping("/{id}/thumbnail")
+    public void getLeadThumbnail(@PathVariable Long id, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        Optional<Lead> leadOpt = leadService.findById(id);
+        if (leadOpt.isEmpty() || leadOpt.get().getThumbnailPath() == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String thumbnailPath = leadOpt.get().getThumbnailPath();
+        fileDownloadService.serve(request, response, thumbnailPath,
+            thumbnailPath.substring(thumbnailPath.lastIndexOf('/') + 1), null, "image/jpeg");
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('SOLVER') or hasRole('ORGANIZATION')")
     public ResponseEntity<Void> deleteLead(@PathVariable Long id) {
@@ -98,6 +167,14 @@ public class LeadController {
         return ResponseEntity.ok(leadService.findByCrimeCase(crimeCase));
     }
 
+    // Public leads ranked by votes, reactions, comments and status, decayed by age
+    @GetMapping("/case/{caseId}/trending")
+    public ResponseEntity<TrendingLeadPageDTO> getTrendingLeads(@PathVariable Long caseId,
+                                                                @RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(leadService.getTrendingLeads(caseId, page, size));
+    }
+
     @GetMapping("/creator/{creatorId}")
     public ResponseEntity<List<Lead>> getLeadsByCreator(@PathVariable Long creatorId) {
         User creator = userService.findById(creatorId)
@@ -128,15 +205,38 @@ public class LeadController {
 
     @PostMapping("/{id}/upvote")
     @PreAuthorize("hasRole('SOLVER') or hasRole('ORGANIZATION')")
-    public ResponseEntity<Lead> upvoteLead(@PathVariable Long id) {
-        // TODO: Implement upvote functionality - would need to add to Lead entity and service
-        return ResponseEntity.ok().build();
+    public ResponseEntity<?> upvoteLead(@PathVariable Long id) {
+        return vote(id, LeadVote.UP);
     }
 
     @PostMapping("/{id}/downvote")
     @PreAuthorize("hasRole('SOLVER') or hasRole('ORGANIZATION')")
-    public ResponseEntity<Lead> downvoteLead(@PathVariable Long id) {
-        // TODO: Implement downvote functionality - would need to add to Lead entity and service
-        return ResponseEntity.ok().build();
+    public ResponseEntity<?> downvoteLead(@PathVariable Long id) {
+        return vote(id, LeadVote.DOWN);
+    }
+
+    @DeleteMapping("/{id}/vote")
+    @PreAuthorize("hasRole('SOLVER') or hasRole('ORGANIZATION')")
+    public ResponseEntity<LeadScoreDTO> removeVote(@PathVariable Long id) {
+        return ResponseEntity.ok(leadService.removeVote(id, currentUser()));
+    }
+
+    @GetMapping("/{id}/score")
+    public ResponseEntity<LeadScoreDTO> getLeadScore(@PathVariable Long id) {
+        return ResponseEntity.ok(leadService.getScore(id, currentUser()));
+    }
+
+    private ResponseEntity<?> vote(Long id, int value) {
+        try {
+            return ResponseEntity.ok(leadService.vote(id, currentUser(), value));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private User currentUser() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userService.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
     }
 } 
\ No newline at end of file
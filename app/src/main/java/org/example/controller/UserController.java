@@ -3,7 +3,9 @@ package org.example.controller;
 import java.util.List;
 import java.util.Map;
 
+import org.example.dto.LeaderboardEntryDTO;
 import org.example.entity.User;
+import org.example.index.SolverLeaderboard;
 import org.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -70,6 +73,40 @@ public class UserController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Board is solved-cases, rating or badges
+    @GetMapping("/leaderboard/{board}")
+    public ResponseEntity<?> getLeaderboard(@PathVariable String board,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        SolverLeaderboard.Board parsed = parseBoard(board);
+        if (parsed == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown leaderboard: " + board));
+        }
+        return ResponseEntity.ok(userService.getLeaderboard(parsed, Math.max(1, Math.min(limit, 100))));
+    }
+
+    // The user's standing with up to radius solvers either side; 404 when the user is not ranked
+    @GetMapping("/leaderboard/{board}/around/{userId}")
+    public ResponseEntity<?> getLeaderboardAround(@PathVariable String board, @PathVariable Long userId,
+                                                  @RequestParam(defaultValue = "5") int radius) {
+        SolverLeaderboard.Board parsed = parseBoard(board);
+        if (parsed == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown leaderboard: " + board));
+        }
+        List<LeaderboardEntryDTO> entries = userService.getLeaderboardAround(parsed, userId, Math.max(0, Math.min(radius, 50)));
+        if (entries.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(entries);
+    }
+
+    private static SolverLeaderboard.Board parseBoard(String board) {
+        try {
+            return SolverLeaderboard.Board.valueOf(board.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<User>> getAllUsers() {
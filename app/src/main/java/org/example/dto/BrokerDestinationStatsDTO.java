@@ -0,0 +1,23 @@
+package org.example.dto;
+
+public class BrokerDestinationStatsDTO {
+    private String destination;
+    private long published;
+    private long delivered;
+    private long subscriptions;
+    private double averageFanOut;
+
+    public BrokerDestinationStatsDTO(String destination, long published, long delivered, long subscriptions) {
+        this.destination = destination;
+        this.published = published;
+        this.delivered = delivered;
+        this.subscriptions = subscriptions;
+        this.averageFanOut = published > 0 ? (double) delivered / published : 0.0;
+    }
+
+    public String getDestination() { return destination; }
+    public long getPublished() { return published; }
+    public long getDelivered() { return delivered; }
+    public long getSubscriptions() { return subscriptions; }
+    public double getAverageFanOut() { return averageFanOut; }
+}
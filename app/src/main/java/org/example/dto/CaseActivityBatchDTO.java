@@ -0,0 +1,24 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class CaseActivityBatchDTO {
+    private Long caseId;
+    private List<CaseActivityEventDTO> events;
+    // Events folded into a later event for the same entity within the flush window
+    private int coalesced;
+    // True when events were dropped because the case was too busy; clients should refetch over REST
+    private boolean resync;
+
+    public CaseActivityBatchDTO(Long caseId, List<CaseActivityEventDTO> events, int coalesced, boolean resync) {
+        this.caseId = caseId;
+        this.events = events;
+        this.coalesced = coalesced;
+        this.resync = resync;
+    }
+
+    public Long getCaseId() { return caseId; }
+    public List<CaseActivityEventDTO> getEvents() { return events; }
+    public int getCoalesced() { return coalesced; }
+    public boolean isResync() { return resync; }
+}
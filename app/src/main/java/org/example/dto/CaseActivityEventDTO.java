@@ -0,0 +1,37 @@
+package org.example.dto;
+
+import java.util.Map;
+
+public class CaseActivityEventDTO {
+
+    public enum Type {
+        COMMENT_ADDED,
+        LEAD_SUBMITTED,
+        LEAD_UPDATED,
+        EVIDENCE_ADDED,
+        EVIDENCE_UPDATED,
+        STATUS_CHANGED,
+        PARTICIPATION_CHANGED
+    }
+
+    private Type type;
+    private Long caseId;
+    // Id of the comment, lead, evidence or user the event is about (the case id for status changes)
+    private Long entityId;
+    private Map<String, Object> data;
+    private String occurredAt;
+
+    public CaseActivityEventDTO(Type type, Long caseId, Long entityId, Map<String, Object> data, String occurredAt) {
+        this.type = type;
+        this.caseId = caseId;
+        this.entityId = entityId;
+        this.data = data;
+        this.occurredAt = occurredAt;
+    }
+
+    public Type getType() { return type; }
+    public Long getCaseId() { return caseId; }
+    public Long getEntityId() { return entityId; }
+    public Map<String, Object> getData() { return data; }
+    public String getOccurredAt() { return occurredAt; }
+}
@@ -0,0 +1,20 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class CaseFeedPageDTO {
+    private List<CaseSummaryDTO> items;
+    // Opaque keyset cursor for the next page, null when this is the last page
+    private String nextCursor;
+    private boolean hasMore;
+
+    public CaseFeedPageDTO(List<CaseSummaryDTO> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<CaseSummaryDTO> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+}
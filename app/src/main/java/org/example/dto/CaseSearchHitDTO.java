@@ -0,0 +1,21 @@
+package org.example.dto;
+
+public class CaseSearchHitDTO {
+    private CaseSummaryDTO summary;
+    private double rank;
+    // Title and description excerpt with matched terms wrapped in <mark></mark>
+    private String titleHighlight;
+    private String snippet;
+
+    public CaseSearchHitDTO(CaseSummaryDTO summary, double rank, String titleHighlight, String snippet) {
+        this.summary = summary;
+        this.rank = rank;
+        this.titleHighlight = titleHighlight;
+        this.snippet = snippet;
+    }
+
+    public CaseSummaryDTO getSummary() { return summary; }
+    public double getRank() { return rank; }
+    public String getTitleHighlight() { return titleHighlight; }
+    public String getSnippet() { return snippet; }
+}
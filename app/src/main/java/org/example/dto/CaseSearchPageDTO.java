@@ -0,0 +1,25 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class CaseSearchPageDTO {
+    private String query;
+    private List<CaseSearchHitDTO> hits;
+    private int page;
+    private int size;
+    private boolean hasMore;
+
+    public CaseSearchPageDTO(String query, List<CaseSearchHitDTO> hits, int page, int size, boolean hasMore) {
+        this.query = query;
+        this.hits = hits;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+    }
+
+    public String getQuery() { return query; }
+    public List<CaseSearchHitDTO> getHits() { return hits; }
+    public int getPage() { return page; }
+    public int getSize() { return size; }
+    public boolean isHasMore() { return hasMore; }
+}
@@ -0,0 +1,26 @@
+package org.example.dto;
+
+import java.util.Map;
+
+public class CaseStatisticsDTO {
+    private long totalCases;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byType;
+    private Map<String, Long> byDifficulty;
+    private String reconciledAt;
+
+    public CaseStatisticsDTO(long totalCases, Map<String, Long> byStatus, Map<String, Long> byType,
+                             Map<String, Long> byDifficulty, String reconciledAt) {
+        this.totalCases = totalCases;
+        this.byStatus = byStatus;
+        this.byType = byType;
+        this.byDifficulty = byDifficulty;
+        this.reconciledAt = reconciledAt;
+    }
+
+    public long getTotalCases() { return totalCases; }
+    public Map<String, Long> getByStatus() { return byStatus; }
+    public Map<String, Long> getByType() { return byType; }
+    public Map<String, Long> getByDifficulty() { return byDifficulty; }
+    public String getReconciledAt() { return reconciledAt; }
+}
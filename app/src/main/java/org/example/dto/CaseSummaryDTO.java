@@ -0,0 +1,41 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class CaseSummaryDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private String status;
+    private String postedAt;
+    private String imageUrl;
+    private String mediaUrl;
+    private List<String> tags;
+    private String caseType;
+    private String difficulty;
+
+    public CaseSummaryDTO(Long id, String title, String description, String status, String postedAt,
+                          String imageUrl, String mediaUrl, List<String> tags, String caseType, String difficulty) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.postedAt = postedAt;
+        this.imageUrl = imageUrl;
+        this.mediaUrl = mediaUrl;
+        this.tags = tags;
+        this.caseType = caseType;
+        this.difficulty = difficulty;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getStatus() { return status; }
+    public String getPostedAt() { return postedAt; }
+    public String getImageUrl() { return imageUrl; }
+    public String getMediaUrl() { return mediaUrl; }
+    public List<String> getTags() { return tags; }
+    public String getCaseType() { return caseType; }
+    public String getDifficulty() { return difficulty; }
+}
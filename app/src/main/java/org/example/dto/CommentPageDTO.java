@@ -0,0 +1,20 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class CommentPageDTO {
+    private List<CommentDTO> items;
+    // Position after the last comment returned; pass back as ?cursor= to continue or to poll for new ones
+    private String nextCursor;
+    private boolean hasMore;
+
+    public CommentPageDTO(List<CommentDTO> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<CommentDTO> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+}
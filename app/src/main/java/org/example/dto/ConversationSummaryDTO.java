@@ -0,0 +1,35 @@
+package org.example.dto;
+
+import java.time.LocalDateTime;
+
+public class ConversationSummaryDTO {
+    private Long conversationId;
+    private Long otherUserId;
+    private String otherUsername;
+    private Long lastMessageId;
+    private Long lastSenderId;
+    private String lastMessage;
+    private LocalDateTime lastMessageAt;
+    private int unreadCount;
+
+    public ConversationSummaryDTO(Long conversationId, Long otherUserId, String otherUsername, Long lastMessageId,
+                                  Long lastSenderId, String lastMessage, LocalDateTime lastMessageAt, int unreadCount) {
+        this.conversationId = conversationId;
+        this.otherUserId = otherUserId;
+        this.otherUsername = otherUsername;
+        this.lastMessageId = lastMessageId;
+        this.lastSenderId = lastSenderId;
+        this.lastMessage = lastMessage;
+        this.lastMessageAt = lastMessageAt;
+        this.unreadCount = unreadCount;
+    }
+
+    public Long getConversationId() { return conversationId; }
+    public Long getOtherUserId() { return otherUserId; }
+    public String getOtherUsername() { return otherUsername; }
+    public Long getLastMessageId() { return lastMessageId; }
+    public Long getLastSenderId() { return lastSenderId; }
+    public String getLastMessage() { return lastMessage; }
+    public LocalDateTime getLastMessageAt() { return lastMessageAt; }
+    public int getUnreadCount() { return unreadCount; }
+}
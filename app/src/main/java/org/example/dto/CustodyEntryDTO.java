@@ -0,0 +1,36 @@
+package org.example.dto;
+
+public class CustodyEntryDTO {
+    private Long id;
+    private Integer sequence;
+    private Long handlerId;
+    private String handler;
+    private String action;
+    private String notes;
+    private String recordedAt;
+    private String previousHash;
+    private String entryHash;
+
+    public CustodyEntryDTO(Long id, Integer sequence, Long handlerId, String handler, String action, String notes,
+                           String recordedAt, String previousHash, String entryHash) {
+        this.id = id;
+        this.sequence = sequence;
+        this.handlerId = handlerId;
+        this.handler = handler;
+        this.action = action;
+        this.notes = notes;
+        this.recordedAt = recordedAt;
+        this.previousHash = previousHash;
+        this.entryHash = entryHash;
+    }
+
+    public Long getId() { return id; }
+    public Integer getSequence() { return sequence; }
+    public Long getHandlerId() { return handlerId; }
+    public String getHandler() { return handler; }
+    public String getAction() { return action; }
+    public String getNotes() { return notes; }
+    public String getRecordedAt() { return recordedAt; }
+    public String getPreviousHash() { return previousHash; }
+    public String getEntryHash() { return entryHash; }
+}
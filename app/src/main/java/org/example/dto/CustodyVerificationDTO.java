@@ -0,0 +1,24 @@
+package org.example.dto;
+
+public class CustodyVerificationDTO {
+    private Long evidenceId;
+    private int entryCount;
+    private boolean valid;
+    // Sequence of the first entry that fails verification; null when the chain is intact
+    private Integer firstInvalidSequence;
+    private String headHash;
+
+    public CustodyVerificationDTO(Long evidenceId, int entryCount, boolean valid, Integer firstInvalidSequence, String headHash) {
+        this.evidenceId = evidenceId;
+        this.entryCount = entryCount;
+        this.valid = valid;
+        this.firstInvalidSequence = firstInvalidSequence;
+        this.headHash = headHash;
+    }
+
+    public Long getEvidenceId() { return evidenceId; }
+    public int getEntryCount() { return entryCount; }
+    public boolean isValid() { return valid; }
+    public Integer getFirstInvalidSequence() { return firstInvalidSequence; }
+    public String getHeadHash() { return headHash; }
+}
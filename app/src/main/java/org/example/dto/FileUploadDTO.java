@@ -0,0 +1,28 @@
+package org.example.dto;
+
+public class FileUploadDTO {
+    // Id of the evidence, lead or case file the upload is attached to
+    private Long id;
+    private String fileName;
+    private String fileType;
+    private long fileSize;
+    private String contentHash;
+    // True when identical content was already stored and the upload was not written again
+    private boolean deduplicated;
+
+    public FileUploadDTO(Long id, String fileName, String fileType, long fileSize, String contentHash, boolean deduplicated) {
+        this.id = id;
+        this.fileName = fileName;
+        this.fileType = fileType;
+        this.fileSize = fileSize;
+        this.contentHash = contentHash;
+        this.deduplicated = deduplicated;
+    }
+
+    public Long getId() { return id; }
+    public String getFileName() { return fileName; }
+    public String getFileType() { return fileType; }
+    public long getFileSize() { return fileSize; }
+    public String getContentHash() { return contentHash; }
+    public boolean isDeduplicated() { return deduplicated; }
+}
@@ -0,0 +1,21 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class InboxPageDTO {
+    // Most recently active conversation first
+    private List<ConversationSummaryDTO> items;
+    // Last-message id of the last conversation returned; pass back as ?cursor= to continue
+    private String nextCursor;
+    private boolean hasMore;
+
+    public InboxPageDTO(List<ConversationSummaryDTO> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<ConversationSummaryDTO> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+}
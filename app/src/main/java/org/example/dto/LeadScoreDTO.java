@@ -0,0 +1,24 @@
+package org.example.dto;
+
+public class LeadScoreDTO {
+    private Long leadId;
+    private long upvotes;
+    private long downvotes;
+    private long score;
+    // +1, -1, or 0 when the current user has not voted
+    private int myVote;
+
+    public LeadScoreDTO(Long leadId, long upvotes, long downvotes, int myVote) {
+        this.leadId = leadId;
+        this.upvotes = upvotes;
+        this.downvotes = downvotes;
+        this.score = upvotes - downvotes;
+        this.myVote = myVote;
+    }
+
+    public Long getLeadId() { return leadId; }
+    public long getUpvotes() { return upvotes; }
+    public long getDownvotes() { return downvotes; }
+    public long getScore() { return score; }
+    public int getMyVote() { return myVote; }
+}
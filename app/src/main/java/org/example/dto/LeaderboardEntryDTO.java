@@ -0,0 +1,30 @@
+package org.example.dto;
+
+public class LeaderboardEntryDTO {
+    private int rank;
+    private Long userId;
+    private String username;
+    private int solvedCases;
+    private double averageRating;
+    private int totalRatings;
+    private int badgeCount;
+
+    public LeaderboardEntryDTO(int rank, Long userId, String username, int solvedCases,
+                               double averageRating, int totalRatings, int badgeCount) {
+        this.rank = rank;
+        this.userId = userId;
+        this.username = username;
+        this.solvedCases = solvedCases;
+        this.averageRating = averageRating;
+        this.totalRatings = totalRatings;
+        this.badgeCount = badgeCount;
+    }
+
+    public int getRank() { return rank; }
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public int getSolvedCases() { return solvedCases; }
+    public double getAverageRating() { return averageRating; }
+    public int getTotalRatings() { return totalRatings; }
+    public int getBadgeCount() { return badgeCount; }
+}
@@ -0,0 +1,21 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class MessagePageDTO {
+    // Oldest first within the page
+    private List<DirectMessageDTO> items;
+    // Id of the oldest message returned; pass back as ?cursor= for the page before it
+    private String nextCursor;
+    private boolean hasMore;
+
+    public MessagePageDTO(List<DirectMessageDTO> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<DirectMessageDTO> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+}
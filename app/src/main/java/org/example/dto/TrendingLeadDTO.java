@@ -0,0 +1,23 @@
+package org.example.dto;
+
+import org.example.entity.Lead;
+
+public class TrendingLeadDTO {
+    private int rank;
+    private double score;
+    // Net votes plus weighted reactions and comments, before status weight and age decay
+    private double points;
+    private Lead lead;
+
+    public TrendingLeadDTO(int rank, double score, double points, Lead lead) {
+        this.rank = rank;
+        this.score = score;
+        this.points = points;
+        this.lead = lead;
+    }
+
+    public int getRank() { return rank; }
+    public double getScore() { return score; }
+    public double getPoints() { return points; }
+    public Lead getLead() { return lead; }
+}
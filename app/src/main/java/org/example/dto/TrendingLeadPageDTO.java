@@ -0,0 +1,25 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class TrendingLeadPageDTO {
+    private Long caseId;
+    private List<TrendingLeadDTO> leads;
+    private int page;
+    private int size;
+    private boolean hasMore;
+
+    public TrendingLeadPageDTO(Long caseId, List<TrendingLeadDTO> leads, int page, int size, boolean hasMore) {
+        this.caseId = caseId;
+        this.leads = leads;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+    }
+
+    public Long getCaseId() { return caseId; }
+    public List<TrendingLeadDTO> getLeads() { return leads; }
+    public int getPage() { return page; }
+    public int getSize() { return size; }
+    public boolean isHasMore() { return hasMore; }
+}
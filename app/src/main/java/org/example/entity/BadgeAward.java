@@ -10,9 +10,12 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
-@Table(name = "badge_awards")
+@Table(name = "badge_awards", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_badge_awards_user_badge", columnNames = {"user_id", "badge_id"})
+})
 public class BadgeAward {
     
     @Id
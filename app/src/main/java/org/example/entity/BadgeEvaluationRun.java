@@ -0,0 +1,84 @@
+package org.example.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * One bulk badge re-evaluation over all solvers. lastUserId is the checkpoint: it is committed
+ * together with each chunk's awards, so an interrupted run resumes after the last finished chunk.
+ */
+@Entity
+@Table(name = "badge_evaluation_runs")
+public class BadgeEvaluationRun {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.RUNNING;
+
+    private Long lastUserId = 0L;
+    private long usersEvaluated;
+    private long awardsMade;
+    private int chunkSize;
+
+    // Accumulated across resumes; usersPerSecond is usersEvaluated over this
+    private long elapsedMillis;
+    private Double usersPerSecond;
+
+    @Column(columnDefinition = "TEXT")
+    private String failure;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Long getLastUserId() { return lastUserId; }
+    public void setLastUserId(Long lastUserId) { this.lastUserId = lastUserId; }
+
+    public long getUsersEvaluated() { return usersEvaluated; }
+    public void setUsersEvaluated(long usersEvaluated) { this.usersEvaluated = usersEvaluated; }
+
+    public long getAwardsMade() { return awardsMade; }
+    public void setAwardsMade(long awardsMade) { this.awardsMade = awardsMade; }
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public Double getUsersPerSecond() { return usersPerSecond; }
+    public void setUsersPerSecond(Double usersPerSecond) { this.usersPerSecond = usersPerSecond; }
+
+    public String getFailure() { return failure; }
+    public void setFailure(String failure) { this.failure = failure; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -2,6 +2,9 @@ package org.example.entity;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -24,9 +27,13 @@ public class CaseFile {
     private String fileType;
     private String filePath;
     private Long fileSize;
+    // SHA-256 of the stored bytes; filePath is content-addressed from it (FileStorageService)
+    @Column(length = 64)
+    private String contentHash;
     
     @ManyToOne
     @JoinColumn(name = "case_id")
+    @JsonIgnore
     private CrimeCase crimeCase;
     
     @ManyToOne
@@ -59,6 +66,9 @@ public class CaseFile {
     public Long getFileSize() { return fileSize; }
     public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
     
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    
     public CrimeCase getCrimeCase() { return crimeCase; }
     public void setCrimeCase(CrimeCase crimeCase) { this.crimeCase = crimeCase; }
     
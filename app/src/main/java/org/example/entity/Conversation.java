@@ -0,0 +1,82 @@
+package org.example.entity;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * The direct-message thread between two users, keyed by the canonical (lower id, higher id)
+ * pair so both directions share one row. lastMessageId points at the newest message and the
+ * unread counters are per side; both are maintained by DirectMessageService on every send, so
+ * an inbox page is a keyset scan over this table instead of an aggregate over all messages.
+ */
+@Entity
+@Table(name = "conversations", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_conversations_users", columnNames = {"user_low_id", "user_high_id"})
+}, indexes = {
+    // Inbox order for each side; message ids increase with time
+    @Index(name = "idx_conversations_low_last_message", columnList = "user_low_id, last_message_id"),
+    @Index(name = "idx_conversations_high_last_message", columnList = "user_high_id, last_message_id")
+})
+public class Conversation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_low_id", nullable = false, updatable = false)
+    @JsonIgnore
+    private User lowUser;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_high_id", nullable = false, updatable = false)
+    @JsonIgnore
+    private User highUser;
+
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    private LocalDateTime lastMessageAt;
+
+    // Messages the low/high user has not read yet
+    @Column(nullable = false)
+    private int unreadLow;
+
+    @Column(nullable = false)
+    private int unreadHigh;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getLowUser() { return lowUser; }
+    public void setLowUser(User lowUser) { this.lowUser = lowUser; }
+
+    public User getHighUser() { return highUser; }
+    public void setHighUser(User highUser) { this.highUser = highUser; }
+
+    public Long getLastMessageId() { return lastMessageId; }
+    public void setLastMessageId(Long lastMessageId) { this.lastMessageId = lastMessageId; }
+
+    public LocalDateTime getLastMessageAt() { return lastMessageAt; }
+    public void setLastMessageAt(LocalDateTime lastMessageAt) { this.lastMessageAt = lastMessageAt; }
+
+    public int getUnreadLow() { return unreadLow; }
+    public void setUnreadLow(int unreadLow) { this.unreadLow = unreadLow; }
+
+    public int getUnreadHigh() { return unreadHigh; }
+    public void setUnreadHigh(int unreadHigh) { this.unreadHigh = unreadHigh; }
+}
@@ -0,0 +1,95 @@
+package org.example.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * One chain-of-custody event. Rows are append-only; each carries the hash of the previous entry
+ * for the same evidence, so any edit or deletion breaks verification from that point on.
+ * The unique (evidence_id, sequence) key also serves as the per-evidence retrieval index and
+ * makes concurrent appends conflict instead of forking the chain. Entries go with their evidence
+ * when it (or its case) is deleted.
+ */
+@Entity
+@Table(name = "custody_entries", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_custody_entries_evidence_sequence", columnNames = {"evidence_id", "sequence"})
+})
+public class CustodyEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "evidence_id", nullable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Evidence evidence;
+    
+    // 1-based position within the evidence's chain
+    @Column(nullable = false, updatable = false)
+    private Integer sequence;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "handler_id", nullable = false, updatable = false)
+    @JsonIgnore
+    private User handler;
+    
+    @Column(nullable = false, updatable = false)
+    private String action;
+    
+    @Column(columnDefinition = "TEXT", updatable = false)
+    private String notes;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+    
+    @Column(length = 64, nullable = false, updatable = false)
+    private String previousHash;
+    
+    @Column(length = 64, nullable = false, updatable = false)
+    private String entryHash;
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Evidence getEvidence() { return evidence; }
+    public void setEvidence(Evidence evidence) { this.evidence = evidence; }
+    
+    public Integer getSequence() { return sequence; }
+    public void setSequence(Integer sequence) { this.sequence = sequence; }
+    
+    public User getHandler() { return handler; }
+    public void setHandler(User handler) { this.handler = handler; }
+    
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+    
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+    
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+    
+    public String getPreviousHash() { return previousHash; }
+    public void setPreviousHash(String previousHash) { this.previousHash = previousHash; }
+    
+    public String getEntryHash() { return entryHash; }
+    public void setEntryHash(String entryHash) { this.entryHash = entryHash; }
+}
@@ -1,10 +1,15 @@
 package org.example.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "direct_messages")
+@Table(name = "direct_messages", indexes = {
+    // History pages walk one conversation by id
+    @Index(name = "idx_direct_messages_conversation_id_id", columnList = "conversation_id, id")
+})
 public class DirectMessage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,6 +23,11 @@ public class DirectMessage {
     @JoinColumn(name = "receiver_id")
     private User receiver;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conversation_id")
+    @JsonIgnore
+    private Conversation conversation;
+
     @Column(columnDefinition = "TEXT")
     private String content;
 
@@ -38,6 +48,9 @@ public class DirectMessage {
     public User getReceiver() { return receiver; }
     public void setReceiver(User receiver) { this.receiver = receiver; }
 
+    public Conversation getConversation() { return conversation; }
+    public void setConversation(Conversation conversation) { this.conversation = conversation; }
+
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
 
@@ -30,6 +30,17 @@ public class Evidence {
     private String originalFileName;
     private Long fileSize;
     private String fileType;
+    // SHA-256 of the stored bytes; filePath is content-addressed from it (FileStorageService)
+    @Column(length = 64)
+    private String contentHash;
+    // Filled in by MediaProcessingService after the stored file has been probed
+    private String thumbnailPath;
+    private Integer mediaWidth;
+    private Integer mediaHeight;
+    private String detectedMimeType;
+    @Column(columnDefinition = "TEXT")
+    private String mediaMetadata;
+    private LocalDateTime mediaProcessedAt;
     
     // Additional fields for evidence processing
     private String location;
@@ -55,6 +66,7 @@ public class Evidence {
     @Column(columnDefinition = "TEXT")
     private String conclusions;
     
+    // Legacy free-text history; new custody events are appended to custody_entries (CustodyLedgerService)
     @Column(columnDefinition = "TEXT")
     private String chainOfCustody;
     
@@ -122,6 +134,27 @@ public class Evidence {
     public String getFileType() { return fileType; }
     public void setFileType(String fileType) { this.fileType = fileType; }
     
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public String getThumbnailPath() { return thumbnailPath; }
+    public void setThumbnailPath(String thumbnailPath) { this.thumbnailPath = thumbnailPath; }
+
+    public Integer getMediaWidth() { return mediaWidth; }
+    public void setMediaWidth(Integer mediaWidth) { this.mediaWidth = mediaWidth; }
+
+    public Integer getMediaHeight() { return mediaHeight; }
+    public void setMediaHeight(Integer mediaHeight) { this.mediaHeight = mediaHeight; }
+
+    public String getDetectedMimeType() { return detectedMimeType; }
+    public void setDetectedMimeType(String detectedMimeType) { this.detectedMimeType = detectedMimeType; }
+
+    public String getMediaMetadata() { return mediaMetadata; }
+    public void setMediaMetadata(String mediaMetadata) { this.mediaMetadata = mediaMetadata; }
+
+    public LocalDateTime getMediaProcessedAt() { return mediaProcessedAt; }
+    public void setMediaProcessedAt(LocalDateTime mediaProcessedAt) { this.mediaProcessedAt = mediaProcessedAt; }
+    
     public CrimeCase getCrimeCase() { return crimeCase; }
     public void setCrimeCase(CrimeCase crimeCase) { this.crimeCase = crimeCase; }
     
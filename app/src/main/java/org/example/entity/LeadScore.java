@@ -0,0 +1,43 @@
+package org.example.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Vote totals per lead, written only by LeadVoteCounters flushing accumulated deltas, so a
+ * burst of votes on one lead costs one row update per flush rather than one per vote. lead_id
+ * references leads with ON DELETE CASCADE (LeadScoreSchemaInitializer).
+ */
+@Entity
+@Table(name = "lead_scores")
+public class LeadScore {
+
+    @Id
+    @Column(name = "lead_id")
+    private Long leadId;
+
+    @Column(nullable = false)
+    private long upvotes;
+
+    @Column(nullable = false)
+    private long downvotes;
+
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+    public Long getLeadId() { return leadId; }
+    public void setLeadId(Long leadId) { this.leadId = leadId; }
+
+    public long getUpvotes() { return upvotes; }
+    public void setUpvotes(long upvotes) { this.upvotes = upvotes; }
+
+    public long getDownvotes() { return downvotes; }
+    public void setDownvotes(long downvotes) { this.downvotes = downvotes; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
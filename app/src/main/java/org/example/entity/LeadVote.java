@@ -0,0 +1,70 @@
+package org.example.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * One user's vote on a lead: +1 or -1. The unique key makes a second vote an update of the
+ * first. This table is the source of truth; lead_scores holds totals derived from it.
+ */
+@Entity
+@Table(name = "lead_votes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_lead_votes_lead_user", columnNames = {"lead_id", "user_id"})
+})
+public class LeadVote {
+
+    public static final int UP = 1;
+    public static final int DOWN = -1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lead_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Lead lead;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private User user;
+
+    @Column(name = "vote_value", nullable = false)
+    private int value;
+
+    private LocalDateTime votedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Lead getLead() { return lead; }
+    public void setLead(Lead lead) { this.lead = lead; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public int getValue() { return value; }
+    public void setValue(int value) { this.value = value; }
+
+    public LocalDateTime getVotedAt() { return votedAt; }
+    public void setVotedAt(LocalDateTime votedAt) { this.votedAt = votedAt; }
+}
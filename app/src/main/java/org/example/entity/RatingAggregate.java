@@ -0,0 +1,104 @@
+package org.example.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Running totals of the ratings one user has received, kept per source table and per
+ * dimension: {@link #ALL} for every rating of that source, or a {@link RatingType} name for
+ * user ratings of that type. Rows are only ever changed by signed deltas in the same
+ * transaction as the rating write, so average, spread and histogram are single-row reads.
+ */
+@Entity
+@Table(name = "rating_aggregates", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_rating_aggregates_user_source_dimension", columnNames = {"user_id", "source", "dimension"})
+})
+public class RatingAggregate {
+
+    public enum Source { RATING, USER_RATING }
+
+    public static final String ALL = "ALL";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Source source;
+
+    @Column(nullable = false, length = 32)
+    private String dimension;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_sum_squares", nullable = false)
+    private long ratingSumSquares;
+
+    // Histogram: number of 1..5 star ratings
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Source getSource() { return source; }
+    public void setSource(Source source) { this.source = source; }
+
+    public String getDimension() { return dimension; }
+    public void setDimension(String dimension) { this.dimension = dimension; }
+
+    public long getRatingCount() { return ratingCount; }
+    public void setRatingCount(long ratingCount) { this.ratingCount = ratingCount; }
+
+    public long getRatingSum() { return ratingSum; }
+    public void setRatingSum(long ratingSum) { this.ratingSum = ratingSum; }
+
+    public long getRatingSumSquares() { return ratingSumSquares; }
+    public void setRatingSumSquares(long ratingSumSquares) { this.ratingSumSquares = ratingSumSquares; }
+
+    public long getStars1() { return stars1; }
+    public void setStars1(long stars1) { this.stars1 = stars1; }
+
+    public long getStars2() { return stars2; }
+    public void setStars2(long stars2) { this.stars2 = stars2; }
+
+    public long getStars3() { return stars3; }
+    public void setStars3(long stars3) { this.stars3 = stars3; }
+
+    public long getStars4() { return stars4; }
+    public void setStars4(long stars4) { this.stars4 = stars4; }
+
+    public long getStars5() { return stars5; }
+    public void setStars5(long stars5) { this.stars5 = stars5; }
+}
@@ -17,6 +17,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -24,11 +25,15 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    // Serves the role-filtered keyset scan in BadgeReevaluationJob
+    @Index(name = "idx_users_role_id", columnList = "role, id")
+})
 public class User {
     
     @Id
@@ -74,7 +79,8 @@ public class User {
     
     // Badge and Rating System
     @ElementCollection
-    @CollectionTable(name = "user_badges", joinColumns = @JoinColumn(name = "user_id"))
+    @CollectionTable(name = "user_badges", joinColumns = @JoinColumn(name = "user_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_badges_user_badge", columnNames = {"user_id", "badge"}))
     @Column(name = "badge")
     private Set<String> badges = new HashSet<>();
     
@@ -107,6 +113,13 @@ public class User {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // Embedded in issued JWTs; bumped by UserService when the role or password changes so older
+    // tokens stop verifying. Only written through UserRepository.incrementTokenVersion.
+    @Column(name = "token_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0 not null")
+    @JsonIgnore
+    private Long tokenVersion = 0L;
+    
     // Relationships
     @ManyToMany
     @JoinTable(
@@ -253,6 +266,8 @@ public class User {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public Long getTokenVersion() { return tokenVersion; }
+    
     public Set<User> getConnections() { return connections; }
     public void setConnections(Set<User> connections) { this.connections = connections; }
     
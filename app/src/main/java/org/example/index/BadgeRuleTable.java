@@ -0,0 +1,227 @@
+package org.example.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.example.entity.Badge;
+import org.example.entity.UserRole;
+import org.example.repository.BadgeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Active badge definitions compiled into a rule table, loaded once and rebuilt only after a
+ * badge is created, changed or deleted. Each rule owns one bit, so a user's held and eligible
+ * badges are BitSets and "what is new" is a single andNot.
+ *
+ * A rule combines the badge's own requirement columns with the built-in achievement thresholds
+ * keyed by name. Badges with neither are manual-only and never match.
+ */
+@Component
+public class BadgeRuleTable {
+
+    // Achievement thresholds that predate the requirement columns: solved, rating, ratings count, active cases
+    private static final Map<String, double[]> ACHIEVEMENTS = Map.ofEntries(
+        Map.entry("First Case Solver", new double[] {1, 0, 0, 0}),
+        Map.entry("Case Solver", new double[] {5, 0, 0, 0}),
+        Map.entry("Experienced Solver", new double[] {10, 0, 0, 0}),
+        Map.entry("Veteran Solver", new double[] {25, 0, 0, 0}),
+        Map.entry("Master Solver", new double[] {50, 0, 0, 0}),
+        Map.entry("Legendary Solver", new double[] {100, 0, 0, 0}),
+        Map.entry("Highly Rated", new double[] {0, 4.5, 5, 0}),
+        Map.entry("Excellence", new double[] {0, 4.8, 10, 0}),
+        Map.entry("Perfect Score", new double[] {0, 5.0, 5, 0}),
+        Map.entry("Active Participant", new double[] {0, 0, 0, 3}),
+        Map.entry("Dedicated Solver", new double[] {0, 0, 0, 5}));
+
+    @Autowired
+    private BadgeRepository badgeRepository;
+
+    private volatile Rules rules;
+
+    public Rules get() {
+        Rules current = rules;
+        if (current == null) {
+            synchronized (this) {
+                current = rules;
+                if (current == null) {
+                    current = compile(badgeRepository.findByActive(true));
+                    rules = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public void invalidateAfterCommit() {
+        AfterCommit.run(() -> rules = null);
+    }
+
+    static Rules compile(List<Badge> badges) {
+        List<Rule> compiled = new ArrayList<>();
+        for (Badge badge : badges) {
+            double[] achievement = ACHIEVEMENTS.get(badge.getName());
+            boolean hasRequirements = badge.getRequiredCases() != null || badge.getRequiredRating() != null
+                || badge.getRequiredCaseType() != null || badge.getRequiredSpecialization() != null;
+            if (achievement == null && !hasRequirements) {
+                continue;
+            }
+            int minSolved = badge.getRequiredCases() != null ? badge.getRequiredCases() : 0;
+            double minRating = badge.getRequiredRating() != null ? badge.getRequiredRating() : 0;
+            int minRatings = 0;
+            int minActive = 0;
+            if (achievement != null) {
+                minSolved = Math.max(minSolved, (int) achievement[0]);
+                minRating = Math.max(minRating, achievement[1]);
+                minRatings = (int) achievement[2];
+                minActive = (int) achievement[3];
+            }
+            compiled.add(new Rule(compiled.size(), badge.getId(), badge.getName(), minSolved, minRating,
+                minRatings, minActive, blankToNull(badge.getRequiredCaseType()),
+                blankToNull(badge.getRequiredSpecialization())));
+        }
+        return new Rules(compiled);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    public static final class Rules {
+        private final List<Rule> rules;
+        private final Map<Long, Integer> indexByBadgeId = new HashMap<>();
+        private final boolean needsCaseTypes;
+        private final boolean needsSpecializations;
+
+        private Rules(List<Rule> rules) {
+            this.rules = Collections.unmodifiableList(rules);
+            boolean caseTypes = false;
+            boolean specializations = false;
+            for (Rule rule : rules) {
+                indexByBadgeId.put(rule.badgeId, rule.index);
+                caseTypes |= rule.requiredCaseType != null;
+                specializations |= rule.requiredSpecialization != null;
+            }
+            this.needsCaseTypes = caseTypes;
+            this.needsSpecializations = specializations;
+        }
+
+        public List<Rule> getRules() { return rules; }
+        public boolean isEmpty() { return rules.isEmpty(); }
+
+        // Per-case-type solved counts and specializations are only worth loading if some rule reads them
+        public boolean needsCaseTypes() { return needsCaseTypes; }
+        public boolean needsSpecializations() { return needsSpecializations; }
+
+        // Sets the bit of a held badge; awards of inactive or manual-only badges have no bit and are ignored
+        public void markHeld(BitSet held, Long badgeId) {
+            Integer index = indexByBadgeId.get(badgeId);
+            if (index != null) {
+                held.set(index);
+            }
+        }
+
+        public BitSet eligible(UserStats stats) {
+            BitSet eligible = new BitSet(rules.size());
+            if (stats.role != UserRole.SOLVER) {
+                return eligible;
+            }
+            for (Rule rule : rules) {
+                if (rule.matches(stats)) {
+                    eligible.set(rule.index);
+                }
+            }
+            return eligible;
+        }
+
+        public Rule rule(int index) {
+            return rules.get(index);
+        }
+    }
+
+    public static final class Rule {
+        private final int index;
+        private final Long badgeId;
+        private final String badgeName;
+        private final int minSolvedCases;
+        private final double minAverageRating;
+        private final int minTotalRatings;
+        private final int minActiveCases;
+        private final String requiredCaseType;
+        private final String requiredSpecialization;
+
+        private Rule(int index, Long badgeId, String badgeName, int minSolvedCases, double minAverageRating,
+                     int minTotalRatings, int minActiveCases, String requiredCaseType, String requiredSpecialization) {
+            this.index = index;
+            this.badgeId = badgeId;
+            this.badgeName = badgeName;
+            this.minSolvedCases = minSolvedCases;
+            this.minAverageRating = minAverageRating;
+            this.minTotalRatings = minTotalRatings;
+            this.minActiveCases = minActiveCases;
+            this.requiredCaseType = requiredCaseType;
+            this.requiredSpecialization = requiredSpecialization;
+        }
+
+        public Long getBadgeId() { return badgeId; }
+        public String getBadgeName() { return badgeName; }
+
+        private boolean matches(UserStats stats) {
+            // With a case type, requiredCases counts solved cases of that type only
+            int solved = requiredCaseType != null ? stats.solvedOfType(requiredCaseType) : stats.solvedCases;
+            if (requiredCaseType != null && solved < Math.max(1, minSolvedCases)) {
+                return false;
+            }
+            if (solved < minSolvedCases || stats.activeCases < minActiveCases) {
+                return false;
+            }
+            if (minAverageRating > 0 && (stats.averageRating < minAverageRating || stats.totalRatings < minTotalRatings)) {
+                return false;
+            }
+            return requiredSpecialization == null || stats.hasSpecialization(requiredSpecialization);
+        }
+    }
+
+    /**
+     * The user fields rules read. Case-type counts are keyed by upper-case CaseType name and
+     * specializations are compared case-insensitively; both may be empty when no rule needs them.
+     */
+    public static final class UserStats {
+        private final UserRole role;
+        private final int solvedCases;
+        private final double averageRating;
+        private final int totalRatings;
+        private final int activeCases;
+        private final Map<String, Integer> solvedByCaseType;
+        private final Set<String> specializations;
+
+        public UserStats(UserRole role, Integer solvedCases, Double averageRating, Integer totalRatings,
+                         Integer activeCases, Map<String, Integer> solvedByCaseType, Set<String> specializations) {
+            this.role = role;
+            this.solvedCases = solvedCases != null ? solvedCases : 0;
+            this.averageRating = averageRating != null ? averageRating : 0;
+            this.totalRatings = totalRatings != null ? totalRatings : 0;
+            this.activeCases = activeCases != null ? activeCases : 0;
+            this.solvedByCaseType = solvedByCaseType != null ? solvedByCaseType : Map.of();
+            this.specializations = specializations != null ? specializations : Set.of();
+        }
+
+        private int solvedOfType(String caseType) {
+            return solvedByCaseType.getOrDefault(caseType.toUpperCase(), 0);
+        }
+
+        private boolean hasSpecialization(String specialization) {
+            for (String held : specializations) {
+                if (held.equalsIgnoreCase(specialization)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
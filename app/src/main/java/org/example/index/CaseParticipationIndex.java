@@ -0,0 +1,143 @@
+package org.example.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.example.repository.CaseCommentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Which users have commented on which cases, in both directions, as sorted id arrays. Built from
+ * the distinct (case, user) pairs and kept current by CaseCommentService, so "who shares a case
+ * with this user" is answered without reading any comments. A periodic reconcile rebuilds both
+ * maps to drop pairs whose comments were removed outside the services; changes reported while it
+ * is reading are recorded and replayed onto the rebuilt maps before they replace the live ones.
+ *
+ * Arrays are immutable and swapped in on write, so reads take no lock.
+ */
+@Component
+public class CaseParticipationIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaseParticipationIndex.class);
+
+    @Autowired
+    private CaseCommentRepository caseCommentRepository;
+
+    // Replaced whole by reconcile; written under this
+    private volatile Map<Long, long[]> usersByCase = new ConcurrentHashMap<>();
+    private volatile Map<Long, long[]> casesByUser = new ConcurrentHashMap<>();
+    // Guarded by this. Changes applied since the running reconcile started reading; null when none is running
+    private List<Change> replay;
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.participation.reconcile-interval-ms:600000}",
+               initialDelayString = "${app.participation.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        try {
+            Map<Long, long[]> byCase = new ConcurrentHashMap<>();
+            Map<Long, long[]> byUser = new ConcurrentHashMap<>();
+            for (Object[] pair : caseCommentRepository.findDistinctCaseUserPairs()) {
+                add(byCase, byUser, (Long) pair[0], (Long) pair[1]);
+            }
+            synchronized (this) {
+                // Adds are idempotent, so a comment both read here and replayed is harmless
+                replay.forEach(change -> change.applyTo(byCase, byUser));
+                usersByCase = byCase;
+                casesByUser = byUser;
+            }
+            logger.debug("Case participation rebuilt with {} cases and {} users", byCase.size(), byUser.size());
+        } finally {
+            synchronized (this) {
+                replay = null;
+            }
+        }
+    }
+
+    public void add(long caseId, long userId) {
+        apply((byCase, byUser) -> add(byCase, byUser, caseId, userId));
+    }
+
+    public void removeCase(long caseId) {
+        apply((byCase, byUser) -> removeCase(byCase, byUser, caseId));
+    }
+
+    public void addAfterCommit(long caseId, long userId) {
+        AfterCommit.run(() -> add(caseId, userId));
+    }
+
+    public void removeCaseAfterCommit(long caseId) {
+        AfterCommit.run(() -> removeCase(caseId));
+    }
+
+    public long[] casesOf(long userId) {
+        return casesByUser.getOrDefault(userId, SortedLongSets.EMPTY).clone();
+    }
+
+    public long[] participantsOf(long caseId) {
+        return usersByCase.getOrDefault(caseId, SortedLongSets.EMPTY).clone();
+    }
+
+    // Everyone who commented on at least one of the user's cases, excluding the user
+    public long[] coParticipantsOf(long userId) {
+        Map<Long, long[]> users = usersByCase;
+        long[] result = SortedLongSets.EMPTY;
+        for (long caseId : casesByUser.getOrDefault(userId, SortedLongSets.EMPTY)) {
+            result = SortedLongSets.union(result, users.getOrDefault(caseId, SortedLongSets.EMPTY));
+        }
+        return SortedLongSets.remove(result, userId);
+    }
+
+    // Case id to its participants other than the user, for each of the user's cases
+    public Map<Long, long[]> coParticipantsByCase(long userId) {
+        Map<Long, long[]> users = usersByCase;
+        Map<Long, long[]> result = new HashMap<>();
+        for (long caseId : casesByUser.getOrDefault(userId, SortedLongSets.EMPTY)) {
+            result.put(caseId, SortedLongSets.remove(users.getOrDefault(caseId, SortedLongSets.EMPTY), userId));
+        }
+        return result;
+    }
+
+    private synchronized void apply(Change change) {
+        change.applyTo(usersByCase, casesByUser);
+        if (replay != null) {
+            replay.add(change);
+        }
+    }
+
+    private static void add(Map<Long, long[]> usersByCase, Map<Long, long[]> casesByUser, long caseId, long userId) {
+        usersByCase.merge(caseId, new long[] { userId }, (ids, single) -> SortedLongSets.insert(ids, userId));
+        casesByUser.merge(userId, new long[] { caseId }, (ids, single) -> SortedLongSets.insert(ids, caseId));
+    }
+
+    private static void removeCase(Map<Long, long[]> usersByCase, Map<Long, long[]> casesByUser, long caseId) {
+        long[] users = usersByCase.remove(caseId);
+        if (users == null) {
+            return;
+        }
+        for (long userId : users) {
+            long[] remaining = SortedLongSets.remove(casesByUser.getOrDefault(userId, SortedLongSets.EMPTY), caseId);
+            if (remaining.length == 0) {
+                casesByUser.remove(userId);
+            } else {
+                casesByUser.put(userId, remaining);
+            }
+        }
+    }
+
+    // One comment or case deletion, applied to the live maps and replayed onto a reconcile in progress
+    private interface Change {
+        void applyTo(Map<Long, long[]> usersByCase, Map<Long, long[]> casesByUser);
+    }
+}
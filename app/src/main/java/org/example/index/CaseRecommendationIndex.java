@@ -0,0 +1,336 @@
+package org.example.index;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.example.entity.CaseDifficulty;
+import org.example.entity.CaseStatus;
+import org.example.entity.CrimeCase;
+import org.example.entity.User;
+import org.example.repository.CrimeCaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-solver top-K recommendations over open cases.
+ *
+ * Scores combine tag overlap with the solver's expertise areas and interests, how well the case
+ * difficulty fits the solver's solved-case count, location match and recency. Features of every
+ * open case are held in memory, so a cache miss is an in-memory scan rather than a table scan.
+ * Cached lists are patched as cases open, change or leave the OPEN state; a list is recomputed
+ * when the solver's profile changes, when a case drops out of it, or after ENTRY_TTL (recency
+ * scores drift with time).
+ */
+@Component
+public class CaseRecommendationIndex {
+
+    private static final int TOP_K = 20;
+    private static final int MAX_CACHED_USERS = 10_000;
+    private static final Duration ENTRY_TTL = Duration.ofMinutes(15);
+
+    private static final double TAG_WEIGHT = 0.5;
+    private static final double DIFFICULTY_WEIGHT = 0.2;
+    private static final double LOCATION_WEIGHT = 0.1;
+    private static final double RECENCY_WEIGHT = 0.2;
+    private static final double INTEREST_MATCH = 0.5;
+    private static final double RECENCY_DECAY_HOURS = 24 * 14;
+
+    @Autowired
+    private CrimeCaseRepository crimeCaseRepository;
+
+    @Autowired
+    private CaseTagIndex caseTagIndex;
+
+    private final Map<Long, CaseFeatures> openCases = new ConcurrentHashMap<>();
+
+    // LRU so memory stays bounded however many solvers have ever asked
+    private final Map<Long, UserRecommendations> byUser = Collections.synchronizedMap(
+        new LinkedHashMap<Long, UserRecommendations>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserRecommendations> eldest) {
+                return size() > MAX_CACHED_USERS;
+            }
+        });
+
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, CaseFeatures> loaded = new HashMap<>();
+        for (Object[] row : crimeCaseRepository.findCaseFeaturesByStatus(CaseStatus.OPEN)) {
+            Long id = (Long) row[0];
+            loaded.put(id, new CaseFeatures(id, caseTagIndex.tagsOf(id),
+                (CaseDifficulty) row[1], (String) row[2], (LocalDateTime) row[3]));
+        }
+        openCases.clear();
+        openCases.putAll(loaded);
+        byUser.clear();
+    }
+
+    public List<Long> recommendedCaseIds(User user) {
+        SolverProfile profile = SolverProfile.of(user);
+        LocalDateTime now = LocalDateTime.now();
+        UserRecommendations entry = byUser.get(user.getId());
+        if (entry == null || !entry.isUsableFor(profile, now)) {
+            entry = compute(profile, now);
+            byUser.put(user.getId(), entry);
+        }
+        return entry.caseIds();
+    }
+
+    // Snapshot the case now, apply it once the transaction commits
+    public void caseChangedAfterCommit(CrimeCase crimeCase) {
+        Long id = crimeCase.getId();
+        if (crimeCase.getStatus() == CaseStatus.OPEN) {
+            CaseFeatures features = new CaseFeatures(id, tagSet(crimeCase.getTags()),
+                crimeCase.getDifficulty(), crimeCase.getLocation(), crimeCase.getPostedAt());
+            AfterCommit.run(() -> applyOpenCase(features));
+        } else {
+            AfterCommit.run(() -> applyClosedCase(id));
+        }
+    }
+
+    public void caseRemovedAfterCommit(Long caseId) {
+        AfterCommit.run(() -> applyClosedCase(caseId));
+    }
+
+    private void applyOpenCase(CaseFeatures features) {
+        openCases.put(features.id, features);
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (byUser) {
+            for (UserRecommendations entry : byUser.values()) {
+                entry.offer(features.id, score(entry.profile, features, now));
+            }
+        }
+    }
+
+    private void applyClosedCase(Long caseId) {
+        if (openCases.remove(caseId) == null) {
+            return;
+        }
+        synchronized (byUser) {
+            for (UserRecommendations entry : byUser.values()) {
+                entry.remove(caseId);
+            }
+        }
+    }
+
+    private UserRecommendations compute(SolverProfile profile, LocalDateTime now) {
+        // Min-heap of the best K seen so far
+        PriorityQueue<ScoredCase> heap = new PriorityQueue<>(TOP_K + 1);
+        for (CaseFeatures features : openCases.values()) {
+            heap.offer(new ScoredCase(features.id, score(profile, features, now)));
+            if (heap.size() > TOP_K) {
+                heap.poll();
+            }
+        }
+        List<ScoredCase> top = new ArrayList<>(heap);
+        top.sort(Collections.reverseOrder());
+        return new UserRecommendations(profile, top, now);
+    }
+
+    private double score(SolverProfile profile, CaseFeatures features, LocalDateTime now) {
+        double tagScore = 0;
+        if (!features.tags.isEmpty()) {
+            double matches = 0;
+            for (String tag : features.tags) {
+                if (profile.expertiseAreas.contains(tag)) {
+                    matches += 1.0;
+                } else if (profile.interests.contains(tag)) {
+                    matches += INTEREST_MATCH;
+                }
+            }
+            tagScore = Math.min(1.0, matches / features.tags.size());
+        }
+
+        double difficultyScore = 0.5;
+        if (features.difficulty != null) {
+            int gap = Math.abs(experienceTier(profile.solvedCasesCount) - features.difficulty.ordinal());
+            difficultyScore = 1.0 - gap / (double) (CaseDifficulty.values().length - 1);
+        }
+
+        double locationScore = 0;
+        if (profile.location != null && features.location != null) {
+            String userLocation = profile.location;
+            String caseLocation = features.location.toLowerCase();
+            if (caseLocation.contains(userLocation) || userLocation.contains(caseLocation)) {
+                locationScore = 1.0;
+            }
+        }
+
+        double recencyScore = 0;
+        if (features.postedAt != null) {
+            double ageHours = Math.max(0, Duration.between(features.postedAt, now).toHours());
+            recencyScore = Math.exp(-ageHours / RECENCY_DECAY_HOURS);
+        }
+
+        return TAG_WEIGHT * tagScore
+            + DIFFICULTY_WEIGHT * difficultyScore
+            + LOCATION_WEIGHT * locationScore
+            + RECENCY_WEIGHT * recencyScore;
+    }
+
+    // Maps solved-case count onto the CaseDifficulty scale (EASY..EXPERT)
+    private static int experienceTier(int solvedCasesCount) {
+        if (solvedCasesCount < 3) return 0;
+        if (solvedCasesCount < 10) return 1;
+        if (solvedCasesCount < 25) return 2;
+        return 3;
+    }
+
+    private static class CaseFeatures {
+        private final Long id;
+        private final Set<String> tags;
+        private final CaseDifficulty difficulty;
+        private final String location;
+        private final LocalDateTime postedAt;
+
+        CaseFeatures(Long id, Set<String> tags, CaseDifficulty difficulty, String location, LocalDateTime postedAt) {
+            this.id = id;
+            this.tags = tags;
+            this.difficulty = difficulty;
+            this.location = location;
+            this.postedAt = postedAt;
+        }
+    }
+
+    private static class SolverProfile {
+        private final Set<String> expertiseAreas;
+        private final Set<String> interests;
+        private final int solvedCasesCount;
+        private final String location;
+
+        private SolverProfile(Set<String> expertiseAreas, Set<String> interests, int solvedCasesCount, String location) {
+            this.expertiseAreas = expertiseAreas;
+            this.interests = interests;
+            this.solvedCasesCount = solvedCasesCount;
+            this.location = location;
+        }
+
+        static SolverProfile of(User user) {
+            String location = user.getLocation();
+            return new SolverProfile(
+                tagSet(user.getExpertiseAreas()),
+                tagSet(user.getInterests()),
+                user.getSolvedCasesCount() != null ? user.getSolvedCasesCount() : 0,
+                location != null && !location.isBlank() ? location.trim().toLowerCase() : null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SolverProfile)) return false;
+            SolverProfile other = (SolverProfile) o;
+            return solvedCasesCount == other.solvedCasesCount
+                && expertiseAreas.equals(other.expertiseAreas)
+                && interests.equals(other.interests)
+                && Objects.equals(location, other.location);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(expertiseAreas, interests, solvedCasesCount, location);
+        }
+    }
+
+    private static class ScoredCase implements Comparable<ScoredCase> {
+        private final Long caseId;
+        private final double score;
+
+        ScoredCase(Long caseId, double score) {
+            this.caseId = caseId;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(ScoredCase other) {
+            int byScore = Double.compare(score, other.score);
+            return byScore != 0 ? byScore : Long.compare(caseId, other.caseId);
+        }
+    }
+
+    private static class UserRecommendations {
+        private final SolverProfile profile;
+        private final List<ScoredCase> top;
+        private final LocalDateTime computedAt;
+        // Set when a listed case leaves or drops, since its replacement may sit outside the list
+        private boolean stale;
+
+        UserRecommendations(SolverProfile profile, List<ScoredCase> top, LocalDateTime computedAt) {
+            this.profile = profile;
+            this.top = top;
+            this.computedAt = computedAt;
+        }
+
+        synchronized boolean isUsableFor(SolverProfile current, LocalDateTime now) {
+            return !stale && profile.equals(current) && computedAt.plus(ENTRY_TTL).isAfter(now);
+        }
+
+        synchronized List<Long> caseIds() {
+            List<Long> ids = new ArrayList<>(top.size());
+            for (ScoredCase scored : top) {
+                ids.add(scored.caseId);
+            }
+            return ids;
+        }
+
+        synchronized void offer(Long caseId, double score) {
+            ScoredCase previous = take(caseId);
+            boolean wasFull = top.size() + (previous != null ? 1 : 0) >= TOP_K;
+            ScoredCase candidate = new ScoredCase(caseId, score);
+            // A listed case whose score fell may now rank below a case we never kept
+            if (previous != null && wasFull && candidate.compareTo(previous) < 0) {
+                stale = true;
+            }
+            if (top.size() < TOP_K || candidate.compareTo(top.get(top.size() - 1)) > 0) {
+                int pos = Collections.binarySearch(top, candidate, Collections.reverseOrder());
+                top.add(pos < 0 ? -pos - 1 : pos, candidate);
+                if (top.size() > TOP_K) {
+                    top.remove(top.size() - 1);
+                }
+            }
+        }
+
+        synchronized void remove(Long caseId) {
+            boolean wasFull = top.size() >= TOP_K;
+            if (take(caseId) != null && wasFull) {
+                stale = true;
+            }
+        }
+
+        private ScoredCase take(Long caseId) {
+            for (int i = 0; i < top.size(); i++) {
+                if (top.get(i).caseId.equals(caseId)) {
+                    return top.remove(i);
+                }
+            }
+            return null;
+        }
+    }
+
+    // Trimmed, non-blank tags, as TagIndex stores them; null collections and elements are skipped
+    private static Set<String> tagSet(Collection<String> tags) {
+        if (tags == null) {
+            return Set.of();
+        }
+        Set<String> result = new HashSet<>();
+        for (String tag : tags) {
+            if (tag != null && !tag.isBlank()) {
+                result.add(tag.trim());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,272 @@
+package org.example.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.example.entity.CaseDifficulty;
+import org.example.entity.CaseStatus;
+import org.example.entity.CaseType;
+import org.example.entity.CrimeCase;
+import org.example.repository.CrimeCaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory case counters by status, type, difficulty and posting organization.
+ *
+ * CrimeCaseService reports every lifecycle transition as a (before, after) pair which is applied
+ * after commit, so reads are O(1) and never hit the database. The counters are periodically
+ * reconciled against GROUP BY queries to correct any drift from writes that bypass the service.
+ * Transitions applied while a reconcile is reading are recorded and replayed after the counts are
+ * overwritten, so they are not lost. Each dimension keeps one extra slot for cases with the field unset.
+ */
+@Component
+public class CaseStatisticsCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaseStatisticsCounters.class);
+
+    @Autowired
+    private CrimeCaseRepository crimeCaseRepository;
+
+    private final AtomicLongArray byStatus = new AtomicLongArray(CaseStatus.values().length + 1);
+    private final AtomicLongArray byType = new AtomicLongArray(CaseType.values().length + 1);
+    private final AtomicLongArray byDifficulty = new AtomicLongArray(CaseDifficulty.values().length + 1);
+    private final Map<Long, AtomicLong> byOrganization = new ConcurrentHashMap<>();
+    private final AtomicLong total = new AtomicLong();
+    private volatile LocalDateTime reconciledAt;
+    // Guarded by this: (before, after) pairs applied since the running reconcile started reading;
+    // null when none is running
+    private List<CaseKey[]> replay;
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:300000}",
+               initialDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        try {
+            long[] statusCounts = load(crimeCaseRepository.countByStatus(), byStatus.length(), CaseStatus.values().length);
+            long[] typeCounts = load(crimeCaseRepository.countByCaseType(), byType.length(), CaseType.values().length);
+            long[] difficultyCounts = load(crimeCaseRepository.countByDifficulty(), byDifficulty.length(), CaseDifficulty.values().length);
+            Map<Long, Long> organizationCounts = new LinkedHashMap<>();
+            for (Object[] row : crimeCaseRepository.countByPostedBy()) {
+                if (row[0] != null) {
+                    organizationCounts.put((Long) row[0], (Long) row[1]);
+                }
+            }
+
+            long sum = 0;
+            for (long count : statusCounts) {
+                sum += count;
+            }
+            boolean drifted;
+            synchronized (this) {
+                drifted = sum != total.get();
+                publish(byStatus, statusCounts);
+                publish(byType, typeCounts);
+                publish(byDifficulty, difficultyCounts);
+                byOrganization.keySet().retainAll(organizationCounts.keySet());
+                organizationCounts.forEach((id, count) ->
+                    byOrganization.computeIfAbsent(id, k -> new AtomicLong()).set(count));
+                total.set(sum);
+                // A transition committed just before the GROUP BY queries is counted twice until the next reconcile
+                replay.forEach(change -> applyChange(change[0], change[1]));
+            }
+            reconciledAt = LocalDateTime.now();
+
+            if (drifted) {
+                logger.debug("Case statistics reconciled, total corrected to {}", sum);
+            }
+        } finally {
+            synchronized (this) {
+                replay = null;
+            }
+        }
+    }
+
+    public void recordAfterCommit(CaseKey before, CaseKey after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                applyChange(before, after);
+                if (replay != null) {
+                    replay.add(new CaseKey[] { before, after });
+                }
+            }
+        });
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getCount(CaseStatus status) {
+        return byStatus.get(slot(status, CaseStatus.values().length));
+    }
+
+    public long getCount(CaseType type) {
+        return byType.get(slot(type, CaseType.values().length));
+    }
+
+    public long getCount(CaseDifficulty difficulty) {
+        return byDifficulty.get(slot(difficulty, CaseDifficulty.values().length));
+    }
+
+    public long getCountForOrganization(Long organizationId) {
+        AtomicLong count = byOrganization.get(organizationId);
+        return count != null ? count.get() : 0;
+    }
+
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    // Same (key, count) row shape as the GROUP BY queries these counters replace
+    public List<Object[]> statusRows() {
+        return rows(CaseStatus.values(), byStatus);
+    }
+
+    public List<Object[]> typeRows() {
+        return rows(CaseType.values(), byType);
+    }
+
+    public List<Object[]> difficultyRows() {
+        return rows(CaseDifficulty.values(), byDifficulty);
+    }
+
+    public Map<String, Long> statusCounts() {
+        return counts(CaseStatus.values(), byStatus);
+    }
+
+    public Map<String, Long> typeCounts() {
+        return counts(CaseType.values(), byType);
+    }
+
+    public Map<String, Long> difficultyCounts() {
+        return counts(CaseDifficulty.values(), byDifficulty);
+    }
+
+    private void applyChange(CaseKey before, CaseKey after) {
+        if (before != null) {
+            apply(before, -1);
+        }
+        if (after != null) {
+            apply(after, 1);
+        }
+    }
+
+    private void apply(CaseKey key, int delta) {
+        byStatus.addAndGet(slot(key.status, CaseStatus.values().length), delta);
+        byType.addAndGet(slot(key.caseType, CaseType.values().length), delta);
+        byDifficulty.addAndGet(slot(key.difficulty, CaseDifficulty.values().length), delta);
+        if (key.organizationId != null) {
+            byOrganization.computeIfAbsent(key.organizationId, k -> new AtomicLong()).addAndGet(delta);
+        }
+        total.addAndGet(delta);
+    }
+
+    private static int slot(Enum<?> value, int unsetSlot) {
+        return value != null ? value.ordinal() : unsetSlot;
+    }
+
+    private static long[] load(List<Object[]> groupedRows, int length, int unsetSlot) {
+        long[] counts = new long[length];
+        for (Object[] row : groupedRows) {
+            counts[slot((Enum<?>) row[0], unsetSlot)] += (Long) row[1];
+        }
+        return counts;
+    }
+
+    private static void publish(AtomicLongArray target, long[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            target.set(i, counts[i]);
+        }
+    }
+
+    private static List<Object[]> rows(Enum<?>[] values, AtomicLongArray counts) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Enum<?> value : values) {
+            long count = counts.get(value.ordinal());
+            if (count > 0) {
+                rows.add(new Object[] { value, count });
+            }
+        }
+        long unset = counts.get(values.length);
+        if (unset > 0) {
+            rows.add(new Object[] { null, unset });
+        }
+        return rows;
+    }
+
+    private static Map<String, Long> counts(Enum<?>[] values, AtomicLongArray counts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Enum<?> value : values) {
+            result.put(value.name(), counts.get(value.ordinal()));
+        }
+        long unset = counts.get(values.length);
+        if (unset > 0) {
+            result.put("UNSPECIFIED", unset);
+        }
+        return result;
+    }
+
+    /**
+     * The counted dimensions of one case. Two keys are equal when a change leaves every counter as-is.
+     */
+    public static final class CaseKey {
+        private final CaseStatus status;
+        private final CaseType caseType;
+        private final CaseDifficulty difficulty;
+        private final Long organizationId;
+
+        public CaseKey(CaseStatus status, CaseType caseType, CaseDifficulty difficulty, Long organizationId) {
+            this.status = status;
+            this.caseType = caseType;
+            this.difficulty = difficulty;
+            this.organizationId = organizationId;
+        }
+
+        public static CaseKey of(CrimeCase crimeCase) {
+            return new CaseKey(
+                crimeCase.getStatus(),
+                crimeCase.getCaseType(),
+                crimeCase.getDifficulty(),
+                crimeCase.getPostedBy() != null ? crimeCase.getPostedBy().getId() : null);
+        }
+
+        public CaseStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CaseKey)) return false;
+            CaseKey other = (CaseKey) o;
+            return status == other.status
+                && caseType == other.caseType
+                && difficulty == other.difficulty
+                && Objects.equals(organizationId, other.organizationId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(status, caseType, difficulty, organizationId);
+        }
+    }
+}
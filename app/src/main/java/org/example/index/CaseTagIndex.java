@@ -0,0 +1,22 @@
+package org.example.index;
+
+import org.example.repository.CrimeCaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Tag index over crime cases, loaded once at startup and kept current by CrimeCaseService.
+ */
+@Component
+public class CaseTagIndex extends TagIndex {
+
+    @Autowired
+    private CrimeCaseRepository crimeCaseRepository;
+
+    @PostConstruct
+    public void rebuild() {
+        load(crimeCaseRepository.findAllCaseTagPairs());
+    }
+}
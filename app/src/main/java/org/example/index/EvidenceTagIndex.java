@@ -0,0 +1,22 @@
+package org.example.index;
+
+import org.example.repository.EvidenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Tag index over evidence, loaded once at startup and kept current by EvidenceService.
+ */
+@Component
+public class EvidenceTagIndex extends TagIndex {
+
+    @Autowired
+    private EvidenceRepository evidenceRepository;
+
+    @PostConstruct
+    public void rebuild() {
+        load(evidenceRepository.findAllEvidenceTagPairs());
+    }
+}
@@ -0,0 +1,205 @@
+package org.example.index;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.repository.LeadScoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Vote deltas per lead, accumulated in {@link LongAdder}s (striped per thread under contention)
+ * and flushed to lead_scores on a timer as one additive upsert per touched lead. Voters on a hot
+ * lead only lock their own lead_votes row; the lead's score row is written once per flush.
+ *
+ * A flush subtracts exactly what it read from each adder, so votes landing mid-flush stay pending
+ * for the next one, and removes the cells of leads with nothing pending so the map only holds
+ * leads voted on since the last flush. Deltas for a lead that has since been deleted are skipped.
+ * Deltas lost to a crash are repaired at startup by recomputing lead_scores from
+ * lead_votes; with several instances, one starting up while another has unflushed deltas can
+ * count those votes twice until the next restart.
+ */
+@Component
+public class LeadVoteCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeadVoteCounters.class);
+
+    // Skips leads deleted since the vote; lead_scores.lead_id cascades from leads
+    private static final String APPLY_DELTA =
+        "INSERT INTO lead_scores (lead_id, upvotes, downvotes, updated_at) " +
+        "SELECT l.id, ?, ?, ? FROM leads l WHERE l.id = ? " +
+        "ON CONFLICT (lead_id) DO UPDATE SET upvotes = lead_scores.upvotes + EXCLUDED.upvotes, " +
+        "downvotes = lead_scores.downvotes + EXCLUDED.downvotes, updated_at = EXCLUDED.updated_at";
+
+    private static final String REBUILD_SCORES =
+        "INSERT INTO lead_scores (lead_id, upvotes, downvotes, updated_at) " +
+        "SELECT lead_id, COUNT(*) FILTER (WHERE vote_value > 0), COUNT(*) FILTER (WHERE vote_value < 0), now() " +
+        "FROM lead_votes GROUP BY lead_id " +
+        "ON CONFLICT (lead_id) DO UPDATE SET upvotes = EXCLUDED.upvotes, downvotes = EXCLUDED.downvotes, updated_at = EXCLUDED.updated_at";
+
+    private static final String CLEAR_UNVOTED_SCORES =
+        "UPDATE lead_scores s SET upvotes = 0, downvotes = 0, updated_at = now() " +
+        "WHERE (s.upvotes <> 0 OR s.downvotes <> 0) AND NOT EXISTS (SELECT 1 FROM lead_votes v WHERE v.lead_id = s.lead_id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LeadScoreRepository leadScoreRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Cells with nothing pending are removed by the flush; see add() for adds racing a removal
+    private final Map<Long, Cell> pending = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(REBUILD_SCORES);
+            jdbcTemplate.update(CLEAR_UNVOTED_SCORES);
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        flush();
+    }
+
+    // Signed changes to one lead's totals, e.g. (-1, +1) when an upvote becomes a downvote
+    public void recordAfterCommit(Long leadId, int upDelta, int downDelta) {
+        if (leadId == null || (upDelta == 0 && downDelta == 0)) {
+            return;
+        }
+        AfterCommit.run(() -> add(leadId, upDelta, downDelta));
+    }
+
+    // Persisted totals plus unflushed deltas: leadId -> {upvotes, downvotes}
+    public Map<Long, long[]> totals(Collection<Long> leadIds) {
+        Map<Long, long[]> totals = new HashMap<>();
+        if (leadIds.isEmpty()) {
+            return totals;
+        }
+        for (Object[] row : leadScoreRepository.findTotalsByLeadIds(leadIds)) {
+            totals.put((Long) row[0], new long[] { (Long) row[1], (Long) row[2] });
+        }
+        for (Long leadId : leadIds) {
+            long[] t = totals.computeIfAbsent(leadId, id -> new long[2]);
+            Cell cell = pending.get(leadId);
+            if (cell != null) {
+                t[0] += cell.up.sum();
+                t[1] += cell.down.sum();
+            }
+        }
+        return totals;
+    }
+
+    public long[] totals(Long leadId) {
+        return totals(List.of(leadId)).get(leadId);
+    }
+
+    // Upvotes minus downvotes for every lead with a score, including unflushed deltas
+    public Map<Long, Long> netTotals() {
+        Map<Long, Long> totals = new HashMap<>();
+        for (Object[] row : leadScoreRepository.findNetTotals()) {
+            totals.put((Long) row[0], (Long) row[1]);
+        }
+        pending.forEach((leadId, cell) -> {
+            long delta = cell.up.sum() - cell.down.sum();
+            if (delta != 0) {
+                totals.merge(leadId, delta, Long::sum);
+            }
+        });
+        return totals;
+    }
+
+    @Scheduled(fixedDelayString = "${app.leads.vote-flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Long> leadIds = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Map.Entry<Long, Cell> entry : pending.entrySet()) {
+            Cell cell = entry.getValue();
+            long up = cell.up.sum();
+            long down = cell.down.sum();
+            if (up == 0 && down == 0) {
+                // Idle since the last flush; an add that lands on it after this is moved by add()
+                if (pending.remove(entry.getKey(), cell)) {
+                    drain(entry.getKey(), cell);
+                }
+                continue;
+            }
+            cell.up.add(-up);
+            cell.down.add(-down);
+            leadIds.add(entry.getKey());
+            args.add(new Object[] { up, down, now, entry.getKey() });
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(APPLY_DELTA, args));
+        } catch (RuntimeException e) {
+            // Put the deltas back for the next flush
+            for (int i = 0; i < leadIds.size(); i++) {
+                add(leadIds.get(i), (Long) args.get(i)[0], (Long) args.get(i)[1]);
+            }
+            logger.warn("Lead score flush of {} leads failed, will retry: {}", args.size(), e.getMessage());
+        }
+    }
+
+    // A cell removed by a flush may still take adds from threads that looked it up just before;
+    // each such add sees the cell unmapped afterwards and moves the cell's contents to a live one
+    private void add(Long leadId, long up, long down) {
+        Cell cell = pending.computeIfAbsent(leadId, id -> new Cell());
+        if (up != 0) {
+            cell.up.add(up);
+        }
+        if (down != 0) {
+            cell.down.add(down);
+        }
+        if (pending.get(leadId) != cell) {
+            drain(leadId, cell);
+        }
+    }
+
+    // Moves what an unmapped cell holds to the lead's live cell; subtracting exactly what was read
+    // keeps concurrent adds, and the lock stops two drains from moving the same delta twice
+    private void drain(Long leadId, Cell cell) {
+        long up;
+        long down;
+        synchronized (cell) {
+            up = cell.up.sum();
+            down = cell.down.sum();
+            cell.up.add(-up);
+            cell.down.add(-down);
+        }
+        if (up != 0 || down != 0) {
+            add(leadId, up, down);
+        }
+    }
+
+    private static final class Cell {
+        private final LongAdder up = new LongAdder();
+        private final LongAdder down = new LongAdder();
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Indexable skip list of user ids ordered by score descending, then tie-break descending, then
+ * id ascending. Each forward link records how many entries it skips, so a lookup, a position
+ * and the entry at a position are all O(log n) expected.
+ *
+ * Not thread-safe; callers guard it with their own lock.
+ */
+final class RankedSkipList {
+
+    private static final int MAX_LEVEL = 32;
+
+    private final Node head = new Node(0, 0, 0, MAX_LEVEL);
+    private final Map<Long, Node> byId = new HashMap<>();
+    private int level = 1;
+    private int length;
+
+    int size() {
+        return length;
+    }
+
+    boolean contains(long id) {
+        return byId.containsKey(id);
+    }
+
+    // Inserts or moves an id; a no-op when its score is unchanged
+    void put(long id, double score, double tieBreak) {
+        Node existing = byId.get(id);
+        if (existing != null) {
+            if (existing.score == score && existing.tieBreak == tieBreak) {
+                return;
+            }
+            unlink(existing);
+        }
+        Node node = new Node(id, score, tieBreak, randomLevel());
+        link(node);
+        byId.put(id, node);
+    }
+
+    void remove(long id) {
+        Node node = byId.remove(id);
+        if (node != null) {
+            unlink(node);
+        }
+    }
+
+    // 1-based position, or 0 when absent
+    int rank(long id) {
+        Node node = byId.get(id);
+        if (node == null) {
+            return 0;
+        }
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], node) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == node) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    // Up to limit entries starting at the 1-based position from
+    List<Entry> range(int from, int limit) {
+        List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(limit, size() - from + 1)));
+        Node x = nodeAt(from);
+        for (int rank = from; x != null && entries.size() < limit; rank++, x = x.next[0]) {
+            entries.add(new Entry(x.id, rank, x.score, x.tieBreak));
+        }
+        return entries;
+    }
+
+    private Node nodeAt(int rank) {
+        if (rank < 1 || rank > size()) {
+            return null;
+        }
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private void link(Node node) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], node) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        int height = node.next.length;
+        if (height > level) {
+            for (int i = level; i < height; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = length;
+            }
+            level = height;
+        }
+        for (int i = 0; i < height; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = height; i < level; i++) {
+            update[i].span[i]++;
+        }
+        length++;
+    }
+
+    private void unlink(Node node) {
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], node) < 0) {
+                x = x.next[i];
+            }
+            if (x.next[i] == node) {
+                x.span[i] += node.span[i] - 1;
+                x.next[i] = node.next[i];
+            } else {
+                x.span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        length--;
+    }
+
+    private static int compare(Node a, Node b) {
+        int order = Double.compare(b.score, a.score);
+        if (order == 0) {
+            order = Double.compare(b.tieBreak, a.tieBreak);
+        }
+        return order != 0 ? order : Long.compare(a.id, b.id);
+    }
+
+    // Geometric with p = 1/4
+    private static int randomLevel() {
+        int height = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (height < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            height++;
+        }
+        return height;
+    }
+
+    private static final class Node {
+        private final long id;
+        private final double score;
+        private final double tieBreak;
+        private final Node[] next;
+        // span[i]: positions advanced by following next[i]
+        private final int[] span;
+
+        private Node(long id, double score, double tieBreak, int height) {
+            this.id = id;
+            this.score = score;
+            this.tieBreak = tieBreak;
+            this.next = new Node[height];
+            this.span = new int[height];
+        }
+    }
+
+    static final class Entry {
+        final long id;
+        final int rank;
+        final double score;
+        final double tieBreak;
+
+        private Entry(long id, int rank, double score, double tieBreak) {
+            this.id = id;
+            this.rank = rank;
+            this.score = score;
+            this.tieBreak = tieBreak;
+        }
+    }
+}
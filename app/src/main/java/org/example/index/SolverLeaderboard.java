@@ -0,0 +1,247 @@
+package org.example.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.entity.User;
+import org.example.entity.UserRole;
+import org.example.repository.BadgeAwardRepository;
+import org.example.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Solver rankings by solved cases, average rating and badge count, each held in a
+ * {@link RankedSkipList} so top-N, a user's rank and the users around them are O(log n).
+ *
+ * Services report score changes after commit; a periodic reconcile rebuilds all boards from the
+ * database to pick up writes that bypass the services, such as new or re-roled solvers. Changes
+ * reported while a rebuild is reading are also recorded and replayed onto the rebuilt boards
+ * before they replace the live ones, so the swap cannot drop them.
+ */
+@Component
+public class SolverLeaderboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(SolverLeaderboard.class);
+
+    // Each board ranks by its own score, ties broken by a second score
+    public enum Board { SOLVED_CASES, RATING, BADGES }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BadgeAwardRepository badgeAwardRepository;
+
+    // Guarded by this
+    private Map<Long, Scores> scores = new HashMap<>();
+    private Map<Board, RankedSkipList> boards = emptyBoards();
+    // Changes applied since the running rebuild started reading; null when none is running
+    private List<Change> replay;
+    private volatile LocalDateTime reconciledAt;
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.leaderboard.reconcile-interval-ms:600000}",
+               initialDelayString = "${app.leaderboard.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        try {
+            Map<Long, Scores> loaded = new HashMap<>();
+            for (Object[] row : userRepository.findLeaderboardStatsByRole(UserRole.SOLVER)) {
+                loaded.put((Long) row[0], new Scores(
+                    row[1] != null ? (Integer) row[1] : 0,
+                    row[2] != null ? (Double) row[2] : 0.0,
+                    row[3] != null ? (Integer) row[3] : 0,
+                    0));
+            }
+            for (Object[] row : badgeAwardRepository.countAwardsByUser()) {
+                Scores current = loaded.get((Long) row[0]);
+                if (current != null) {
+                    loaded.put((Long) row[0], current.withBadges(((Long) row[1]).intValue()));
+                }
+            }
+
+            Map<Board, RankedSkipList> rebuilt = emptyBoards();
+            loaded.forEach((userId, userScores) -> place(rebuilt, userId, userScores));
+            synchronized (this) {
+                // Scores are absolute and replay in order; a badge delta committed just before the
+                // count query is counted twice until the next reconcile
+                replay.forEach(change -> change.applyTo(loaded, rebuilt));
+                scores = loaded;
+                boards = rebuilt;
+            }
+            reconciledAt = LocalDateTime.now();
+            logger.debug("Solver leaderboard rebuilt with {} solvers", loaded.size());
+        } finally {
+            synchronized (this) {
+                replay = null;
+            }
+        }
+    }
+
+    // Takes solved cases and rating from the user as written in the current transaction
+    public void updateAfterCommit(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        Long userId = user.getId();
+        boolean solver = user.getRole() == UserRole.SOLVER;
+        int solved = user.getSolvedCasesCount() != null ? user.getSolvedCasesCount() : 0;
+        double rating = user.getAverageRating() != null ? user.getAverageRating() : 0.0;
+        int ratings = user.getTotalRatings() != null ? user.getTotalRatings() : 0;
+        AfterCommit.run(() -> apply((scores, boards) -> {
+            Scores current = scores.get(userId);
+            if (!solver) {
+                // Role changed away from solver
+                if (current != null) {
+                    scores.remove(userId);
+                    boards.values().forEach(board -> board.remove(userId));
+                }
+                return;
+            }
+            Scores updated = new Scores(solved, rating, ratings, current != null ? current.badges : 0);
+            scores.put(userId, updated);
+            place(boards, userId, updated);
+        }));
+    }
+
+    public void removeAfterCommit(Long userId) {
+        AfterCommit.run(() -> apply((scores, boards) -> {
+            if (scores.remove(userId) != null) {
+                boards.values().forEach(board -> board.remove(userId));
+            }
+        }));
+    }
+
+    public void recordBadgesAfterCommit(Long userId, int delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        AfterCommit.run(() -> apply((scores, boards) -> {
+            // Non-solvers are not ranked; a solver not seen yet is added by the next reconcile
+            Scores current = scores.get(userId);
+            if (current != null) {
+                Scores updated = current.withBadges(Math.max(0, current.badges + delta));
+                scores.put(userId, updated);
+                place(boards, userId, updated);
+            }
+        }));
+    }
+
+    public synchronized List<Standing> top(Board board, int limit) {
+        return standings(board, 1, limit);
+    }
+
+    // Null when the user is not a ranked solver
+    public synchronized Standing rankOf(Board board, Long userId) {
+        int rank = boards.get(board).rank(userId);
+        if (rank == 0) {
+            return null;
+        }
+        return standings(board, rank, 1).get(0);
+    }
+
+    // The user plus up to radius solvers on each side, in rank order; empty when not ranked
+    public synchronized List<Standing> around(Board board, Long userId, int radius) {
+        int rank = boards.get(board).rank(userId);
+        if (rank == 0) {
+            return List.of();
+        }
+        int from = Math.max(1, rank - radius);
+        return standings(board, from, rank - from + radius + 1);
+    }
+
+    public synchronized int size() {
+        return scores.size();
+    }
+
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    private List<Standing> standings(Board board, int from, int limit) {
+        return boards.get(board).range(from, Math.max(0, limit)).stream()
+            .map(entry -> new Standing(entry.id, entry.rank, scores.get(entry.id)))
+            .toList();
+    }
+
+    private synchronized void apply(Change change) {
+        change.applyTo(scores, boards);
+        if (replay != null) {
+            replay.add(change);
+        }
+    }
+
+    private static void place(Map<Board, RankedSkipList> boards, Long userId, Scores s) {
+        boards.get(Board.SOLVED_CASES).put(userId, s.solvedCases, s.averageRating);
+        boards.get(Board.RATING).put(userId, s.averageRating, s.solvedCases);
+        boards.get(Board.BADGES).put(userId, s.badges, s.solvedCases);
+    }
+
+    private static Map<Board, RankedSkipList> emptyBoards() {
+        Map<Board, RankedSkipList> boards = new EnumMap<>(Board.class);
+        for (Board board : Board.values()) {
+            boards.put(board, new RankedSkipList());
+        }
+        return boards;
+    }
+
+    // One score change, applied to the live boards and replayed onto a rebuild in progress
+    private interface Change {
+        void applyTo(Map<Long, Scores> scores, Map<Board, RankedSkipList> boards);
+    }
+
+    private static final class Scores {
+        private final int solvedCases;
+        private final double averageRating;
+        private final int totalRatings;
+        private final int badges;
+
+        private Scores(int solvedCases, double averageRating, int totalRatings, int badges) {
+            this.solvedCases = solvedCases;
+            this.averageRating = averageRating;
+            this.totalRatings = totalRatings;
+            this.badges = badges;
+        }
+
+        private Scores withBadges(int badges) {
+            return new Scores(solvedCases, averageRating, totalRatings, badges);
+        }
+    }
+
+    public static final class Standing {
+        private final Long userId;
+        private final int rank;
+        private final int solvedCases;
+        private final double averageRating;
+        private final int totalRatings;
+        private final int badgeCount;
+
+        private Standing(Long userId, int rank, Scores scores) {
+            this.userId = userId;
+            this.rank = rank;
+            this.solvedCases = scores.solvedCases;
+            this.averageRating = scores.averageRating;
+            this.totalRatings = scores.totalRatings;
+            this.badgeCount = scores.badges;
+        }
+
+        public Long getUserId() { return userId; }
+        public int getRank() { return rank; }
+        public int getSolvedCases() { return solvedCases; }
+        public double getAverageRating() { return averageRating; }
+        public int getTotalRatings() { return totalRatings; }
+        public int getBadgeCount() { return badgeCount; }
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.index;
+
+import java.util.Arrays;
+
+/**
+ * Helpers for sets of ids stored as sorted, duplicate-free long arrays.
+ *
+ * Arrays passed in are never modified; every mutating operation returns a new array so callers
+ * can publish results as immutable snapshots.
+ */
+final class SortedLongSets {
+
+    static final long[] EMPTY = new long[0];
+
+    private SortedLongSets() {
+    }
+
+    static long[] insert(long[] set, long value) {
+        int pos = Arrays.binarySearch(set, value);
+        if (pos >= 0) {
+            return set;
+        }
+        int insertAt = -pos - 1;
+        long[] result = new long[set.length + 1];
+        System.arraycopy(set, 0, result, 0, insertAt);
+        result[insertAt] = value;
+        System.arraycopy(set, insertAt, result, insertAt + 1, set.length - insertAt);
+        return result;
+    }
+
+    static long[] remove(long[] set, long value) {
+        int pos = Arrays.binarySearch(set, value);
+        if (pos < 0) {
+            return set;
+        }
+        if (set.length == 1) {
+            return EMPTY;
+        }
+        long[] result = new long[set.length - 1];
+        System.arraycopy(set, 0, result, 0, pos);
+        System.arraycopy(set, pos + 1, result, pos, set.length - pos - 1);
+        return result;
+    }
+
+    static long[] intersect(long[] a, long[] b) {
+        // Probe the larger set with binary search when sizes are lopsided, otherwise merge
+        if (a.length > b.length) {
+            long[] tmp = a;
+            a = b;
+            b = tmp;
+        }
+        long[] out = new long[a.length];
+        int n = 0;
+        if ((long) a.length * 16 < b.length) {
+            for (long v : a) {
+                if (Arrays.binarySearch(b, v) >= 0) {
+                    out[n++] = v;
+                }
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    out[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    static long[] union(long[] a, long[] b) {
+        long[] out = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                out[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        while (i < a.length) {
+            out[n++] = a[i++];
+        }
+        while (j < b.length) {
+            out[n++] = b[j++];
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+}
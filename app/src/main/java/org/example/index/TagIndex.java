@@ -0,0 +1,190 @@
+package org.example.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index from tag to the sorted set of entity ids carrying it.
+ *
+ * Posting lists are immutable long arrays swapped in on write, so lookups are lock-free and never
+ * observe a half-applied update. Writes are serialized; they happen once per entity save and are
+ * far rarer than reads. Tags are kept in a sorted map so listing and prefix completion need no sort.
+ */
+public class TagIndex {
+
+    private final ConcurrentSkipListMap<String, long[]> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Set<String>> tagsById = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // Replace the whole index with (id, tag) pairs loaded from the database
+    public synchronized void load(List<Object[]> idTagPairs) {
+        Map<String, List<Long>> grouped = new HashMap<>();
+        Map<Long, Set<String>> byId = new HashMap<>();
+        for (Object[] pair : idTagPairs) {
+            Long id = (Long) pair[0];
+            String tag = normalize((String) pair[1]);
+            if (id == null || tag == null) {
+                continue;
+            }
+            grouped.computeIfAbsent(tag, k -> new ArrayList<>()).add(id);
+            byId.computeIfAbsent(id, k -> new LinkedHashSet<>()).add(tag);
+        }
+
+        postings.clear();
+        tagsById.clear();
+        grouped.forEach((tag, ids) -> {
+            long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+            postings.put(tag, sorted);
+        });
+        tagsById.putAll(byId);
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void put(long id, Collection<String> tags) {
+        Set<String> next = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                String normalized = normalize(tag);
+                if (normalized != null) {
+                    next.add(normalized);
+                }
+            }
+        }
+        Set<String> previous = next.isEmpty() ? tagsById.remove(id) : tagsById.put(id, next);
+        if (previous != null) {
+            for (String tag : previous) {
+                if (!next.contains(tag)) {
+                    removePosting(tag, id);
+                }
+            }
+        }
+        for (String tag : next) {
+            if (previous == null || !previous.contains(tag)) {
+                postings.merge(tag, new long[] { id }, (existing, single) -> SortedLongSets.insert(existing, id));
+            }
+        }
+    }
+
+    public synchronized void remove(long id) {
+        Set<String> previous = tagsById.remove(id);
+        if (previous != null) {
+            for (String tag : previous) {
+                removePosting(tag, id);
+            }
+        }
+    }
+
+    public void putAfterCommit(long id, Collection<String> tags) {
+        List<String> snapshot = tags != null ? new ArrayList<>(tags) : List.of();
+        AfterCommit.run(() -> put(id, snapshot));
+    }
+
+    public void removeAfterCommit(long id) {
+        AfterCommit.run(() -> remove(id));
+    }
+
+    public long[] idsWithTag(String tag) {
+        long[] ids = postings.get(normalize(tag));
+        return ids != null ? ids.clone() : SortedLongSets.EMPTY;
+    }
+
+    // Ids carrying every one of the given tags (AND)
+    public long[] idsWithAllTags(Collection<String> tags) {
+        List<long[]> lists = new ArrayList<>();
+        for (String tag : tags) {
+            long[] ids = postings.get(normalize(tag));
+            if (ids == null) {
+                return SortedLongSets.EMPTY;
+            }
+            lists.add(ids);
+        }
+        if (lists.isEmpty()) {
+            return SortedLongSets.EMPTY;
+        }
+        // Intersect smallest first so the working set only shrinks
+        lists.sort(Comparator.comparingInt(ids -> ids.length));
+        long[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = SortedLongSets.intersect(result, lists.get(i));
+        }
+        return result.clone();
+    }
+
+    // Ids carrying at least one of the given tags (OR)
+    public long[] idsWithAnyTag(Collection<String> tags) {
+        long[] result = SortedLongSets.EMPTY;
+        for (String tag : tags) {
+            long[] ids = postings.get(normalize(tag));
+            if (ids != null) {
+                result = SortedLongSets.union(result, ids);
+            }
+        }
+        return result == SortedLongSets.EMPTY ? result : result.clone();
+    }
+
+    public Set<String> tagsOf(long id) {
+        Set<String> tags = tagsById.get(id);
+        return tags != null ? Set.copyOf(tags) : Set.of();
+    }
+
+    public List<String> allTags() {
+        return new ArrayList<>(postings.keySet());
+    }
+
+    public int cardinality(String tag) {
+        long[] ids = postings.get(normalize(tag));
+        return ids != null ? ids.length : 0;
+    }
+
+    // Tags starting with the prefix, most used first, for autocomplete
+    public List<TagCount> suggest(String prefix, int limit) {
+        String start = prefix != null ? prefix.trim() : "";
+        Map<String, long[]> range = start.isEmpty()
+            ? postings
+            : postings.subMap(start, true, start + Character.MAX_VALUE, false);
+        List<TagCount> counts = new ArrayList<>();
+        range.forEach((tag, ids) -> counts.add(new TagCount(tag, ids.length)));
+        counts.sort(Comparator.comparingInt(TagCount::getCount).reversed().thenComparing(TagCount::getTag));
+        return counts.size() > limit ? new ArrayList<>(counts.subList(0, Math.max(0, limit))) : counts;
+    }
+
+    private void removePosting(String tag, long id) {
+        postings.computeIfPresent(tag, (k, existing) -> {
+            long[] updated = SortedLongSets.remove(existing, id);
+            return updated.length == 0 ? null : updated;
+        });
+    }
+
+    private static String normalize(String tag) {
+        if (tag == null) {
+            return null;
+        }
+        String trimmed = tag.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    public static class TagCount {
+        private final String tag;
+        private final int count;
+
+        public TagCount(String tag, int count) {
+            this.tag = tag;
+            this.count = count;
+        }
+
+        public String getTag() { return tag; }
+        public int getCount() { return count; }
+    }
+}
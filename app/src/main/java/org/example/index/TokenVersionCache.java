@@ -0,0 +1,75 @@
+package org.example.index;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.example.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded LRU cache of each user's current token version, so verifying a JWT's version claim
+ * normally costs no query. A miss loads the single column; entries expire after a short TTL so a
+ * bump made on another instance is picked up. Local bumps evict the entry after commit.
+ */
+@Component
+public class TokenVersionCache {
+
+    // Marks a user that no longer exists; never equal to a real version
+    private static final long MISSING = -1L;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.auth.version-cache-size:10000}")
+    private int maxEntries;
+
+    @Value("${app.auth.version-cache-ttl-ms:60000}")
+    private long ttlMillis;
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        if (userId == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(userId);
+        }
+        if (entry == null || entry.expiresAt < now) {
+            // Loaded outside the lock; a concurrent miss for the same user just loads twice
+            long version = userRepository.findTokenVersionById(userId).orElse(MISSING);
+            entry = new Entry(version, now + ttlMillis);
+            synchronized (entries) {
+                entries.put(userId, entry);
+            }
+        }
+        return entry.version == tokenVersion;
+    }
+
+    public void evictAfterCommit(Long userId) {
+        AfterCommit.run(() -> {
+            synchronized (entries) {
+                entries.remove(userId);
+            }
+        });
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final long expiresAt;
+
+        private Entry(long version, long expiresAt) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
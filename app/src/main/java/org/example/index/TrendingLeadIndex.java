@@ -0,0 +1,335 @@
+package org.example.index;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.example.entity.Lead;
+import org.example.entity.LeadStatus;
+import org.example.entity.LeadVisibility;
+import org.example.entity.ReactionType;
+import org.example.repository.LeadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Hot public leads per case, ranked Hacker News style: status weight * (points + 1) / (age in hours + 2)^1.8,
+ * where points are net votes, weighted reactions and half a point per comment.
+ *
+ * Each case keeps only its top app.leads.trending-size leads, picked with a bounded min-heap, and
+ * scored as of the moment they were ranked. Lead and vote changes are applied after commit by
+ * moving the one lead within that list; the list is re-ranked from all of the case's leads when
+ * it has aged past app.leads.trending-refresh-ms, since decay reorders leads over time, or when a
+ * change leaves it unable to tell which lead belongs at the bottom. Reactions and comments have
+ * no write path through the services, so their counts come from the periodic reconcile. Changes
+ * applied while a reconcile is reading are recorded and replayed onto the rebuilt maps before the
+ * swap, so they are not lost with the old ones.
+ */
+@Component
+public class TrendingLeadIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingLeadIndex.class);
+
+    private static final double GRAVITY = 1.8;
+    private static final double COMMENT_WEIGHT = 0.5;
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+
+    // Highest score first; the newer lead wins a tie
+    private static final Comparator<Ranked> BY_SCORE_DESC =
+        Comparator.comparingDouble(Ranked::getScore).thenComparingLong(Ranked::getLeadId).reversed();
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private LeadVoteCounters leadVoteCounters;
+
+    @Value("${app.leads.trending-size:100}")
+    private int trendingSize;
+
+    @Value("${app.leads.trending-refresh-ms:60000}")
+    private long refreshMs;
+
+    // Guarded by this
+    private Map<Long, Stats> byLead = new HashMap<>();
+    private Map<Long, CaseRanking> byCase = new HashMap<>();
+    // Changes applied since the running reconcile started reading; null when none is running
+    private List<Change> replay;
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.leads.trending-reconcile-interval-ms:300000}",
+               initialDelayString = "${app.leads.trending-reconcile-interval-ms:300000}")
+    public void reconcile() {
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        try {
+            // Votes first: a vote reaches the counters just before the index, so the only vote both
+            // read here and replayed is one caught between those two callbacks
+            Map<Long, Long> votes = leadVoteCounters.netTotals();
+            Map<Long, Stats> loaded = new HashMap<>();
+            for (Object[] row : leadRepository.findTrendingCandidates()) {
+                loaded.put((Long) row[0], new Stats((Long) row[1], toMillis((LocalDateTime) row[2]), (LeadStatus) row[3]));
+            }
+            for (Object[] row : leadRepository.countReactionsByLeadAndType()) {
+                Stats stats = loaded.get((Long) row[0]);
+                if (stats != null) {
+                    stats.reactionPoints += reactionWeight((ReactionType) row[1]) * ((Long) row[2]).intValue();
+                }
+            }
+            for (Object[] row : leadRepository.countCommentsByLead()) {
+                Stats stats = loaded.get((Long) row[0]);
+                if (stats != null) {
+                    stats.comments = ((Long) row[1]).intValue();
+                }
+            }
+            votes.forEach((leadId, net) -> {
+                Stats stats = loaded.get(leadId);
+                if (stats != null) {
+                    stats.votes = net;
+                }
+            });
+
+            Map<Long, CaseRanking> cases = new HashMap<>();
+            loaded.forEach((leadId, stats) ->
+                cases.computeIfAbsent(stats.caseId, id -> new CaseRanking()).leadIds.add(leadId));
+            synchronized (this) {
+                replay.forEach(change -> change.applyTo(loaded, cases));
+                byLead = loaded;
+                byCase = cases;
+            }
+            logger.debug("Trending leads rebuilt with {} leads across {} cases", loaded.size(), cases.size());
+        } finally {
+            synchronized (this) {
+                replay = null;
+            }
+        }
+    }
+
+    // Takes case, status and visibility from the lead as written in the current transaction
+    public void updateAfterCommit(Lead lead) {
+        if (lead == null || lead.getId() == null) {
+            return;
+        }
+        Long leadId = lead.getId();
+        Long caseId = lead.getCrimeCase() != null ? lead.getCrimeCase().getId() : null;
+        boolean ranked = caseId != null && lead.getVisibility() == LeadVisibility.PUBLIC;
+        long submittedAt = toMillis(lead.getSubmittedAt());
+        LeadStatus status = lead.getStatus();
+        AfterCommit.run(() -> apply((byLead, byCase) -> {
+            Stats current = byLead.get(leadId);
+            if (current != null && (!ranked || !current.caseId.equals(caseId))) {
+                // Made private, or moved to another case
+                byLead.remove(leadId);
+                CaseRanking previous = byCase.get(current.caseId);
+                previous.leadIds.remove(leadId);
+                reposition(byLead, previous, leadId);
+                current = null;
+            }
+            if (!ranked) {
+                return;
+            }
+            if (current == null) {
+                current = new Stats(caseId, submittedAt, status);
+                byLead.put(leadId, current);
+            } else {
+                current.status = status;
+            }
+            CaseRanking ranking = byCase.computeIfAbsent(caseId, id -> new CaseRanking());
+            ranking.leadIds.add(leadId);
+            reposition(byLead, ranking, leadId);
+        }));
+    }
+
+    public void recordVotesAfterCommit(Long leadId, int netDelta) {
+        if (leadId == null || netDelta == 0) {
+            return;
+        }
+        AfterCommit.run(() -> apply((byLead, byCase) -> {
+            // Private leads are not ranked; a public lead not seen yet is added by the next reconcile
+            Stats stats = byLead.get(leadId);
+            if (stats != null) {
+                stats.votes += netDelta;
+                reposition(byLead, byCase.get(stats.caseId), leadId);
+            }
+        }));
+    }
+
+    public void removeCaseAfterCommit(Long caseId) {
+        AfterCommit.run(() -> apply((byLead, byCase) -> {
+            CaseRanking ranking = byCase.remove(caseId);
+            if (ranking != null) {
+                ranking.leadIds.forEach(byLead::remove);
+            }
+        }));
+    }
+
+    public int getTrendingSize() {
+        return trendingSize;
+    }
+
+    // Up to limit entries of the case's ranking starting at offset; empty past trending-size
+    public synchronized List<Ranked> top(Long caseId, int offset, int limit) {
+        CaseRanking ranking = byCase.get(caseId);
+        if (ranking == null || offset < 0 || limit <= 0 || offset >= trendingSize) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        if (ranking.top == null || now - ranking.rankedAt > refreshMs) {
+            rank(ranking, now);
+        }
+        if (offset >= ranking.top.size()) {
+            return List.of();
+        }
+        return new ArrayList<>(ranking.top.subList(offset, (int) Math.min(ranking.top.size(), (long) offset + limit)));
+    }
+
+    // O(n log k) over the case's leads: a min-heap of the best k seen so far, then the k sorted
+    private void rank(CaseRanking ranking, long now) {
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(trendingSize + 1, BY_SCORE_DESC.reversed());
+        for (Long leadId : ranking.leadIds) {
+            Ranked candidate = score(leadId, byLead.get(leadId), now);
+            if (heap.size() < trendingSize) {
+                heap.add(candidate);
+            } else if (BY_SCORE_DESC.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+        List<Ranked> top = new ArrayList<>(heap);
+        top.sort(BY_SCORE_DESC);
+        ranking.top = top;
+        ranking.rankedAt = now;
+    }
+
+    // Moves one lead within a ranked list after its stats changed, scoring it as of the list's
+    // ranking time so it compares fairly with the others. Leads outside the list all score at most
+    // its last entry, so the list stays exact unless a listed lead drops below that line.
+    private void reposition(Map<Long, Stats> byLead, CaseRanking ranking, Long leadId) {
+        if (ranking == null || ranking.top == null) {
+            return;
+        }
+        List<Ranked> top = ranking.top;
+        boolean wasListed = top.removeIf(r -> r.leadId == leadId);
+        Stats stats = byLead.get(leadId);
+        boolean othersUnlisted = ranking.leadIds.size() - (stats != null ? 1 : 0) > top.size();
+        if (stats == null) {
+            if (wasListed && othersUnlisted) {
+                ranking.top = null;
+            }
+            return;
+        }
+        Ranked updated = score(leadId, stats, ranking.rankedAt);
+        if (othersUnlisted && !top.isEmpty() && BY_SCORE_DESC.compare(updated, top.get(top.size() - 1)) > 0) {
+            if (wasListed) {
+                // Fell below the line; an unlisted lead may now outrank it
+                ranking.top = null;
+            }
+            return;
+        }
+        int position = Collections.binarySearch(top, updated, BY_SCORE_DESC);
+        top.add(position < 0 ? -position - 1 : position, updated);
+        if (top.size() > trendingSize) {
+            top.remove(top.size() - 1);
+        }
+    }
+
+    private synchronized void apply(Change change) {
+        change.applyTo(byLead, byCase);
+        if (replay != null) {
+            replay.add(change);
+        }
+    }
+
+    private static Ranked score(Long leadId, Stats stats, long now) {
+        double points = stats.votes + stats.reactionPoints + COMMENT_WEIGHT * stats.comments;
+        double ageHours = Math.max(0, now - stats.submittedAt) / MILLIS_PER_HOUR;
+        double score = statusWeight(stats.status) * (Math.max(0, points) + 1) / Math.pow(ageHours + 2, GRAVITY);
+        return new Ranked(leadId, score, points);
+    }
+
+    private static double statusWeight(LeadStatus status) {
+        if (status == null) {
+            return 1.0;
+        }
+        return switch (status) {
+            case VALIDATED -> 1.5;
+            case INVESTIGATING -> 1.25;
+            case PENDING -> 1.0;
+            case REJECTED -> 0.2;
+        };
+    }
+
+    private static int reactionWeight(ReactionType type) {
+        if (type == null) {
+            return 0;
+        }
+        return switch (type) {
+            case VALIDATE -> 2;
+            case LIKE, HELPFUL -> 1;
+            case DISLIKE, CONFUSING -> -1;
+            case INVALIDATE -> -2;
+        };
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : System.currentTimeMillis();
+    }
+
+    public static final class Ranked {
+        private final long leadId;
+        private final double score;
+        private final double points;
+
+        private Ranked(long leadId, double score, double points) {
+            this.leadId = leadId;
+            this.score = score;
+            this.points = points;
+        }
+
+        public long getLeadId() { return leadId; }
+        public double getScore() { return score; }
+        public double getPoints() { return points; }
+    }
+
+    // One lead or vote change, applied to the live maps and replayed onto a reconcile in progress
+    private interface Change {
+        void applyTo(Map<Long, Stats> byLead, Map<Long, CaseRanking> byCase);
+    }
+
+    private static final class Stats {
+        private final Long caseId;
+        private final long submittedAt;
+        private LeadStatus status;
+        private int reactionPoints;
+        private int comments;
+        private long votes;
+
+        private Stats(Long caseId, long submittedAt, LeadStatus status) {
+            this.caseId = caseId;
+            this.submittedAt = submittedAt;
+            this.status = status;
+        }
+    }
+
+    private static final class CaseRanking {
+        private final Set<Long> leadIds = new HashSet<>();
+        // Best trendingSize leads, highest first, scored as of rankedAt; null until the next read re-ranks
+        private List<Ranked> top;
+        private long rankedAt;
+    }
+}
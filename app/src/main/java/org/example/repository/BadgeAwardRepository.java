@@ -1,6 +1,7 @@
 package org.example.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -69,6 +70,10 @@ public interface BadgeAwardRepository extends JpaRepository<BadgeAward, Long> {
     @Query("SELECT ba.user, COUNT(ba) as badgeCount FROM BadgeAward ba GROUP BY ba.user ORDER BY badgeCount DESC")
     List<Object[]> findUsersWithMostBadges();
     
+    // (userId, awardCount) for every user holding a badge, used to rebuild SolverLeaderboard
+    @Query("SELECT ba.user.id, COUNT(ba) FROM BadgeAward ba GROUP BY ba.user.id")
+    List<Object[]> countAwardsByUser();
+    
     // Find most awarded badges
     @Query("SELECT ba.badge, COUNT(ba) as awardCount FROM BadgeAward ba GROUP BY ba.badge ORDER BY awardCount DESC")
     List<Object[]> findMostAwardedBadges();
@@ -114,4 +119,8 @@ public interface BadgeAwardRepository extends JpaRepository<BadgeAward, Long> {
     // Find awards for a specific user by badge tier
     @Query("SELECT ba FROM BadgeAward ba WHERE ba.user = :user AND ba.badge.tier = :badgeTier ORDER BY ba.awardedAt DESC")
     List<BadgeAward> findByUserAndBadgeTierOrdered(@Param("user") User user, @Param("badgeTier") String badgeTier);
-} 
\ No newline at end of file
+
+    // (userId, badgeId) of every award held by the given users, for BadgeService batch evaluation
+    @Query("SELECT ba.user.id, ba.badge.id FROM BadgeAward ba WHERE ba.user.id IN :userIds")
+    List<Object[]> findHeldBadgeIds(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,23 @@
+package org.example.repository;
+
+import java.util.Optional;
+
+import org.example.entity.BadgeEvaluationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface BadgeEvaluationRunRepository extends JpaRepository<BadgeEvaluationRun, Long> {
+
+    Optional<BadgeEvaluationRun> findTopByOrderByIdDesc();
+
+    // Row lock held until commit, so only one instance advances a run's checkpoint at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM BadgeEvaluationRun r WHERE r.id = :id")
+    Optional<BadgeEvaluationRun> findByIdForUpdate(@Param("id") Long id);
+}
@@ -1,10 +1,12 @@
 package org.example.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
 import org.example.entity.CaseComment;
 import org.example.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,4 +16,24 @@ public interface CaseCommentRepository extends JpaRepository<CaseComment, Long>
 
     @Query("SELECT c FROM CaseComment c WHERE c.crimeCase.id IN :caseIds")
     List<CaseComment> findByCrimeCaseIdIn(@Param("caseIds") Set<Long> caseIds);
-} 
\ No newline at end of file
+
+    // Distinct (caseId, userId) pairs, used to build CaseParticipationIndex
+    @Query("SELECT DISTINCT c.crimeCase.id, c.user.id FROM CaseComment c WHERE c.crimeCase IS NOT NULL AND c.user IS NOT NULL")
+    List<Object[]> findDistinctCaseUserPairs();
+
+    // Comment plus author name in one row, no entity or lazy User loading
+    interface CommentView {
+        Long getId();
+        Long getUserId();
+        String getAuthor();
+        String getContent();
+        LocalDateTime getCreatedAt();
+    }
+
+    @Query("SELECT c.id AS id, u.id AS userId, u.username AS author, c.content AS content, c.createdAt AS createdAt FROM CaseComment c LEFT JOIN c.user u WHERE c.crimeCase.id = :caseId ORDER BY c.id ASC")
+    List<CommentView> findViewsByCaseId(@Param("caseId") Long caseId);
+
+    // Keyset page of a case's comments, oldest first; page size comes from the Pageable
+    @Query("SELECT c.id AS id, u.id AS userId, u.username AS author, c.content AS content, c.createdAt AS createdAt FROM CaseComment c LEFT JOIN c.user u WHERE c.crimeCase.id = :caseId AND c.id > :afterId ORDER BY c.id ASC")
+    List<CommentView> findViewsByCaseIdAfter(@Param("caseId") Long caseId, @Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package org.example.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.example.entity.CaseFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CaseFileRepository extends JpaRepository<CaseFile, Long> {
+    
+    List<CaseFile> findByCrimeCaseIdOrderByUploadedAtDesc(Long caseId);
+
+    Optional<CaseFile> findByIdAndCrimeCaseId(Long id, Long caseId);
+}
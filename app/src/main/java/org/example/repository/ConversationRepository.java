@@ -0,0 +1,70 @@
+package org.example.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.example.entity.Conversation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    // lowUserId must be the smaller of the two ids
+    @Query("SELECT c FROM Conversation c WHERE c.lowUser.id = :lowUserId AND c.highUser.id = :highUserId")
+    Optional<Conversation> findByUsers(@Param("lowUserId") Long lowUserId, @Param("highUserId") Long highUserId);
+
+    // Two first messages racing to open the same conversation both end up with the one row
+    @Modifying
+    @Query(value = "INSERT INTO conversations (user_low_id, user_high_id, unread_low, unread_high) " +
+            "VALUES (:lowUserId, :highUserId, 0, 0) ON CONFLICT (user_low_id, user_high_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("lowUserId") Long lowUserId, @Param("highUserId") Long highUserId);
+
+    // Moves the last-message pointer forward only, so concurrent sends cannot move it back
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+           "c.lastMessageId = CASE WHEN c.lastMessageId IS NULL OR c.lastMessageId < :messageId THEN :messageId ELSE c.lastMessageId END, " +
+           "c.lastMessageAt = CASE WHEN c.lastMessageId IS NULL OR c.lastMessageId < :messageId THEN :sentAt ELSE c.lastMessageAt END, " +
+           "c.unreadLow = c.unreadLow + :unreadLow, c.unreadHigh = c.unreadHigh + :unreadHigh " +
+           "WHERE c.id = :id")
+    int recordMessage(@Param("id") Long id, @Param("messageId") Long messageId, @Param("sentAt") LocalDateTime sentAt,
+                      @Param("unreadLow") int unreadLow, @Param("unreadHigh") int unreadHigh);
+
+    // Unread counts only, for write-behind sends whose pointer moves when the row is inserted
+    @Modifying
+    @Query("UPDATE Conversation c SET c.unreadLow = c.unreadLow + :unreadLow, c.unreadHigh = c.unreadHigh + :unreadHigh " +
+           "WHERE c.id = :id")
+    int addUnread(@Param("id") Long id, @Param("unreadLow") int unreadLow, @Param("unreadHigh") int unreadHigh);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+           "c.unreadLow = CASE WHEN c.lowUser.id = :userId THEN 0 ELSE c.unreadLow END, " +
+           "c.unreadHigh = CASE WHEN c.highUser.id = :userId THEN 0 ELSE c.unreadHigh END " +
+           "WHERE c.id = :id")
+    int markRead(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Heads of the user's conversations with any of otherUserIds: (conversationId, lowUserId, highUserId,
+    // unreadLow, unreadHigh, lastMessageId, lastSenderId, lastReceiverId, lastContent, lastSentAt)
+    @Query("SELECT c.id, c.lowUser.id, c.highUser.id, c.unreadLow, c.unreadHigh, m.id, m.sender.id, m.receiver.id, m.content, m.sentAt " +
+           "FROM Conversation c LEFT JOIN DirectMessage m ON m.id = c.lastMessageId " +
+           "WHERE (c.lowUser.id = :userId AND c.highUser.id IN :otherUserIds) " +
+           "OR (c.highUser.id = :userId AND c.lowUser.id IN :otherUserIds)")
+    List<Object[]> findHeadsWith(@Param("userId") Long userId, @Param("otherUserIds") Collection<Long> otherUserIds);
+
+    // Inbox rows, newest first: (conversationId, otherUserId, otherUsername, lastMessageId, lastSenderId,
+    // lastContent, lastSentAt, unread). One query per side of the pair so each is a keyset scan of its index.
+    @Query("SELECT c.id, u.id, u.username, m.id, m.sender.id, m.content, m.sentAt, c.unreadLow " +
+           "FROM Conversation c JOIN c.highUser u JOIN DirectMessage m ON m.id = c.lastMessageId " +
+           "WHERE c.lowUser.id = :userId AND c.lastMessageId < :beforeId ORDER BY c.lastMessageId DESC")
+    List<Object[]> findInboxAsLowUser(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT c.id, u.id, u.username, m.id, m.sender.id, m.content, m.sentAt, c.unreadHigh " +
+           "FROM Conversation c JOIN c.lowUser u JOIN DirectMessage m ON m.id = c.lastMessageId " +
+           "WHERE c.highUser.id = :userId AND c.lowUser.id < :userId AND c.lastMessageId < :beforeId ORDER BY c.lastMessageId DESC")
+    List<Object[]> findInboxAsHighUser(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Pageable pageable);
+}
@@ -1,6 +1,7 @@
 package org.example.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.example.entity.CaseDifficulty;
@@ -13,9 +14,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CrimeCaseRepository extends JpaRepository<CrimeCase, Long> {
     
@@ -66,10 +70,41 @@ public interface CrimeCaseRepository extends JpaRepository<CrimeCase, Long> {
     @Query("SELECT c FROM CrimeCase c WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(c.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<CrimeCase> searchByTitleOrDescription(@Param("searchTerm") String searchTerm);
     
+    // Ranked full-text search over the trigger-maintained search_vector (see CaseSearchSchemaInitializer).
+    // Headlines are computed in the outer query so only the returned page pays for them.
+    interface CaseSearchHitView {
+        Long getId();
+        Double getRank();
+        String getTitleHighlight();
+        String getSnippet();
+    }
+    
+    @Query(value = "SELECT hit.id AS id, hit.rank AS rank, " +
+            "ts_headline('english', coalesce(hit.title, ''), hit.query, 'HighlightAll=true, StartSel=<mark>, StopSel=</mark>') AS \"titleHighlight\", " +
+            "ts_headline('english', coalesce(hit.description, ''), hit.query, 'StartSel=<mark>, StopSel=</mark>, MaxWords=35, MinWords=15, MaxFragments=2') AS snippet " +
+            "FROM (" +
+            "  SELECT c.id, c.title, c.description, q.query, CAST(ts_rank_cd(c.search_vector, q.query, 32) AS double precision) AS rank " +
+            "  FROM crime_cases c, websearch_to_tsquery('english', :query) AS q(query) " +
+            "  WHERE c.search_vector @@ q.query " +
+            "  ORDER BY rank DESC, c.id DESC " +
+            "  LIMIT :limit OFFSET :offset" +
+            ") hit " +
+            "ORDER BY hit.rank DESC, hit.id DESC",
+            nativeQuery = true)
+    List<CaseSearchHitView> fullTextSearch(@Param("query") String query, @Param("limit") int limit, @Param("offset") int offset);
+    
     // Find cases by tags
     @Query("SELECT c FROM CrimeCase c JOIN c.tags t WHERE t = :tag")
     List<CrimeCase> findByTag(@Param("tag") String tag);
     
+    // All (caseId, tag) pairs, used to build the in-memory tag index
+    @Query("SELECT c.id, t FROM CrimeCase c JOIN c.tags t")
+    List<Object[]> findAllCaseTagPairs();
+    
+    // (id, difficulty, location, postedAt) rows used to seed the recommendation index
+    @Query("SELECT c.id, c.difficulty, c.location, c.postedAt FROM CrimeCase c WHERE c.status = :status")
+    List<Object[]> findCaseFeaturesByStatus(@Param("status") CaseStatus status);
+    
     // Find all unique tags
     @Query("SELECT DISTINCT t FROM CrimeCase c JOIN c.tags t ORDER BY t")
     List<String> findAllTags();
@@ -82,6 +117,40 @@ public interface CrimeCaseRepository extends JpaRepository<CrimeCase, Long> {
     @Query("SELECT c FROM CrimeCase c ORDER BY c.postedAt DESC")
     Page<CrimeCase> findRecentCases(Pageable pageable);
     
+    // Summary projection for the case feed (no associations are loaded)
+    interface CaseSummaryView {
+        Long getId();
+        String getTitle();
+        String getDescription();
+        CaseStatus getStatus();
+        LocalDateTime getPostedAt();
+        String getImageUrl();
+        String getMediaUrl();
+        CaseType getCaseType();
+        CaseDifficulty getDifficulty();
+    }
+    
+    // Keyset-paginated feed, newest first; page size comes from the Pageable
+    @Query("SELECT c.id AS id, c.title AS title, c.description AS description, c.status AS status, c.postedAt AS postedAt, c.imageUrl AS imageUrl, c.mediaUrl AS mediaUrl, c.caseType AS caseType, c.difficulty AS difficulty FROM CrimeCase c ORDER BY c.postedAt DESC, c.id DESC")
+    List<CaseSummaryView> findFeedFirstPage(Pageable pageable);
+    
+    @Query("SELECT c.id AS id, c.title AS title, c.description AS description, c.status AS status, c.postedAt AS postedAt, c.imageUrl AS imageUrl, c.mediaUrl AS mediaUrl, c.caseType AS caseType, c.difficulty AS difficulty FROM CrimeCase c WHERE c.postedAt < :postedAt OR (c.postedAt = :postedAt AND c.id < :id) ORDER BY c.postedAt DESC, c.id DESC")
+    List<CaseSummaryView> findFeedPageAfter(@Param("postedAt") LocalDateTime postedAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT c.id AS id, c.title AS title, c.description AS description, c.status AS status, c.postedAt AS postedAt, c.imageUrl AS imageUrl, c.mediaUrl AS mediaUrl, c.caseType AS caseType, c.difficulty AS difficulty FROM CrimeCase c ORDER BY c.postedAt DESC, c.id DESC")
+    List<CaseSummaryView> findAllSummaries();
+    
+    @Query("SELECT c.id AS id, c.title AS title, c.description AS description, c.status AS status, c.postedAt AS postedAt, c.imageUrl AS imageUrl, c.mediaUrl AS mediaUrl, c.caseType AS caseType, c.difficulty AS difficulty FROM CrimeCase c WHERE c.id IN :caseIds")
+    List<CaseSummaryView> findSummariesByIdIn(@Param("caseIds") Collection<Long> caseIds);
+    
+    // (caseId, title) pairs for a set of cases
+    @Query("SELECT c.id, c.title FROM CrimeCase c WHERE c.id IN :caseIds")
+    List<Object[]> findTitlesByIds(@Param("caseIds") Collection<Long> caseIds);
+    
+    // Batch-fetch tags for a page of cases as (caseId, tag) pairs
+    @Query("SELECT c.id, t FROM CrimeCase c JOIN c.tags t WHERE c.id IN :caseIds")
+    List<Object[]> findTagsByCaseIds(@Param("caseIds") Collection<Long> caseIds);
+    
     // Find cases by organization with pagination
     Page<CrimeCase> findByPostedBy(User postedBy, Pageable pageable);
     
@@ -96,7 +165,35 @@ public interface CrimeCaseRepository extends JpaRepository<CrimeCase, Long> {
     @Query("SELECT c.caseType, COUNT(c) FROM CrimeCase c GROUP BY c.caseType")
     List<Object[]> countByCaseType();
     
+    // Count cases by difficulty for statistics
+    @Query("SELECT c.difficulty, COUNT(c) FROM CrimeCase c GROUP BY c.difficulty")
+    List<Object[]> countByDifficulty();
+    
+    // Count cases by posting organization for statistics
+    @Query("SELECT c.postedBy.id, COUNT(c) FROM CrimeCase c GROUP BY c.postedBy.id")
+    List<Object[]> countByPostedBy();
+    
+    // Activity topic authorization (CaseTopicAuthorizer)
+    @Query("SELECT c.privacy FROM CrimeCase c WHERE c.id = :id")
+    List<CasePrivacy> findPrivacyById(@Param("id") Long id);
+    
+    // Non-zero when the user posted the case, is assigned to it or actively participates in it
+    @Query("SELECT COUNT(c) FROM CrimeCase c WHERE c.id = :caseId AND (c.postedBy.id = :userId " +
+           "OR EXISTS (SELECT 1 FROM CaseParticipation p WHERE p.crimeCase = c AND p.user.id = :userId AND p.status = 'ACTIVE') " +
+           "OR EXISTS (SELECT 1 FROM CrimeCase a JOIN a.assignedSolvers s WHERE a = c AND s.id = :userId))")
+    long countMembership(@Param("caseId") Long caseId, @Param("userId") Long userId);
+    
+    // Counted dimensions of one case as stored, read without flushing pending changes
+    @Query("SELECT c.status, c.caseType, c.difficulty, c.postedBy.id FROM CrimeCase c WHERE c.id = :id")
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    List<Object[]> findStatisticsKeyById(@Param("id") Long id);
+    
     // Find cases that need badge awarding (solved but no badge)
     @Query("SELECT c FROM CrimeCase c WHERE c.status = 'SOLVED' AND c.badgeAwarded = false")
     List<CrimeCase> findSolvedCasesWithoutBadge();
-} 
\ No newline at end of file
+
+    // Solved counts per (solver, case type) for badge rules with a requiredCaseType
+    @Query("SELECT c.solvedBy.id, c.caseType, COUNT(c) FROM CrimeCase c " +
+           "WHERE c.solvedBy.id IN :userIds GROUP BY c.solvedBy.id, c.caseType")
+    List<Object[]> countSolvedByCaseType(@Param("userIds") Collection<Long> userIds);
+}
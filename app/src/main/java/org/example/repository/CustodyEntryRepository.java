@@ -0,0 +1,45 @@
+package org.example.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.example.entity.CustodyEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustodyEntryRepository extends JpaRepository<CustodyEntry, Long> {
+    
+    interface CustodyEntryView {
+        Long getId();
+        Integer getSequence();
+        Long getHandlerId();
+        String getHandlerName();
+        String getAction();
+        String getNotes();
+        LocalDateTime getRecordedAt();
+        String getPreviousHash();
+        String getEntryHash();
+    }
+    
+    // (sequence, entryHash) of the latest entry; an index probe on (evidence_id, sequence)
+    @Query("SELECT c.sequence, c.entryHash FROM CustodyEntry c WHERE c.evidence.id = :evidenceId ORDER BY c.sequence DESC")
+    List<Object[]> findHead(@Param("evidenceId") Long evidenceId, Pageable pageable);
+    
+    @Query("SELECT c.id AS id, c.sequence AS sequence, h.id AS handlerId, h.username AS handlerName, " +
+           "c.action AS action, c.notes AS notes, c.recordedAt AS recordedAt, " +
+           "c.previousHash AS previousHash, c.entryHash AS entryHash " +
+           "FROM CustodyEntry c JOIN c.handler h WHERE c.evidence.id = :evidenceId ORDER BY c.sequence")
+    List<CustodyEntryView> findViewsByEvidenceId(@Param("evidenceId") Long evidenceId);
+    
+    // Hash inputs for a batch of chains: (evidenceId, sequence, handlerId, action, notes, recordedAt, previousHash, entryHash)
+    @Query("SELECT c.evidence.id, c.sequence, c.handler.id, c.action, c.notes, c.recordedAt, c.previousHash, c.entryHash " +
+           "FROM CustodyEntry c WHERE c.evidence.id IN :evidenceIds ORDER BY c.evidence.id, c.sequence")
+    List<Object[]> findChainRows(@Param("evidenceIds") Collection<Long> evidenceIds);
+    
+    long countByEvidenceId(Long evidenceId);
+}
@@ -1,9 +1,11 @@
 package org.example.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.example.entity.DirectMessage;
 import org.example.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,7 +15,25 @@ public interface DirectMessageRepository extends JpaRepository<DirectMessage, Lo
     @Query("SELECT m FROM DirectMessage m WHERE (m.sender = :user1 AND m.receiver = :user2) OR (m.sender = :user2 AND m.receiver = :user1) ORDER BY m.sentAt ASC")
     List<DirectMessage> findChatBetweenUsers(@Param("user1") User user1, @Param("user2") User user2);
 
-    // Get the latest message for each chat (for DM list)
-    @Query("SELECT m FROM DirectMessage m WHERE (m.sender = :user OR m.receiver = :user) AND m.sentAt = (SELECT MAX(m2.sentAt) FROM DirectMessage m2 WHERE (m2.sender = m.sender AND m2.receiver = m.receiver) OR (m2.sender = m.receiver AND m2.receiver = m.sender))")
+    // Get the latest message for each chat (for DM list), via each conversation's last-message pointer
+    @Query("SELECT m FROM DirectMessage m WHERE m.id IN (SELECT c.lastMessageId FROM Conversation c WHERE c.lowUser = :user OR c.highUser = :user) ORDER BY m.id DESC")
     List<DirectMessage> findLatestMessagesForUser(@Param("user") User user);
-} 
\ No newline at end of file
+
+    // Full history of one conversation, oldest first
+    @Query("SELECT m FROM DirectMessage m WHERE m.conversation.id = :conversationId ORDER BY m.id ASC")
+    List<DirectMessage> findByConversationId(@Param("conversationId") Long conversationId);
+
+    // Message fields without loading sender and receiver entities
+    interface MessageView {
+        Long getId();
+        Long getSenderId();
+        Long getReceiverId();
+        String getContent();
+        LocalDateTime getSentAt();
+    }
+
+    // Keyset page of one conversation, newest first; page size comes from the Pageable
+    @Query("SELECT m.id AS id, m.sender.id AS senderId, m.receiver.id AS receiverId, m.content AS content, m.sentAt AS sentAt " +
+           "FROM DirectMessage m WHERE m.conversation.id = :conversationId AND m.id < :beforeId ORDER BY m.id DESC")
+    List<MessageView> findPageBefore(@Param("conversationId") Long conversationId, @Param("beforeId") Long beforeId, Pageable pageable);
+}
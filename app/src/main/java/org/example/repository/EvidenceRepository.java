@@ -4,10 +4,13 @@ import org.example.entity.CrimeCase;
 import org.example.entity.Evidence;
 import org.example.entity.EvidenceStatus;
 import org.example.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -44,6 +47,14 @@ public interface EvidenceRepository extends JpaRepository<Evidence, Long> {
     @Query("SELECT e FROM Evidence e JOIN e.tags t WHERE t = :tag")
     List<Evidence> findByTag(@Param("tag") String tag);
     
+    // All (evidenceId, tag) pairs, used to build the in-memory tag index
+    @Query("SELECT e.id, t FROM Evidence e JOIN e.tags t")
+    List<Object[]> findAllEvidenceTagPairs();
+    
+    // Ids of a case's evidence, so a case delete can purge them from the tag index
+    @Query("SELECT e.id FROM Evidence e WHERE e.crimeCase.id = :caseId")
+    List<Long> findIdsByCrimeCaseId(@Param("caseId") Long caseId);
+    
     // Find evidence with specific tags
     @Query("SELECT e FROM Evidence e WHERE :tag MEMBER OF e.tags")
     List<Evidence> findEvidenceWithTag(@Param("tag") String tag);
@@ -84,6 +95,15 @@ public interface EvidenceRepository extends JpaRepository<Evidence, Long> {
     @Query("SELECT e FROM Evidence e WHERE e.assignedTo = :user AND e.status IN ('COLLECTED', 'PROCESSING')")
     List<Evidence> findAssignedEvidenceForUser(@Param("user") User user);
     
+    // Evidence with any custody history: ledger entries or legacy free-text chain
+    @Query("SELECT e FROM Evidence e WHERE EXISTS (SELECT 1 FROM CustodyEntry c WHERE c.evidence = e) " +
+           "OR (e.chainOfCustody IS NOT NULL AND e.chainOfCustody <> '')")
+    List<Evidence> findWithChainOfCustody();
+    
+    @Query("SELECT e FROM Evidence e WHERE e.crimeCase = :crimeCase AND (EXISTS (SELECT 1 FROM CustodyEntry c WHERE c.evidence = e) " +
+           "OR (e.chainOfCustody IS NOT NULL AND e.chainOfCustody <> ''))")
+    List<Evidence> findWithChainOfCustodyForCase(@Param("crimeCase") CrimeCase crimeCase);
+    
     // Find evidence by chain of custody
     @Query("SELECT e FROM Evidence e WHERE e.chainOfCustody LIKE %:searchTerm%")
     List<Evidence> findByChainOfCustodyContaining(@Param("searchTerm") String searchTerm);
@@ -130,4 +150,28 @@ public interface EvidenceRepository extends JpaRepository<Evidence, Long> {
     
     @Query("SELECT e.assignedTo, COUNT(e) FROM Evidence e WHERE e.status = 'ANALYZED' GROUP BY e.assignedTo ORDER BY COUNT(e) DESC")
     List<Object[]> findTopEvidenceAnalyzers();
-} 
\ No newline at end of file
+
+    // Touches only updatedAt; the UPDATE also takes the evidence row lock until commit, which
+    // serializes custody appends to the evidence's chain
+    @Modifying
+    @Query("UPDATE Evidence e SET e.updatedAt = :updatedAt WHERE e.id = :id")
+    int touchUpdatedAt(@Param("id") Long id, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Media pipeline (MediaProcessingService)
+    @Query("SELECT e.filePath, e.fileType FROM Evidence e WHERE e.id = :id AND e.filePath IS NOT NULL")
+    List<Object[]> findStoredFile(@Param("id") Long id);
+
+    @Query("SELECT e.id FROM Evidence e WHERE e.filePath IS NOT NULL AND e.mediaProcessedAt IS NULL ORDER BY e.id")
+    List<Long> findIdsAwaitingMedia(Pageable pageable);
+
+    // Matches on filePath so a result for a file that has since been replaced is dropped
+    @Modifying
+    @Transactional
+    @Query("UPDATE Evidence e SET e.thumbnailPath = :thumbnailPath, e.mediaWidth = :width, e.mediaHeight = :height, " +
+           "e.detectedMimeType = :mimeType, e.mediaMetadata = :metadata, e.mediaProcessedAt = :processedAt " +
+           "WHERE e.id = :id AND e.filePath = :filePath")
+    int recordMediaResult(@Param("id") Long id, @Param("filePath") String filePath,
+                          @Param("thumbnailPath") String thumbnailPath, @Param("width") Integer width,
+                          @Param("height") Integer height, @Param("mimeType") String mimeType,
+                          @Param("metadata") String metadata, @Param("processedAt") LocalDateTime processedAt);
+}
@@ -6,10 +6,13 @@ import org.example.entity.LeadStatus;
 import org.example.entity.LeadType;
 import org.example.entity.LeadVisibility;
 import org.example.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -140,4 +143,34 @@ public interface LeadRepository extends JpaRepository<Lead, Long> {
     // Find leads with highest reaction count
     @Query("SELECT l, SIZE(l.reactions) as reactionCount FROM Lead l ORDER BY reactionCount DESC")
     List<Object[]> findLeadsByReactionCount();
-} 
\ No newline at end of file
+
+    // Trending index (TrendingLeadIndex): (id, caseId, submittedAt, status) of every public lead
+    @Query("SELECT l.id, c.id, l.submittedAt, l.status FROM Lead l JOIN l.crimeCase c WHERE l.visibility = 'PUBLIC'")
+    List<Object[]> findTrendingCandidates();
+
+    // (leadId, reaction type, count)
+    @Query("SELECT r.lead.id, r.type, COUNT(r) FROM LeadReaction r GROUP BY r.lead.id, r.type")
+    List<Object[]> countReactionsByLeadAndType();
+
+    // (leadId, comment count)
+    @Query("SELECT c.lead.id, COUNT(c) FROM LeadComment c GROUP BY c.lead.id")
+    List<Object[]> countCommentsByLead();
+
+    // Media pipeline (MediaProcessingService)
+    @Query("SELECT l.filePath, l.fileType FROM Lead l WHERE l.id = :id AND l.filePath IS NOT NULL")
+    List<Object[]> findStoredFile(@Param("id") Long id);
+
+    @Query("SELECT l.id FROM Lead l WHERE l.filePath IS NOT NULL AND l.mediaProcessedAt IS NULL ORDER BY l.id")
+    List<Long> findIdsAwaitingMedia(Pageable pageable);
+
+    // Matches on filePath so a result for a file that has since been replaced is dropped
+    @Modifying
+    @Transactional
+    @Query("UPDATE Lead l SET l.thumbnailPath = :thumbnailPath, l.mediaWidth = :width, l.mediaHeight = :height, " +
+           "l.detectedMimeType = :mimeType, l.mediaMetadata = :metadata, l.mediaProcessedAt = :processedAt " +
+           "WHERE l.id = :id AND l.filePath = :filePath")
+    int recordMediaResult(@Param("id") Long id, @Param("filePath") String filePath,
+                          @Param("thumbnailPath") String thumbnailPath, @Param("width") Integer width,
+                          @Param("height") Integer height, @Param("mimeType") String mimeType,
+                          @Param("metadata") String metadata, @Param("processedAt") LocalDateTime processedAt);
+}
@@ -0,0 +1,20 @@
+package org.example.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.example.entity.LeadScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface LeadScoreRepository extends JpaRepository<LeadScore, Long> {
+
+    // (leadId, upvotes, downvotes) for a set of leads
+    @Query("SELECT s.leadId, s.upvotes, s.downvotes FROM LeadScore s WHERE s.leadId IN :leadIds")
+    List<Object[]> findTotalsByLeadIds(@Param("leadIds") Collection<Long> leadIds);
+
+    // (leadId, upvotes - downvotes) for leads with any votes
+    @Query("SELECT s.leadId, s.upvotes - s.downvotes FROM LeadScore s WHERE s.upvotes <> 0 OR s.downvotes <> 0")
+    List<Object[]> findNetTotals();
+}
@@ -0,0 +1,33 @@
+package org.example.repository;
+
+import org.example.entity.LeadVote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface LeadVoteRepository extends JpaRepository<LeadVote, Long> {
+
+    // Locks only this user's vote row, so voters on the same lead never wait on each other
+    @Query(value = "SELECT vote_value FROM lead_votes WHERE lead_id = :leadId AND user_id = :userId FOR UPDATE",
+            nativeQuery = true)
+    Integer findValueForUpdate(@Param("leadId") Long leadId, @Param("userId") Long userId);
+
+    // 0 when a concurrent request by the same user inserted first
+    @Modifying
+    @Query(value = "INSERT INTO lead_votes (lead_id, user_id, vote_value, voted_at) VALUES (:leadId, :userId, :value, now()) " +
+            "ON CONFLICT (lead_id, user_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("leadId") Long leadId, @Param("userId") Long userId, @Param("value") int value);
+
+    @Modifying
+    @Query(value = "UPDATE lead_votes SET vote_value = :value, voted_at = now() WHERE lead_id = :leadId AND user_id = :userId",
+            nativeQuery = true)
+    int updateValue(@Param("leadId") Long leadId, @Param("userId") Long userId, @Param("value") int value);
+
+    @Modifying
+    @Query(value = "DELETE FROM lead_votes WHERE lead_id = :leadId AND user_id = :userId", nativeQuery = true)
+    int deleteVote(@Param("leadId") Long leadId, @Param("userId") Long userId);
+
+    @Query(value = "SELECT vote_value FROM lead_votes WHERE lead_id = :leadId AND user_id = :userId", nativeQuery = true)
+    Integer findValue(@Param("leadId") Long leadId, @Param("userId") Long userId);
+}
@@ -0,0 +1,47 @@
+package org.example.repository;
+
+import java.util.List;
+
+import org.example.entity.RatingAggregate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RatingAggregateRepository extends JpaRepository<RatingAggregate, Long> {
+
+    // Adds a signed delta, creating the row on first use; the row lock serialises concurrent raters
+    @Modifying
+    @Query(value = "INSERT INTO rating_aggregates (user_id, source, dimension, rating_count, rating_sum, rating_sum_squares, " +
+            "stars_1, stars_2, stars_3, stars_4, stars_5) " +
+            "VALUES (:userId, :source, :dimension, :count, :sum, :sumSquares, :stars1, :stars2, :stars3, :stars4, :stars5) " +
+            "ON CONFLICT (user_id, source, dimension) DO UPDATE SET " +
+            "rating_count = rating_aggregates.rating_count + EXCLUDED.rating_count, " +
+            "rating_sum = rating_aggregates.rating_sum + EXCLUDED.rating_sum, " +
+            "rating_sum_squares = rating_aggregates.rating_sum_squares + EXCLUDED.rating_sum_squares, " +
+            "stars_1 = rating_aggregates.stars_1 + EXCLUDED.stars_1, " +
+            "stars_2 = rating_aggregates.stars_2 + EXCLUDED.stars_2, " +
+            "stars_3 = rating_aggregates.stars_3 + EXCLUDED.stars_3, " +
+            "stars_4 = rating_aggregates.stars_4 + EXCLUDED.stars_4, " +
+            "stars_5 = rating_aggregates.stars_5 + EXCLUDED.stars_5",
+            nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId, @Param("source") String source, @Param("dimension") String dimension,
+                   @Param("count") long count, @Param("sum") long sum, @Param("sumSquares") long sumSquares,
+                   @Param("stars1") long stars1, @Param("stars2") long stars2, @Param("stars3") long stars3,
+                   @Param("stars4") long stars4, @Param("stars5") long stars5);
+
+    // (dimension, count, sum, sumSquares, stars1..stars5); scalar rows so a delta applied earlier in the transaction is always visible
+    @Query("SELECT a.dimension, a.ratingCount, a.ratingSum, a.ratingSumSquares, a.stars1, a.stars2, a.stars3, a.stars4, a.stars5 " +
+           "FROM RatingAggregate a WHERE a.userId = :userId AND a.source = :source")
+    List<Object[]> findTotals(@Param("userId") Long userId, @Param("source") RatingAggregate.Source source);
+
+    // (User, average) for users with ratings of one source and dimension, best average first
+    @Query("SELECT u, CAST(a.ratingSum AS Double) / a.ratingCount FROM RatingAggregate a, User u " +
+           "WHERE u.id = a.userId AND a.source = :source AND a.dimension = :dimension AND a.ratingCount > 0 " +
+           "ORDER BY CAST(a.ratingSum AS Double) / a.ratingCount DESC, u.id")
+    List<Object[]> findTopAverages(@Param("source") RatingAggregate.Source source, @Param("dimension") String dimension,
+                                   Pageable pageable);
+}
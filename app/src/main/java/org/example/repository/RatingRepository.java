@@ -40,4 +40,5 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     // Find recent ratings (last 30 days)
     @Query("SELECT r FROM Rating r WHERE r.ratedUser = :user AND r.createdAt >= CURRENT_DATE - 30")
     List<Rating> findRecentRatingsForUser(@Param("user") User user);
+    
 }
@@ -92,4 +92,5 @@ public interface UserRatingRepository extends JpaRepository<UserRating, Long> {
     // Find ratings for a specific time period
     @Query("SELECT ur FROM UserRating ur WHERE ur.ratedAt BETWEEN :startDate AND :endDate")
     List<UserRating> findRatingsInPeriod(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
 } 
\ No newline at end of file
@@ -1,15 +1,21 @@
 package org.example.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.example.entity.User;
 import org.example.entity.UserRole;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
@@ -59,4 +65,36 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find organizations by verification status
     @Query("SELECT u FROM User u WHERE u.role = 'ORGANIZATION' AND u.organizationVerified = :verified")
     List<User> findOrganizationsByVerificationStatus(@Param("verified") boolean verified);
-} 
\ No newline at end of file
+    
+    // Token version checks (see TokenVersionCache)
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findTokenVersionById(@Param("id") Long id);
+    
+    // Username, role and password hash as stored, read without flushing pending changes
+    @Query("SELECT u.username, u.role, u.password FROM User u WHERE u.id = :id")
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    List<Object[]> findCredentialStateById(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
+
+    // Columns badge rules read, for BadgeService batch evaluation
+    @Query("SELECT u.id, u.role, u.solvedCasesCount, u.averageRating, u.totalRatings, u.activeCasesCount " +
+           "FROM User u WHERE u.id IN :userIds")
+    List<Object[]> findBadgeStatsByIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT u.id, s FROM User u JOIN u.specializationsList s WHERE u.id IN :userIds")
+    List<Object[]> findSpecializationsByIds(@Param("userIds") Collection<Long> userIds);
+
+    // Keyset cursor over one role in id order; each page starts after the previous page's last id
+    @Query("SELECT u.id FROM User u WHERE u.role = :role AND u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsByRoleAfter(@Param("role") UserRole role, @Param("afterId") Long afterId, Pageable pageable);
+
+    // (id, solvedCasesCount, averageRating, totalRatings), used to rebuild SolverLeaderboard
+    @Query("SELECT u.id, u.solvedCasesCount, u.averageRating, u.totalRatings FROM User u WHERE u.role = :role")
+    List<Object[]> findLeaderboardStatsByRole(@Param("role") UserRole role);
+
+    @Query("SELECT u.id, u.username FROM User u WHERE u.id IN :userIds")
+    List<Object[]> findUsernamesByIds(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,225 @@
+package org.example.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import org.example.entity.BadgeEvaluationRun;
+import org.example.entity.UserRole;
+import org.example.repository.BadgeEvaluationRunRepository;
+import org.example.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Re-evaluates every active badge rule for all solvers, so a newly added badge is awarded
+ * retroactively. Solvers are walked in id order with a keyset cursor; each chunk's awards and
+ * the run's checkpoint commit in one transaction, so a crash or restart resumes from the last
+ * committed chunk and never re-scans finished users.
+ *
+ * Every instance fires the cron. Starting or resuming a run is serialized by a transaction-scoped
+ * advisory lock, so instances share one run rather than each starting their own, and each chunk
+ * locks the run row before reading its checkpoint, so concurrent instances take alternate chunks
+ * instead of overlapping ones. Elapsed time and throughput are those of whichever instance
+ * committed last.
+ */
+@Service
+public class BadgeReevaluationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BadgeReevaluationJob.class);
+
+    // pg_advisory_xact_lock key for starting or resuming a run
+    private static final long RUN_LOCK_KEY = 0x6261646765L;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BadgeService badgeService;
+
+    @Autowired
+    private BadgeEvaluationRunRepository runRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.badges.reevaluate-chunk-size:1000}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService executor =
+        Executors.newSingleThreadExecutor(Thread.ofPlatform().name("badge-reevaluation").daemon(true).factory());
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void stop() {
+        // The in-flight chunk rolls back; the next run resumes from the last committed checkpoint
+        executor.shutdownNow();
+    }
+
+    // Hands the run to the job's own thread; running it inline would hold the shared scheduler
+    // thread, and every other @Scheduled task with it, for the whole re-evaluation
+    @Scheduled(cron = "${app.badges.reevaluate-cron:0 30 3 * * *}")
+    public void nightly() {
+        if (!startAsync()) {
+            logger.info("Badge re-evaluation already running; skipped");
+        }
+    }
+
+    // Starts a run in the background; false if one is already in progress on this instance
+    public boolean startAsync() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    execute();
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    public Optional<BadgeEvaluationRun> getLatestRun() {
+        return runRepository.findTopByOrderByIdDesc();
+    }
+
+    public Optional<BadgeEvaluationRun> run() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Badge re-evaluation already running; skipped");
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(execute());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private BadgeEvaluationRun execute() {
+        BadgeEvaluationRun run = transactionTemplate.execute(status -> resumeOrStart());
+        long sessionStart = System.nanoTime();
+        long elapsedBefore = run.getElapsedMillis();
+        LongSupplier elapsed = () -> elapsedBefore + (System.nanoTime() - sessionStart) / 1_000_000;
+        logger.info("Badge re-evaluation run {} {} after user {} (chunk size {})", run.getId(),
+            run.getUsersEvaluated() > 0 ? "resuming" : "starting", run.getLastUserId(), chunkSize);
+
+        Long runId = run.getId();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                BadgeEvaluationRun next = transactionTemplate.execute(status -> evaluateChunk(runId, elapsed));
+                if (next == null) {
+                    break;
+                }
+                run = next;
+                logger.debug("Badge re-evaluation run {}: {} users, {} awards, {} users/s", runId,
+                    run.getUsersEvaluated(), run.getAwardsMade(), format(run.getUsersPerSecond()));
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                // Shutting down: left RUNNING so the next run picks up from the checkpoint
+                logger.info("Badge re-evaluation run {} interrupted after user {}", runId, run.getLastUserId());
+                return run;
+            }
+            run = transactionTemplate.execute(status -> finish(runId, elapsed, null));
+            logger.info("Badge re-evaluation run {} finished: {} users, {} awards in {} ms ({} users/s)", runId,
+                run.getUsersEvaluated(), run.getAwardsMade(), run.getElapsedMillis(), format(run.getUsersPerSecond()));
+        } catch (RuntimeException e) {
+            logger.error("Badge re-evaluation run {} failed; will resume from its checkpoint", runId, e);
+            run = transactionTemplate.execute(status -> finish(runId, elapsed, e));
+        }
+        return run;
+    }
+
+    private BadgeEvaluationRun resumeOrStart() {
+        // Held until commit: a second instance waits, then sees this run and joins it
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + RUN_LOCK_KEY + ")");
+        Optional<BadgeEvaluationRun> latest = runRepository.findTopByOrderByIdDesc();
+        BadgeEvaluationRun run;
+        if (latest.isPresent() && latest.get().getStatus() != BadgeEvaluationRun.Status.COMPLETED) {
+            run = runRepository.findByIdForUpdate(latest.get().getId()).orElseThrow();
+            run.setFailure(null);
+        } else {
+            run = new BadgeEvaluationRun();
+            run.setStartedAt(LocalDateTime.now());
+        }
+        run.setStatus(BadgeEvaluationRun.Status.RUNNING);
+        run.setChunkSize(chunkSize);
+        run.setUpdatedAt(LocalDateTime.now());
+        return runRepository.save(run);
+    }
+
+    // Returns null once there are no solvers past the checkpoint, or another instance ended the run
+    private BadgeEvaluationRun evaluateChunk(Long runId, LongSupplier elapsedMillis) {
+        BadgeEvaluationRun run = runRepository.findByIdForUpdate(runId).orElseThrow();
+        if (run.getStatus() != BadgeEvaluationRun.Status.RUNNING) {
+            return null;
+        }
+        List<Long> userIds = userRepository.findIdsByRoleAfter(UserRole.SOLVER, run.getLastUserId(),
+            PageRequest.of(0, chunkSize));
+        if (userIds.isEmpty()) {
+            return null;
+        }
+        int awards = badgeService.evaluateAchievementBadges(userIds);
+        run.setLastUserId(userIds.get(userIds.size() - 1));
+        run.setUsersEvaluated(run.getUsersEvaluated() + userIds.size());
+        run.setAwardsMade(run.getAwardsMade() + awards);
+        recordThroughput(run, elapsedMillis.getAsLong());
+        return run;
+    }
+
+    private BadgeEvaluationRun finish(Long runId, LongSupplier elapsedMillis, RuntimeException failure) {
+        BadgeEvaluationRun run = runRepository.findByIdForUpdate(runId).orElseThrow();
+        if (run.getStatus() != BadgeEvaluationRun.Status.RUNNING) {
+            // Already finished by another instance
+            return run;
+        }
+        recordThroughput(run, elapsedMillis.getAsLong());
+        if (failure != null) {
+            run.setStatus(BadgeEvaluationRun.Status.FAILED);
+            run.setFailure(String.valueOf(failure.getMessage()));
+        } else {
+            run.setStatus(BadgeEvaluationRun.Status.COMPLETED);
+            run.setFinishedAt(LocalDateTime.now());
+        }
+        return run;
+    }
+
+    private static void recordThroughput(BadgeEvaluationRun run, long elapsedMillis) {
+        run.setElapsedMillis(elapsedMillis);
+        run.setUsersPerSecond(elapsedMillis > 0 ? run.getUsersEvaluated() * 1000.0 / elapsedMillis : null);
+        run.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private static String format(Double usersPerSecond) {
+        return usersPerSecond != null ? String.format("%.0f", usersPerSecond) : "-";
+    }
+}
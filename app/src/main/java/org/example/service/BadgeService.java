@@ -1,25 +1,50 @@
 package org.example.service;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.example.entity.Badge;
 import org.example.entity.BadgeAward;
 import org.example.entity.BadgeTier;
 import org.example.entity.BadgeType;
+import org.example.entity.CaseType;
 import org.example.entity.CrimeCase;
 import org.example.entity.User;
 import org.example.entity.UserRole;
+import org.example.index.BadgeRuleTable;
+import org.example.index.BadgeRuleTable.UserStats;
+import org.example.index.SolverLeaderboard;
 import org.example.repository.BadgeAwardRepository;
 import org.example.repository.BadgeRepository;
+import org.example.repository.CrimeCaseRepository;
+import org.example.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 public class BadgeService {
+
+    private static final String ACHIEVEMENT_REASON = "Achievement";
+
+    // The unique keys (see BadgeAwardSchemaInitializer) make a concurrent award of the same badge a no-op
+    private static final String INSERT_AWARD_SQL =
+        "INSERT INTO badge_awards (badge_id, user_id, reason, awarded_at) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT (user_id, badge_id) DO NOTHING";
+    private static final String INSERT_USER_BADGE_SQL =
+        "INSERT INTO user_badges (user_id, badge) VALUES (?, ?) ON CONFLICT (user_id, badge) DO NOTHING";
     
     @Autowired
     private BadgeRepository badgeRepository;
@@ -29,16 +54,33 @@ public class BadgeService {
     
     @Autowired
     private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CrimeCaseRepository crimeCaseRepository;
+
+    @Autowired
+    private BadgeRuleTable badgeRuleTable;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SolverLeaderboard solverLeaderboard;
     
     // Badge management
     public Badge createBadge(Badge badge) {
         badge.setCreatedAt(LocalDateTime.now());
         badge.setUpdatedAt(LocalDateTime.now());
+        badgeRuleTable.invalidateAfterCommit();
         return badgeRepository.save(badge);
     }
     
     public Badge updateBadge(Badge badge) {
         badge.setUpdatedAt(LocalDateTime.now());
+        badgeRuleTable.invalidateAfterCommit();
         return badgeRepository.save(badge);
     }
     
@@ -56,6 +98,7 @@ public class BadgeService {
     
     public void deleteBadge(Long id) {
         badgeRepository.deleteById(id);
+        badgeRuleTable.invalidateAfterCommit();
     }
     
     // Badge awarding
@@ -78,6 +121,7 @@ public class BadgeService {
         badgeAward.setAwardedAt(LocalDateTime.now());
         
         BadgeAward savedAward = badgeAwardRepository.save(badgeAward);
+        solverLeaderboard.recordBadgesAfterCommit(user.getId(), 1);
         
         // Add badge to user's badge list
         userService.addBadge(user, badge.getName());
@@ -98,6 +142,7 @@ public class BadgeService {
         Optional<BadgeAward> awardOpt = badgeAwardRepository.findByUserAndBadge(user, badge);
         if (awardOpt.isPresent()) {
             badgeAwardRepository.delete(awardOpt.get());
+            solverLeaderboard.recordBadgesAfterCommit(user.getId(), -1);
             userService.removeBadge(user, badge.getName());
         }
     }
@@ -207,85 +252,107 @@ public class BadgeService {
         return badgeAwardRepository.findAwardsInPeriod(startDate, endDate);
     }
     
-    // Auto-award badges based on achievements
-    public void checkAndAwardAchievementBadges(User user) {
-        // Check for case solving achievements
-        checkCaseSolvingBadges(user);
-        
-        // Check for rating achievements
-        checkRatingBadges(user);
-        
-        // Check for participation achievements
-        checkParticipationBadges(user);
-    }
-    
-    private void checkCaseSolvingBadges(User user) {
-        int solvedCases = user.getSolvedCasesCount();
-        
-        // First case solved
-        if (solvedCases == 1) {
-            awardBadgeByNameIfNotHas(user, "First Case Solver", null);
-        }
-        
-        // Milestone badges
-        if (solvedCases >= 5) {
-            awardBadgeByNameIfNotHas(user, "Case Solver", null);
+    // Auto-award badges based on achievements: one pass over the rule table, one batch insert
+    public List<String> checkAndAwardAchievementBadges(User user) {
+        BadgeRuleTable.Rules rules = badgeRuleTable.get();
+        if (rules.isEmpty() || user.getId() == null) {
+            return List.of();
         }
-        if (solvedCases >= 10) {
-            awardBadgeByNameIfNotHas(user, "Experienced Solver", null);
-        }
-        if (solvedCases >= 25) {
-            awardBadgeByNameIfNotHas(user, "Veteran Solver", null);
+        List<Long> userIds = List.of(user.getId());
+        UserStats stats = new UserStats(user.getRole(), user.getSolvedCasesCount(), user.getAverageRating(),
+            user.getTotalRatings(), user.getActiveCasesCount(),
+            rules.needsCaseTypes() ? loadSolvedByCaseType(userIds).get(user.getId()) : null,
+            rules.needsSpecializations() ? user.getSpecializationsList() : null);
+
+        BitSet awarded = rules.eligible(stats);
+        awarded.andNot(loadHeld(rules, userIds).getOrDefault(user.getId(), new BitSet()));
+        insertAwards(rules, Map.of(user.getId(), awarded));
+        return awarded.stream().mapToObj(i -> rules.rule(i).getBadgeName()).toList();
+    }
+
+    /**
+     * Evaluates every rule for a batch of users: a fixed handful of set-based reads regardless of
+     * batch size, then all new awards in one JDBC batch. Returns the number of awards made.
+     */
+    public int evaluateAchievementBadges(Collection<Long> userIds) {
+        BadgeRuleTable.Rules rules = badgeRuleTable.get();
+        if (rules.isEmpty() || userIds.isEmpty()) {
+            return 0;
         }
-        if (solvedCases >= 50) {
-            awardBadgeByNameIfNotHas(user, "Master Solver", null);
+        Map<Long, BitSet> held = loadHeld(rules, userIds);
+        Map<Long, Map<String, Integer>> solvedByCaseType = rules.needsCaseTypes() ? loadSolvedByCaseType(userIds) : Map.of();
+        Map<Long, Set<String>> specializations = rules.needsSpecializations() ? loadSpecializations(userIds) : Map.of();
+
+        Map<Long, BitSet> awards = new LinkedHashMap<>();
+        for (Object[] row : userRepository.findBadgeStatsByIds(userIds)) {
+            Long userId = (Long) row[0];
+            UserStats stats = new UserStats((UserRole) row[1], (Integer) row[2], (Double) row[3],
+                (Integer) row[4], (Integer) row[5], solvedByCaseType.get(userId), specializations.get(userId));
+            BitSet eligible = rules.eligible(stats);
+            BitSet alreadyHeld = held.get(userId);
+            if (alreadyHeld != null) {
+                eligible.andNot(alreadyHeld);
+            }
+            if (!eligible.isEmpty()) {
+                awards.put(userId, eligible);
+            }
         }
-        if (solvedCases >= 100) {
-            awardBadgeByNameIfNotHas(user, "Legendary Solver", null);
+        return insertAwards(rules, awards);
+    }
+
+    private Map<Long, BitSet> loadHeld(BadgeRuleTable.Rules rules, Collection<Long> userIds) {
+        Map<Long, BitSet> held = new HashMap<>();
+        for (Object[] row : badgeAwardRepository.findHeldBadgeIds(userIds)) {
+            rules.markHeld(held.computeIfAbsent((Long) row[0], id -> new BitSet()), (Long) row[1]);
         }
+        return held;
     }
-    
-    private void checkRatingBadges(User user) {
-        Double averageRating = user.getAverageRating();
-        Integer totalRatings = user.getTotalRatings();
-        
-        if (averageRating != null && totalRatings != null) {
-            // High rating badges
-            if (averageRating >= 4.5 && totalRatings >= 5) {
-                awardBadgeByNameIfNotHas(user, "Highly Rated", null);
-            }
-            if (averageRating >= 4.8 && totalRatings >= 10) {
-                awardBadgeByNameIfNotHas(user, "Excellence", null);
-            }
-            
-            // Perfect rating badge
-            if (averageRating == 5.0 && totalRatings >= 5) {
-                awardBadgeByNameIfNotHas(user, "Perfect Score", null);
+
+    private Map<Long, Map<String, Integer>> loadSolvedByCaseType(Collection<Long> userIds) {
+        Map<Long, Map<String, Integer>> counts = new HashMap<>();
+        for (Object[] row : crimeCaseRepository.countSolvedByCaseType(userIds)) {
+            if (row[1] != null) {
+                counts.computeIfAbsent((Long) row[0], id -> new HashMap<>())
+                    .put(((CaseType) row[1]).name(), ((Long) row[2]).intValue());
             }
         }
+        return counts;
     }
-    
-    private void checkParticipationBadges(User user) {
-        int activeCases = user.getActiveCasesCount();
-        
-        // Active participation badges
-        if (activeCases >= 3) {
-            awardBadgeByNameIfNotHas(user, "Active Participant", null);
-        }
-        if (activeCases >= 5) {
-            awardBadgeByNameIfNotHas(user, "Dedicated Solver", null);
+
+    private Map<Long, Set<String>> loadSpecializations(Collection<Long> userIds) {
+        Map<Long, Set<String>> specializations = new HashMap<>();
+        for (Object[] row : userRepository.findSpecializationsByIds(userIds)) {
+            specializations.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
         }
+        return specializations;
     }
-    
-    private void awardBadgeByNameIfNotHas(User user, String badgeName, CrimeCase crimeCase) {
-        if (!hasBadgeByName(user, badgeName)) {
-            try {
-                awardBadgeByName(user, badgeName, crimeCase);
-            } catch (Exception e) {
-                // Log error but don't fail the process
-                System.err.println("Failed to award badge " + badgeName + " to user " + user.getUsername() + ": " + e.getMessage());
+
+    // Award rows and the denormalized user_badges names, each as one JDBC batch (IDENTITY ids rule out Hibernate batching)
+    private int insertAwards(BadgeRuleTable.Rules rules, Map<Long, BitSet> awards) {
+        List<Object[]> awardRows = new ArrayList<>();
+        List<Object[]> nameRows = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        awards.forEach((userId, badges) -> badges.stream().forEach(i -> {
+            BadgeRuleTable.Rule rule = rules.rule(i);
+            awardRows.add(new Object[] {rule.getBadgeId(), userId, ACHIEVEMENT_REASON, now});
+            nameRows.add(new Object[] {userId, rule.getBadgeName()});
+        }));
+        if (awardRows.isEmpty()) {
+            return 0;
+        }
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_AWARD_SQL, awardRows);
+        jdbcTemplate.batchUpdate(INSERT_USER_BADGE_SQL, nameRows);
+        // Rows skipped on conflict report 0 and are neither counted nor put on the leaderboard
+        Map<Long, Integer> awardedPerUser = new HashMap<>();
+        int awarded = 0;
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] != 0) {
+                awardedPerUser.merge((Long) awardRows.get(i)[1], 1, Integer::sum);
+                awarded++;
             }
         }
+        awardedPerUser.forEach(solverLeaderboard::recordBadgesAfterCommit);
+        return awarded;
     }
     
     // Validation methods
@@ -393,6 +460,7 @@ public class BadgeService {
         }
         
         badgeAwardRepository.delete(badgeAward);
+        solverLeaderboard.recordBadgesAfterCommit(badgeAward.getUser().getId(), -1);
         
         // Update user's badge count after revocation
         updateUserBadgesList(badgeAward.getUser());
@@ -446,6 +514,7 @@ public class BadgeService {
         }
         
         BadgeAward savedAward = badgeAwardRepository.save(award);
+        solverLeaderboard.recordBadgesAfterCommit(user.getId(), 1);
         
         // Update user badges
         updateUserBadgesList(user);
@@ -0,0 +1,131 @@
+package org.example.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.example.dto.CaseActivityBatchDTO;
+import org.example.dto.CaseActivityEventDTO;
+import org.example.dto.CaseActivityEventDTO.Type;
+import org.example.index.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Publishes case-scoped activity to {@code /topic/case.{id}} on the existing STOMP broker.
+ * Events are queued after commit and flushed on a short timer, one message per case, so a
+ * burst of writes reaches subscribers as a single batch. Repeated events for the same entity
+ * within a window are coalesced to the latest one. Subscriptions to the topic are authorized
+ * against the case's privacy by CaseTopicAuthorizer.
+ */
+@Service
+public class CaseActivityPublisher {
+
+    public static final String DESTINATION_PREFIX = "/topic/case.";
+
+    private static final Logger logger = LoggerFactory.getLogger(CaseActivityPublisher.class);
+    private static final int MAX_EVENTS_PER_BATCH = 100;
+    private static final int MAX_PENDING_PER_CASE = 1000;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final Map<Long, PendingEvents> pending = new ConcurrentHashMap<>();
+
+    public void publishAfterCommit(Type type, Long caseId, Long entityId, Map<String, Object> data) {
+        if (caseId == null) {
+            return;
+        }
+        CaseActivityEventDTO event = new CaseActivityEventDTO(type, caseId, entityId, data, LocalDateTime.now().toString());
+        AfterCommit.run(() -> enqueue(event));
+    }
+
+    // Builds an event payload from alternating keys and values; unlike Map.of it tolerates nulls
+    public static Map<String, Object> fields(Object... keysAndValues) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keysAndValues.length; i += 2) {
+            data.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return data;
+    }
+
+    @Scheduled(fixedDelayString = "${app.activity.flush-interval-ms:250}")
+    public void flush() {
+        for (Map.Entry<Long, PendingEvents> entry : pending.entrySet()) {
+            Long caseId = entry.getKey();
+            PendingEvents events = entry.getValue();
+            CaseActivityBatchDTO batch = events.drain(caseId, MAX_EVENTS_PER_BATCH);
+            if (batch == null) {
+                // drain() closed the idle buffer; the next event for this case starts a new one
+                pending.remove(caseId, events);
+                continue;
+            }
+            try {
+                messagingTemplate.convertAndSend(DESTINATION_PREFIX + caseId, batch);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to publish activity for case {}: {}", caseId, e.getMessage());
+            }
+        }
+    }
+
+    private void enqueue(CaseActivityEventDTO event) {
+        while (!pending.computeIfAbsent(event.getCaseId(), id -> new PendingEvents()).add(event)) {
+            // lost a race with flush() retiring the buffer; retry against a fresh one
+        }
+    }
+
+    private static String coalesceKey(CaseActivityEventDTO event) {
+        return event.getType() + ":" + event.getEntityId();
+    }
+
+    private static final class PendingEvents {
+        private final LinkedHashMap<String, CaseActivityEventDTO> events = new LinkedHashMap<>();
+        private int coalesced;
+        private boolean dropped;
+        private boolean closed;
+
+        synchronized boolean add(CaseActivityEventDTO event) {
+            if (closed) {
+                return false;
+            }
+            String key = coalesceKey(event);
+            // Re-inserting moves the entity to the position of its latest change
+            if (events.remove(key) != null) {
+                coalesced++;
+            } else if (events.size() >= MAX_PENDING_PER_CASE) {
+                Iterator<String> oldest = events.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+                dropped = true;
+            }
+            events.put(key, event);
+            return true;
+        }
+
+        // Returns null (and closes the buffer) when there is nothing left to send
+        synchronized CaseActivityBatchDTO drain(Long caseId, int limit) {
+            if (events.isEmpty()) {
+                closed = true;
+                return null;
+            }
+            List<CaseActivityEventDTO> batch = new ArrayList<>(Math.min(limit, events.size()));
+            Iterator<CaseActivityEventDTO> it = events.values().iterator();
+            while (it.hasNext() && batch.size() < limit) {
+                batch.add(it.next());
+                it.remove();
+            }
+            CaseActivityBatchDTO result = new CaseActivityBatchDTO(caseId, batch, coalesced, dropped);
+            coalesced = 0;
+            dropped = false;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.example.dto.CaseActivityEventDTO;
+import org.example.dto.CommentDTO;
+import org.example.dto.CommentPageDTO;
+import org.example.entity.CaseComment;
+import org.example.entity.User;
+import org.example.index.CaseParticipationIndex;
+import org.example.repository.CaseCommentRepository;
+import org.example.repository.CaseCommentRepository.CommentView;
+import org.example.repository.CrimeCaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class CaseCommentService {
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    @Autowired
+    private CaseCommentRepository caseCommentRepository;
+    
+    @Autowired
+    private CrimeCaseRepository crimeCaseRepository;
+    
+    @Autowired
+    private CaseActivityPublisher caseActivityPublisher;
+    
+    @Autowired
+    private CaseParticipationIndex caseParticipationIndex;
+    
+    // Inserts only the comment row; the case is referenced by id and never loaded or merged
+    public CommentDTO addComment(Long caseId, User author, String content) {
+        if (!crimeCaseRepository.existsById(caseId)) {
+            throw new IllegalArgumentException("Case not found");
+        }
+        CaseComment comment = new CaseComment();
+        comment.setContent(content);
+        comment.setCrimeCase(crimeCaseRepository.getReferenceById(caseId));
+        comment.setUser(author);
+        // createdAt is set by @PrePersist
+        CaseComment saved = caseCommentRepository.save(comment);
+        caseParticipationIndex.addAfterCommit(caseId, author.getId());
+        
+        CommentDTO dto = new CommentDTO();
+        dto.setId(saved.getId());
+        dto.setUserId(author.getId());
+        dto.setAuthor(author.getUsername());
+        dto.setContent(saved.getContent());
+        dto.setCreatedAt(saved.getCreatedAt() != null ? saved.getCreatedAt().toString() : null);
+        
+        caseActivityPublisher.publishAfterCommit(CaseActivityEventDTO.Type.COMMENT_ADDED, caseId, saved.getId(),
+            CaseActivityPublisher.fields(
+                "userId", dto.getUserId(),
+                "author", dto.getAuthor(),
+                "content", dto.getContent(),
+                "createdAt", dto.getCreatedAt()));
+        return dto;
+    }
+    
+    // Empty when the case does not exist; the existence check only runs when there are no comments
+    @Transactional(readOnly = true)
+    public Optional<List<CommentDTO>> getComments(Long caseId) {
+        List<CommentView> rows = caseCommentRepository.findViewsByCaseId(caseId);
+        if (rows.isEmpty() && !crimeCaseRepository.existsById(caseId)) {
+            return Optional.empty();
+        }
+        return Optional.of(rows.stream()
+            .map(this::toDTO)
+            .collect(Collectors.toList()));
+    }
+    
+    // Keyset page of comments oldest-first; the cursor is the id of the last comment already seen.
+    // Empty when the case does not exist.
+    @Transactional(readOnly = true)
+    public Optional<CommentPageDTO> getCommentPage(Long caseId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long afterId = parseCursor(cursor);
+        
+        List<CommentView> rows = caseCommentRepository.findViewsByCaseIdAfter(caseId, afterId, PageRequest.of(0, pageSize + 1));
+        if (rows.isEmpty() && !crimeCaseRepository.existsById(caseId)) {
+            return Optional.empty();
+        }
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        
+        long lastId = rows.isEmpty() ? afterId : rows.get(rows.size() - 1).getId();
+        List<CommentDTO> items = rows.stream().map(this::toDTO).collect(Collectors.toList());
+        return Optional.of(new CommentPageDTO(items, String.valueOf(lastId), hasMore));
+    }
+    
+    private long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(cursor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid comment cursor");
+        }
+    }
+    
+    private CommentDTO toDTO(CommentView view) {
+        CommentDTO dto = new CommentDTO();
+        dto.setId(view.getId());
+        dto.setUserId(view.getUserId());
+        dto.setAuthor(view.getAuthor() != null ? view.getAuthor() : "Unknown");
+        dto.setContent(view.getContent());
+        dto.setCreatedAt(view.getCreatedAt() != null ? view.getCreatedAt().toString() : null);
+        return dto;
+    }
+}
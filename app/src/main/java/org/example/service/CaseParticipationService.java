@@ -1,5 +1,6 @@
 package org.example.service;
 
+import org.example.dto.CaseActivityEventDTO;
 import org.example.entity.*;
 import org.example.repository.CaseParticipationRepository;
 import org.example.repository.CrimeCaseRepository;
@@ -24,6 +25,9 @@ public class CaseParticipationService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private CaseActivityPublisher caseActivityPublisher;
+    
     // Join case operations
     public CaseParticipation joinCase(User user, CrimeCase crimeCase, ParticipationRole role) {
         // Validate user can join the case
@@ -44,7 +48,7 @@ public class CaseParticipationService {
                 participation.setStatus(ParticipationStatus.ACTIVE);
                 participation.setRole(role);
                 participation.setLastActivityAt(LocalDateTime.now());
-                return caseParticipationRepository.save(participation);
+                return publish(caseParticipationRepository.save(participation));
             }
         }
         
@@ -62,7 +66,7 @@ public class CaseParticipationService {
         // Update user's active cases count
         updateUserActiveCasesCount(user);
         
-        return savedParticipation;
+        return publish(savedParticipation);
     }
     
     public CaseParticipation joinCaseAsFollower(User user, CrimeCase crimeCase) {
@@ -82,7 +86,7 @@ public class CaseParticipationService {
             CaseParticipation participation = participationOpt.get();
             participation.setStatus(ParticipationStatus.INACTIVE);
             participation.setLastActivityAt(LocalDateTime.now());
-            caseParticipationRepository.save(participation);
+            publish(caseParticipationRepository.save(participation));
             
             // Update user's active cases count
             updateUserActiveCasesCount(user);
@@ -99,7 +103,7 @@ public class CaseParticipationService {
             CaseParticipation participation = participationOpt.get();
             participation.setStatus(ParticipationStatus.SUSPENDED);
             participation.setLastActivityAt(LocalDateTime.now());
-            caseParticipationRepository.save(participation);
+            publish(caseParticipationRepository.save(participation));
             
             // Update user's active cases count
             updateUserActiveCasesCount(user);
@@ -116,7 +120,7 @@ public class CaseParticipationService {
             CaseParticipation participation = participationOpt.get();
             participation.setStatus(ParticipationStatus.COMPLETED);
             participation.setLastActivityAt(LocalDateTime.now());
-            caseParticipationRepository.save(participation);
+            publish(caseParticipationRepository.save(participation));
             
             // Update user's active cases count
             updateUserActiveCasesCount(user);
@@ -140,7 +144,7 @@ public class CaseParticipationService {
             
             participation.setRole(newRole);
             participation.setLastActivityAt(LocalDateTime.now());
-            return caseParticipationRepository.save(participation);
+            return publish(caseParticipationRepository.save(participation));
         } else {
             throw new IllegalArgumentException("User is not participating in this case");
         }
@@ -158,6 +162,16 @@ public class CaseParticipationService {
         return changeRole(user, crimeCase, ParticipationRole.FOLLOWER);
     }
     
+    private CaseParticipation publish(CaseParticipation participation) {
+        caseActivityPublisher.publishAfterCommit(CaseActivityEventDTO.Type.PARTICIPATION_CHANGED,
+            participation.getCrimeCase().getId(), participation.getUser().getId(),
+            CaseActivityPublisher.fields(
+                "username", participation.getUser().getUsername(),
+                "role", participation.getRole(),
+                "status", participation.getStatus()));
+        return participation;
+    }
+    
     // Find operations
     public List<CaseParticipation> findByUser(User user) {
         return caseParticipationRepository.findByUser(user);
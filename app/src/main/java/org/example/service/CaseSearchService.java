@@ -0,0 +1,87 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.example.dto.CaseSearchHitDTO;
+import org.example.dto.CaseSearchPageDTO;
+import org.example.dto.CaseSummaryDTO;
+import org.example.repository.CrimeCaseRepository;
+import org.example.repository.CrimeCaseRepository.CaseSearchHitView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Ranked full-text search over crime cases.
+ *
+ * Queries use PostgreSQL's web-search syntax: plain words are AND-ed, "quoted text" is a phrase,
+ * OR between terms is a disjunction and a leading - excludes a term. Matching runs against the
+ * GIN-indexed search_vector, so cost scales with the number of hits rather than the catalog size.
+ * Deep paging is capped by MAX_RESULT_WINDOW to keep ranking work bounded.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CaseSearchService {
+    
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_RESULT_WINDOW = 1000;
+    private static final int MAX_QUERY_LENGTH = 256;
+    
+    @Autowired
+    private CrimeCaseRepository crimeCaseRepository;
+    
+    @Autowired
+    private CrimeCaseService crimeCaseService;
+    
+    public CaseSearchPageDTO search(String rawQuery, int page, int size) {
+        String query = normalizeQuery(rawQuery);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        int offset = pageNumber * pageSize;
+        
+        if (query.isEmpty()) {
+            return new CaseSearchPageDTO(query, new ArrayList<>(), pageNumber, pageSize, false);
+        }
+        if (offset + pageSize > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Search results are limited to the first " + MAX_RESULT_WINDOW + " hits; refine the query");
+        }
+        
+        // One extra row tells us whether a further page exists without a COUNT query
+        List<CaseSearchHitView> hits = crimeCaseRepository.fullTextSearch(query, pageSize + 1, offset);
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) {
+            hits = hits.subList(0, pageSize);
+        }
+        
+        List<Long> caseIds = hits.stream().map(CaseSearchHitView::getId).collect(Collectors.toList());
+        Map<Long, CaseSummaryDTO> summaries = crimeCaseService.getCaseSummaries(caseIds).stream()
+            .collect(Collectors.toMap(CaseSummaryDTO::getId, Function.identity()));
+        
+        List<CaseSearchHitDTO> results = new ArrayList<>();
+        for (CaseSearchHitView hit : hits) {
+            CaseSummaryDTO summary = summaries.get(hit.getId());
+            if (summary != null) {
+                results.add(new CaseSearchHitDTO(
+                    summary,
+                    hit.getRank() != null ? hit.getRank() : 0.0,
+                    hit.getTitleHighlight(),
+                    hit.getSnippet()));
+            }
+        }
+        return new CaseSearchPageDTO(query, results, pageNumber, pageSize, hasMore);
+    }
+    
+    // Collapse whitespace and bound the length; operator parsing is left to websearch_to_tsquery,
+    // which never raises a syntax error on user input
+    private String normalizeQuery(String rawQuery) {
+        if (rawQuery == null) {
+            return "";
+        }
+        String query = rawQuery.trim().replaceAll("\\s+", " ");
+        return query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+    }
+}
@@ -0,0 +1,306 @@
+package org.example.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.example.entity.DirectMessage;
+import org.example.entity.HiringChatMessage;
+import org.example.index.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Optional write-behind for chat messages (app.chat.write-behind.enabled). Callers take an id from
+ * a block reserved on the table's own sequence and a timestamp up front, so the message can be
+ * returned and broadcast at once; the row is queued after commit and a single flusher thread
+ * inserts queued rows in JDBC batches, one transaction per batch, once max-batch rows are waiting
+ * or the oldest has waited max-latency-ms.
+ *
+ * The queue is bounded: when it is full, or during shutdown, a message is written synchronously
+ * instead. Shutdown stops intake and drains the queue before the datasource closes. Queued
+ * messages are not yet visible to history queries, for at most about max-latency-ms. Unread
+ * counts are not part of the batch: the caller adds them in its own transaction, so a markRead
+ * can never be undone by a batch landing after it.
+ *
+ * Single instance only. Each instance reserves its own id blocks, so with several instances ids
+ * no longer follow send order across them, and history and the forward-only conversation pointer,
+ * both ordered by id, can put an earlier message after a later one.
+ */
+@Service
+public class ChatWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatWriteBehind.class);
+
+    private static final int ID_BLOCK_SIZE = 64;
+    private static final long POLL_MS = 100;
+
+    private static final String INSERT_DIRECT_MESSAGE =
+        "INSERT INTO direct_messages (id, sender_id, receiver_id, conversation_id, content, sent_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Same forward-only pointer move as ConversationRepository.recordMessage, applied once per conversation per batch;
+    // unread counts were already added at send
+    private static final String RECORD_CONVERSATION_MESSAGES =
+        "UPDATE conversations SET " +
+        "last_message_at = CASE WHEN last_message_id IS NULL OR last_message_id < ? THEN ? ELSE last_message_at END, " +
+        "last_message_id = CASE WHEN last_message_id IS NULL OR last_message_id < ? THEN ? ELSE last_message_id END " +
+        "WHERE id = ?";
+
+    private static final String INSERT_HIRING_CHAT_MESSAGE =
+        "INSERT INTO hiring_chat_message (id, application_id, sender_id, message, timestamp) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.chat.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.chat.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.chat.write-behind.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${app.chat.write-behind.max-latency-ms:50}")
+    private long maxLatencyMs;
+
+    @Value("${app.chat.write-behind.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    private TransactionTemplate transactionTemplate;
+    private BlockingQueue<Object> queue;
+    private Thread flusher;
+    private volatile boolean accepting;
+
+    private final IdBlock directMessageIds = new IdBlock("direct_messages");
+    private final IdBlock hiringChatMessageIds = new IdBlock("hiring_chat_message");
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Also used from after-commit callbacks, where the caller's transaction is finished
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        accepting = true;
+        flusher = Thread.ofPlatform().name("chat-write-behind").daemon(true).start(this::runFlusher);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        // Later submits are written synchronously; the flusher exits once the queue is empty
+        accepting = false;
+        flusher.join(shutdownTimeoutMs);
+        if (flusher.isAlive()) {
+            logger.warn("Chat write-behind still flushing after {} ms; {} messages queued", shutdownTimeoutMs, queue.size());
+            return;
+        }
+        // A submit that saw intake open just before it closed
+        List<Object> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            write(rest);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long nextDirectMessageId() {
+        return directMessageIds.next();
+    }
+
+    public long nextHiringChatMessageId() {
+        return hiringChatMessageIds.next();
+    }
+
+    // The conversation row must exist and already count the message as unread; the message carries
+    // its pre-assigned id and sentAt
+    public void submitAfterCommit(DirectMessage message, Long conversationId) {
+        DirectRow row = new DirectRow(message.getId(), message.getSender().getId(), message.getReceiver().getId(),
+            conversationId, message.getContent(), message.getSentAt());
+        AfterCommit.run(() -> submit(row));
+    }
+
+    public void submitAfterCommit(HiringChatMessage message) {
+        HiringRow row = new HiringRow(message.getId(),
+            message.getApplication() != null ? message.getApplication().getId() : null,
+            message.getSender() != null ? message.getSender().getId() : null,
+            message.getMessage(), message.getTimestamp());
+        AfterCommit.run(() -> submit(row));
+    }
+
+    private void submit(Object row) {
+        if (accepting && queue.offer(row)) {
+            return;
+        }
+        write(List.of(row));
+    }
+
+    private void runFlusher() {
+        List<Object> batch = new ArrayList<>(maxBatch);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxLatencyMs);
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || wait <= 0 || !accepting) {
+                        break;
+                    }
+                    Object next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Not used to stop the flusher; stop() closes intake and the loop drains the queue
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Object> rows) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(rows));
+        } catch (RuntimeException e) {
+            if (rows.size() == 1) {
+                logger.error("Dropping chat message that could not be written: {}", e.getMessage());
+                return;
+            }
+            // Isolate the failing rows so the rest of the batch still lands
+            logger.warn("Chat batch of {} failed, retrying row by row: {}", rows.size(), e.getMessage());
+            rows.forEach(row -> write(List.of(row)));
+        }
+    }
+
+    private void insert(List<Object> rows) {
+        List<Object[]> directArgs = new ArrayList<>();
+        List<Object[]> hiringArgs = new ArrayList<>();
+        Map<Long, ConversationDelta> deltas = new LinkedHashMap<>();
+        for (Object row : rows) {
+            if (row instanceof DirectRow dm) {
+                directArgs.add(new Object[] { dm.id, dm.senderId, dm.receiverId, dm.conversationId, dm.content, Timestamp.valueOf(dm.sentAt) });
+                deltas.computeIfAbsent(dm.conversationId, id -> new ConversationDelta()).add(dm);
+            } else if (row instanceof HiringRow hm) {
+                hiringArgs.add(new Object[] { hm.id, hm.applicationId, hm.senderId, hm.message,
+                    hm.timestamp != null ? Timestamp.valueOf(hm.timestamp) : null });
+            }
+        }
+        if (!directArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_DIRECT_MESSAGE, directArgs);
+            List<Object[]> updates = new ArrayList<>(deltas.size());
+            deltas.forEach((conversationId, d) -> updates.add(new Object[] {
+                d.lastMessageId, Timestamp.valueOf(d.lastSentAt), d.lastMessageId, d.lastMessageId, conversationId }));
+            jdbcTemplate.batchUpdate(RECORD_CONVERSATION_MESSAGES, updates);
+        }
+        if (!hiringArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_HIRING_CHAT_MESSAGE, hiringArgs);
+        }
+    }
+
+    // Ids drawn from the table's own sequence, so they never collide with rows inserted through JPA
+    private final class IdBlock {
+        private final String table;
+        private final Deque<Long> ids = new ArrayDeque<>();
+        private String sequence;
+
+        private IdBlock(String table) {
+            this.table = table;
+        }
+
+        private synchronized long next() {
+            if (ids.isEmpty()) {
+                if (sequence == null) {
+                    sequence = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence(?, 'id')", String.class, table);
+                }
+                ids.addAll(jdbcTemplate.queryForList("SELECT nextval(?::regclass) FROM generate_series(1, ?)",
+                    Long.class, sequence, ID_BLOCK_SIZE));
+            }
+            return ids.removeFirst();
+        }
+    }
+
+    private static final class ConversationDelta {
+        private long lastMessageId;
+        private LocalDateTime lastSentAt;
+
+        private void add(DirectRow row) {
+            if (lastSentAt == null || row.id > lastMessageId) {
+                lastMessageId = row.id;
+                lastSentAt = row.sentAt;
+            }
+        }
+    }
+
+    private static final class DirectRow {
+        private final long id;
+        private final Long senderId;
+        private final Long receiverId;
+        private final Long conversationId;
+        private final String content;
+        private final LocalDateTime sentAt;
+
+        private DirectRow(long id, Long senderId, Long receiverId, Long conversationId, String content,
+                          LocalDateTime sentAt) {
+            this.id = id;
+            this.senderId = senderId;
+            this.receiverId = receiverId;
+            this.conversationId = conversationId;
+            this.content = content;
+            this.sentAt = sentAt;
+        }
+    }
+
+    private static final class HiringRow {
+        private final long id;
+        private final Long applicationId;
+        private final Long senderId;
+        private final String message;
+        private final LocalDateTime timestamp;
+
+        private HiringRow(long id, Long applicationId, Long senderId, String message, LocalDateTime timestamp) {
+            this.id = id;
+            this.applicationId = applicationId;
+            this.senderId = senderId;
+            this.message = message;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -1,10 +1,23 @@
 package org.example.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import org.example.dto.CaseActivityEventDTO;
+import org.example.dto.CaseFeedPageDTO;
+import org.example.dto.CaseStatisticsDTO;
+import org.example.dto.CaseSummaryDTO;
+import org.example.dto.FileUploadDTO;
 import org.example.entity.CaseDifficulty;
+import org.example.entity.CaseFile;
 import org.example.entity.CaseParticipation;
 import org.example.entity.CasePrivacy;
 import org.example.entity.CaseStatus;
@@ -14,10 +27,23 @@ import org.example.entity.ParticipationRole;
 import org.example.entity.ParticipationStatus;
 import org.example.entity.User;
 import org.example.entity.UserRole;
+import org.example.index.CaseParticipationIndex;
+import org.example.index.CaseRecommendationIndex;
+import org.example.index.CaseStatisticsCounters;
+import org.example.index.CaseStatisticsCounters.CaseKey;
+import org.example.index.CaseTagIndex;
+import org.example.index.EvidenceTagIndex;
+import org.example.index.TagIndex.TagCount;
+import org.example.index.TrendingLeadIndex;
+import org.example.repository.CaseFileRepository;
 import org.example.repository.CaseParticipationRepository;
 import org.example.repository.CrimeCaseRepository;
+import org.example.repository.EvidenceRepository;
+import org.example.repository.CrimeCaseRepository.CaseSummaryView;
+import org.example.service.FileStorageService.StoredFile;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +52,8 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class CrimeCaseService {
     
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+    
     @Autowired
     private CrimeCaseRepository crimeCaseRepository;
     
@@ -34,6 +62,36 @@ public class CrimeCaseService {
     
     @Autowired
     private UserService userService;
+
+    @Autowired
+    private BadgeService badgeService;
+    
+    @Autowired
+    private CaseTagIndex caseTagIndex;
+    
+    @Autowired
+    private EvidenceTagIndex evidenceTagIndex;
+    
+    @Autowired
+    private EvidenceRepository evidenceRepository;
+    
+    @Autowired
+    private CaseRecommendationIndex caseRecommendationIndex;
+    
+    @Autowired
+    private CaseStatisticsCounters caseStatisticsCounters;
+    
+    @Autowired
+    private CaseParticipationIndex caseParticipationIndex;
+    
+    @Autowired
+    private TrendingLeadIndex trendingLeadIndex;
+    
+    @Autowired
+    private CaseActivityPublisher caseActivityPublisher;
+    
+    @Autowired
+    private CaseFileRepository caseFileRepository;
     
     // Basic CRUD operations
     public CrimeCase createCase(CrimeCase crimeCase, User postedBy) {
@@ -63,12 +121,13 @@ public class CrimeCaseService {
         participation.setStatus(ParticipationStatus.ACTIVE);
         caseParticipationRepository.save(participation);
         
-        return savedCase;
+        return indexCase(null, savedCase);
     }
     
     public CrimeCase updateCase(CrimeCase crimeCase) {
+        CaseKey before = crimeCase.getId() != null ? findStatisticsKey(crimeCase.getId()) : null;
         crimeCase.setUpdatedAt(LocalDateTime.now());
-        return crimeCaseRepository.save(crimeCase);
+        return indexCase(before, crimeCaseRepository.save(crimeCase));
     }
     
     public Optional<CrimeCase> findById(Long id) {
@@ -83,8 +142,117 @@ public class CrimeCaseService {
         return crimeCaseRepository.findAll(pageable);
     }
     
+    // Case feed (summary projection + one batched tag query per page)
+    @Transactional(readOnly = true)
+    public CaseFeedPageDTO getCaseFeed(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists without a COUNT query
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        
+        List<CaseSummaryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = crimeCaseRepository.findFeedFirstPage(limit);
+        } else {
+            FeedCursor position = FeedCursor.decode(cursor);
+            rows = crimeCaseRepository.findFeedPageAfter(position.postedAt, position.id, limit);
+        }
+        
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        
+        String nextCursor = null;
+        if (hasMore) {
+            CaseSummaryView last = rows.get(rows.size() - 1);
+            nextCursor = new FeedCursor(last.getPostedAt(), last.getId()).encode();
+        }
+        return new CaseFeedPageDTO(toCaseSummaries(rows), nextCursor, hasMore);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<CaseSummaryDTO> getAllCaseSummaries() {
+        return toCaseSummaries(crimeCaseRepository.findAllSummaries());
+    }
+    
+    // Summaries for the given ids, returned in the same order as the ids
+    @Transactional(readOnly = true)
+    public List<CaseSummaryDTO> getCaseSummaries(List<Long> caseIds) {
+        if (caseIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, CaseSummaryDTO> byId = toCaseSummaries(crimeCaseRepository.findSummariesByIdIn(caseIds)).stream()
+            .collect(Collectors.toMap(CaseSummaryDTO::getId, c -> c));
+        return caseIds.stream()
+            .map(byId::get)
+            .filter(c -> c != null)
+            .collect(Collectors.toList());
+    }
+    
+    private List<CaseSummaryDTO> toCaseSummaries(List<CaseSummaryView> rows) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> caseIds = rows.stream().map(CaseSummaryView::getId).collect(Collectors.toList());
+        Map<Long, List<String>> tagsByCase = new HashMap<>();
+        for (Object[] row : crimeCaseRepository.findTagsByCaseIds(caseIds)) {
+            tagsByCase.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
+        return rows.stream()
+            .map(c -> new CaseSummaryDTO(
+                c.getId(),
+                c.getTitle(),
+                c.getDescription(),
+                c.getStatus() != null ? c.getStatus().toString() : null,
+                c.getPostedAt() != null ? c.getPostedAt().toString() : null,
+                c.getImageUrl(),
+                c.getMediaUrl(),
+                tagsByCase.getOrDefault(c.getId(), new ArrayList<>()),
+                c.getCaseType() != null ? c.getCaseType().toString() : null,
+                c.getDifficulty() != null ? c.getDifficulty().toString() : null
+            ))
+            .collect(Collectors.toList());
+    }
+    
+    // Feed position: (postedAt, id) of the last row served, encoded as URL-safe base64
+    private static class FeedCursor {
+        private final LocalDateTime postedAt;
+        private final Long id;
+        
+        FeedCursor(LocalDateTime postedAt, Long id) {
+            this.postedAt = postedAt;
+            this.id = id;
+        }
+        
+        String encode() {
+            String raw = postedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static FeedCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new FeedCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid feed cursor");
+            }
+        }
+    }
+    
     public void deleteCase(Long id) {
+        CaseKey before = findStatisticsKey(id);
+        // The delete cascades to the case's evidence
+        List<Long> evidenceIds = evidenceRepository.findIdsByCrimeCaseId(id);
         crimeCaseRepository.deleteById(id);
+        caseStatisticsCounters.recordAfterCommit(before, null);
+        caseTagIndex.removeAfterCommit(id);
+        evidenceIds.forEach(evidenceTagIndex::removeAfterCommit);
+        caseRecommendationIndex.caseRemovedAfterCommit(id);
+        caseParticipationIndex.removeCaseAfterCommit(id);
+        trendingLeadIndex.removeCaseAfterCommit(id);
     }
     
     // Case solving operations
@@ -92,6 +260,7 @@ public class CrimeCaseService {
         Optional<CrimeCase> caseOpt = crimeCaseRepository.findById(caseId);
         if (caseOpt.isPresent()) {
             CrimeCase crimeCase = caseOpt.get();
+            CaseKey before = CaseKey.of(crimeCase);
             
             // Validate solver can solve this case
             if (!canUserSolveCase(solver, crimeCase)) {
@@ -108,8 +277,9 @@ public class CrimeCaseService {
             
             // Update solver's solved cases count
             userService.incrementSolvedCases(solver);
+            badgeService.checkAndAwardAchievementBadges(solver);
             
-            return crimeCaseRepository.save(crimeCase);
+            return indexCase(before, crimeCaseRepository.save(crimeCase));
         }
         throw new IllegalArgumentException("Case not found");
     }
@@ -118,10 +288,11 @@ public class CrimeCaseService {
         Optional<CrimeCase> caseOpt = crimeCaseRepository.findById(caseId);
         if (caseOpt.isPresent()) {
             CrimeCase crimeCase = caseOpt.get();
+            CaseKey before = CaseKey.of(crimeCase);
             crimeCase.setStatus(CaseStatus.CLOSED);
             crimeCase.setClosedAt(LocalDateTime.now());
             crimeCase.setUpdatedAt(LocalDateTime.now());
-            return crimeCaseRepository.save(crimeCase);
+            return indexCase(before, crimeCaseRepository.save(crimeCase));
         }
         throw new IllegalArgumentException("Case not found");
     }
@@ -130,10 +301,11 @@ public class CrimeCaseService {
         Optional<CrimeCase> caseOpt = crimeCaseRepository.findById(caseId);
         if (caseOpt.isPresent()) {
             CrimeCase crimeCase = caseOpt.get();
+            CaseKey before = CaseKey.of(crimeCase);
             crimeCase.setStatus(CaseStatus.OPEN);
             crimeCase.setClosedAt(null);
             crimeCase.setUpdatedAt(LocalDateTime.now());
-            return crimeCaseRepository.save(crimeCase);
+            return indexCase(before, crimeCaseRepository.save(crimeCase));
         }
         throw new IllegalArgumentException("Case not found");
     }
@@ -178,6 +350,34 @@ public class CrimeCaseService {
         throw new IllegalArgumentException("Case not found");
     }
     
+    // Case files: the bytes are already in the content-addressed store, this only records the row
+    public FileUploadDTO addCaseFile(Long caseId, User uploadedBy, String fileName, String fileType, StoredFile file) {
+        if (!crimeCaseRepository.existsById(caseId)) {
+            throw new IllegalArgumentException("Case not found");
+        }
+        CaseFile caseFile = new CaseFile();
+        caseFile.setCrimeCase(crimeCaseRepository.getReferenceById(caseId));
+        caseFile.setUploadedBy(uploadedBy);
+        caseFile.setFileName(file.getContentHash());
+        caseFile.setOriginalFileName(fileName);
+        caseFile.setFileType(fileType);
+        caseFile.setFilePath(file.getFilePath());
+        caseFile.setFileSize(file.getSize());
+        caseFile.setContentHash(file.getContentHash());
+        CaseFile saved = caseFileRepository.save(caseFile);
+        return new FileUploadDTO(saved.getId(), fileName, fileType, file.getSize(), file.getContentHash(), file.isDeduplicated());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<CaseFile> getCaseFiles(Long caseId) {
+        return caseFileRepository.findByCrimeCaseIdOrderByUploadedAtDesc(caseId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CaseFile> findCaseFile(Long caseId, Long fileId) {
+        return caseFileRepository.findByIdAndCrimeCaseId(fileId, caseId);
+    }
+    
     // Badge awarding
     public CrimeCase awardBadge(Long caseId, String badgeName) {
         Optional<CrimeCase> caseOpt = crimeCaseRepository.findById(caseId);
@@ -232,19 +432,44 @@ public class CrimeCaseService {
         return crimeCaseRepository.searchByTitleOrDescription(searchTerm);
     }
     
+    // Tag lookups are answered by the in-memory index; the repository queries remain as a fallback
+    // for the short window before the index has loaded
     public List<CrimeCase> findByTag(String tag) {
-        return crimeCaseRepository.findByTag(tag);
+        if (!caseTagIndex.isReady()) {
+            return crimeCaseRepository.findByTag(tag);
+        }
+        return crimeCaseRepository.findAllById(toIdList(caseTagIndex.idsWithTag(tag)));
     }
     
     public List<String> getAllTags() {
-        return crimeCaseRepository.findAllTags();
+        if (!caseTagIndex.isReady()) {
+            return crimeCaseRepository.findAllTags();
+        }
+        return caseTagIndex.allTags();
     }
     
+    public List<CaseSummaryDTO> findCaseSummariesByTags(List<String> tags, boolean matchAll) {
+        long[] ids = matchAll ? caseTagIndex.idsWithAllTags(tags) : caseTagIndex.idsWithAnyTag(tags);
+        return getCaseSummaries(toIdList(ids));
+    }
+    
+    public List<TagCount> suggestTags(String prefix, int limit) {
+        return caseTagIndex.suggest(prefix, limit);
+    }
+    
+    private static List<Long> toIdList(long[] ids) {
+        return LongStream.of(ids).boxed().collect(Collectors.toList());
+    }
+    
+    // Open cases ranked for this solver, read from the cached top-K list
     public List<CrimeCase> findByUserExpertise(User user) {
-        if (user.getExpertiseAreas() == null || user.getExpertiseAreas().isEmpty()) {
-            return crimeCaseRepository.findAll(); // Return all cases if no expertise set
-        }
-        return crimeCaseRepository.findByTagsIn(user.getExpertiseAreas());
+        List<Long> recommendedIds = caseRecommendationIndex.recommendedCaseIds(user);
+        Map<Long, CrimeCase> byId = crimeCaseRepository.findAllById(recommendedIds).stream()
+            .collect(Collectors.toMap(CrimeCase::getId, c -> c));
+        return recommendedIds.stream()
+            .map(byId::get)
+            .filter(c -> c != null)
+            .collect(Collectors.toList());
     }
     
     // Combined filters
@@ -274,12 +499,30 @@ public class CrimeCaseService {
     }
     
     // Statistics
+    // Served from in-memory counters maintained by the lifecycle methods above
     public List<Object[]> getCaseStatisticsByStatus() {
-        return crimeCaseRepository.countByStatus();
+        return caseStatisticsCounters.statusRows();
     }
     
     public List<Object[]> getCaseStatisticsByType() {
-        return crimeCaseRepository.countByCaseType();
+        return caseStatisticsCounters.typeRows();
+    }
+    
+    public List<Object[]> getCaseStatisticsByDifficulty() {
+        return caseStatisticsCounters.difficultyRows();
+    }
+    
+    public long getCaseCountForOrganization(Long organizationId) {
+        return caseStatisticsCounters.getCountForOrganization(organizationId);
+    }
+    
+    public CaseStatisticsDTO getCaseStatistics() {
+        return new CaseStatisticsDTO(
+            caseStatisticsCounters.getTotal(),
+            caseStatisticsCounters.statusCounts(),
+            caseStatisticsCounters.typeCounts(),
+            caseStatisticsCounters.difficultyCounts(),
+            caseStatisticsCounters.getReconciledAt() != null ? caseStatisticsCounters.getReconciledAt().toString() : null);
     }
     
     // Date range queries
@@ -300,6 +543,30 @@ public class CrimeCaseService {
         return crimeCaseRepository.findByBadgeAwarded(badgeAwarded);
     }
     
+    // Keep the in-memory read models in step with a saved case (applied after commit)
+    private CrimeCase indexCase(CaseKey before, CrimeCase savedCase) {
+        caseTagIndex.putAfterCommit(savedCase.getId(), savedCase.getTags());
+        caseRecommendationIndex.caseChangedAfterCommit(savedCase);
+        caseStatisticsCounters.recordAfterCommit(before, CaseKey.of(savedCase));
+        if (before != null && before.getStatus() != savedCase.getStatus()) {
+            caseActivityPublisher.publishAfterCommit(CaseActivityEventDTO.Type.STATUS_CHANGED, savedCase.getId(), savedCase.getId(),
+                CaseActivityPublisher.fields(
+                    "from", before.getStatus(),
+                    "to", savedCase.getStatus(),
+                    "solvedBy", savedCase.getSolvedBy() != null ? savedCase.getSolvedBy().getUsername() : null));
+        }
+        return savedCase;
+    }
+    
+    private CaseKey findStatisticsKey(Long caseId) {
+        List<Object[]> rows = crimeCaseRepository.findStatisticsKeyById(caseId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.get(0);
+        return new CaseKey((CaseStatus) row[0], (CaseType) row[1], (CaseDifficulty) row[2], (Long) row[3]);
+    }
+    
     // Validation methods
     private boolean canUserSolveCase(User user, CrimeCase crimeCase) {
         // Check if user is a solver
@@ -322,10 +589,11 @@ public class CrimeCaseService {
         Optional<CrimeCase> caseOpt = crimeCaseRepository.findById(caseId);
         if (caseOpt.isPresent()) {
             CrimeCase crimeCase = caseOpt.get();
+            CaseKey before = CaseKey.of(crimeCase);
             if (crimeCase.getStatus() == CaseStatus.OPEN) {
                 crimeCase.setStatus(CaseStatus.IN_PROGRESS);
                 crimeCase.setUpdatedAt(LocalDateTime.now());
-                return crimeCaseRepository.save(crimeCase);
+                return indexCase(before, crimeCaseRepository.save(crimeCase));
             }
         }
         throw new IllegalArgumentException("Case not found or cannot be started");
@@ -335,10 +603,11 @@ public class CrimeCaseService {
         Optional<CrimeCase> caseOpt = crimeCaseRepository.findById(caseId);
         if (caseOpt.isPresent()) {
             CrimeCase crimeCase = caseOpt.get();
+            CaseKey before = CaseKey.of(crimeCase);
             if (crimeCase.getStatus() == CaseStatus.IN_PROGRESS) {
                 crimeCase.setStatus(CaseStatus.OPEN);
                 crimeCase.setUpdatedAt(LocalDateTime.now());
-                return crimeCaseRepository.save(crimeCase);
+                return indexCase(before, crimeCaseRepository.save(crimeCase));
             }
         }
         throw new IllegalArgumentException("Case not found or cannot be paused");
@@ -1,96 +1,246 @@
 package org.example.service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-import org.example.entity.CaseComment;
+import org.example.dto.ConversationSummaryDTO;
+import org.example.dto.DirectMessageDTO;
+import org.example.dto.InboxPageDTO;
+import org.example.dto.MessagePageDTO;
+import org.example.entity.Conversation;
 import org.example.entity.DirectMessage;
 import org.example.entity.User;
-import org.example.repository.CaseCommentRepository;
+import org.example.index.CaseParticipationIndex;
+import org.example.repository.ConversationRepository;
+import org.example.repository.CrimeCaseRepository;
 import org.example.repository.DirectMessageRepository;
+import org.example.repository.DirectMessageRepository.MessageView;
 import org.example.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Transactional
 public class DirectMessageService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private DirectMessageRepository directMessageRepository;
     @Autowired
+    private ConversationRepository conversationRepository;
+    @Autowired
     private UserRepository userRepository;
     @Autowired
-    private CaseCommentRepository caseCommentRepository;
+    private CrimeCaseRepository crimeCaseRepository;
+    @Autowired
+    private CaseParticipationIndex caseParticipationIndex;
+    @Autowired
+    private ChatWriteBehind chatWriteBehind;
 
-    // Send a message
+    // Send a message; also moves the conversation's last-message pointer and the receiver's unread count
     public DirectMessage sendMessage(User sender, User receiver, String content) {
+        Conversation conversation = openConversation(sender.getId(), receiver.getId());
         DirectMessage message = new DirectMessage();
         message.setSender(sender);
         message.setReceiver(receiver);
         message.setContent(content);
-        return directMessageRepository.save(message);
+        message.setConversation(conversation);
+        boolean receiverIsLow = receiver.getId() < sender.getId();
+        boolean receiverIsHigh = receiver.getId() > sender.getId();
+
+        if (chatWriteBehind.isEnabled()) {
+            // Id, time and unread count now, so a markRead after this send always clears it;
+            // row and conversation pointer in the next batch
+            message.setId(chatWriteBehind.nextDirectMessageId());
+            message.setSentAt(LocalDateTime.now());
+            conversationRepository.addUnread(conversation.getId(), receiverIsLow ? 1 : 0, receiverIsHigh ? 1 : 0);
+            chatWriteBehind.submitAfterCommit(message, conversation.getId());
+            return message;
+        }
+
+        DirectMessage saved = directMessageRepository.save(message);
+        conversationRepository.recordMessage(conversation.getId(), saved.getId(), saved.getSentAt(),
+            receiverIsLow ? 1 : 0, receiverIsHigh ? 1 : 0);
+        return saved;
     }
 
     // Get chat history between two users
+    @Transactional(readOnly = true)
     public List<DirectMessage> getChat(User user1, User user2) {
-        return directMessageRepository.findChatBetweenUsers(user1, user2);
+        return findConversation(user1.getId(), user2.getId())
+            .map(conversation -> directMessageRepository.findByConversationId(conversation.getId()))
+            .orElse(List.of());
+    }
+
+    // Keyset page of a chat, walking back in time; the cursor is the id of the oldest message already seen
+    @Transactional(readOnly = true)
+    public MessagePageDTO getChatPage(User currentUser, User otherUser, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long beforeId = parseCursor(cursor);
+        Optional<Conversation> conversation = findConversation(currentUser.getId(), otherUser.getId());
+        if (conversation.isEmpty()) {
+            return new MessagePageDTO(List.of(), cursor, false);
+        }
+
+        List<MessageView> rows = directMessageRepository.findPageBefore(conversation.get().getId(), beforeId,
+            PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        List<DirectMessageDTO> items = new ArrayList<>(rows.size());
+        for (MessageView row : rows) {
+            items.add(new DirectMessageDTO(row.getId(), row.getSenderId(), row.getReceiverId(), row.getContent(), row.getSentAt()));
+        }
+        Collections.reverse(items);
+        String nextCursor = items.isEmpty() ? cursor : String.valueOf(items.get(0).getId());
+        return new MessagePageDTO(items, nextCursor, hasMore);
+    }
+
+    // Conversations by most recent message; the cursor is the last-message id of the last conversation seen
+    @Transactional(readOnly = true)
+    public InboxPageDTO getInbox(User currentUser, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long beforeId = parseCursor(cursor);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<ConversationSummaryDTO> merged = new ArrayList<>();
+        for (Object[] row : conversationRepository.findInboxAsLowUser(currentUser.getId(), beforeId, page)) {
+            merged.add(toSummary(row));
+        }
+        for (Object[] row : conversationRepository.findInboxAsHighUser(currentUser.getId(), beforeId, page)) {
+            merged.add(toSummary(row));
+        }
+        merged.sort(Comparator.comparing(ConversationSummaryDTO::getLastMessageId).reversed());
+        boolean hasMore = merged.size() > pageSize;
+        List<ConversationSummaryDTO> items = hasMore ? merged.subList(0, pageSize) : merged;
+        String nextCursor = items.isEmpty() ? cursor : String.valueOf(items.get(items.size() - 1).getLastMessageId());
+        return new InboxPageDTO(new ArrayList<>(items), nextCursor, hasMore);
+    }
+
+    // Clears the current user's unread count for the chat with otherUser
+    public void markRead(User currentUser, User otherUser) {
+        findConversation(currentUser.getId(), otherUser.getId())
+            .ifPresent(conversation -> conversationRepository.markRead(conversation.getId(), currentUser.getId()));
+    }
+
+    private Optional<Conversation> findConversation(Long userId, Long otherUserId) {
+        return conversationRepository.findByUsers(Math.min(userId, otherUserId), Math.max(userId, otherUserId));
+    }
+
+    private Conversation openConversation(Long userId, Long otherUserId) {
+        Optional<Conversation> existing = findConversation(userId, otherUserId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        conversationRepository.insertIfAbsent(Math.min(userId, otherUserId), Math.max(userId, otherUserId));
+        return findConversation(userId, otherUserId)
+            .orElseThrow(() -> new IllegalStateException("Conversation could not be opened"));
+    }
+
+    private static ConversationSummaryDTO toSummary(Object[] row) {
+        return new ConversationSummaryDTO((Long) row[0], (Long) row[1], (String) row[2], (Long) row[3],
+            (Long) row[4], (String) row[5], (LocalDateTime) row[6], (Integer) row[7]);
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(cursor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid message cursor");
+        }
     }
 
     // Get users eligible for DM (commented on same case)
+    @Transactional(readOnly = true)
     public Set<User> getEligibleDMUsers(User currentUser) {
-        // Find all cases the user has commented on
-        List<CaseComment> userComments = caseCommentRepository.findByUser(currentUser);
-        Set<Long> caseIds = userComments.stream().map(c -> c.getCrimeCase().getId()).collect(Collectors.toSet());
-        // Find all comments on those cases
-        List<CaseComment> allComments = caseCommentRepository.findByCrimeCaseIdIn(caseIds);
-        Set<User> eligible = allComments.stream().map(CaseComment::getUser).filter(u -> !u.getId().equals(currentUser.getId())).collect(Collectors.toSet());
-        return eligible;
+        long[] userIds = caseParticipationIndex.coParticipantsOf(currentUser.getId());
+        if (userIds.length == 0) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(userRepository.findAllById(Arrays.stream(userIds).boxed().toList()));
     }
 
-    // Get DMs grouped by case and user for the current user
+    // Get DMs grouped by case and user for the current user. Each user carries only the head of the
+    // conversation (last message and unread count); the full history is paged via getChatPage.
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getGroupedDMsByCase(User currentUser) {
-        // 1. Find all cases where the user has commented
-        List<CaseComment> userComments = caseCommentRepository.findByUser(currentUser);
-        Set<Long> caseIds = userComments.stream().map(c -> c.getCrimeCase().getId()).collect(Collectors.toSet());
-        if (caseIds.isEmpty()) return new ArrayList<>();
-        // 2. For each case, find all users who have messaged the current user in that case
-        List<CaseComment> allComments = caseCommentRepository.findByCrimeCaseIdIn(caseIds);
-        Map<Long, String> caseIdToTitle = allComments.stream()
-            .collect(Collectors.toMap(
-                c -> c.getCrimeCase().getId(),
-                c -> c.getCrimeCase().getTitle(),
-                (a, b) -> a // keep first title
-            ));
-        Map<Long, Set<User>> caseIdToUsers = new HashMap<>();
-        for (CaseComment comment : allComments) {
-            Long caseId = comment.getCrimeCase().getId();
-            if (!caseIdToUsers.containsKey(caseId)) caseIdToUsers.put(caseId, new HashSet<>());
-            if (!comment.getUser().getId().equals(currentUser.getId())) {
-                caseIdToUsers.get(caseId).add(comment.getUser());
+        Long currentUserId = currentUser.getId();
+        // 1. Cases the user has commented on and everyone else who commented there, from the index
+        Map<Long, long[]> participantsByCase = caseParticipationIndex.coParticipantsByCase(currentUserId);
+        if (participantsByCase.isEmpty()) return new ArrayList<>();
+        Set<Long> otherUserIds = new HashSet<>();
+        participantsByCase.values().forEach(ids -> Arrays.stream(ids).forEach(otherUserIds::add));
+
+        // 2. Titles, usernames and conversation heads, one set-based query each
+        Map<Long, String> caseIdToTitle = new HashMap<>();
+        for (Object[] row : crimeCaseRepository.findTitlesByIds(participantsByCase.keySet())) {
+            caseIdToTitle.put((Long) row[0], (String) row[1]);
+        }
+        Map<Long, String> userIdToName = new HashMap<>();
+        Map<Long, Object[]> headByUserId = new HashMap<>();
+        if (!otherUserIds.isEmpty()) {
+            for (Object[] row : userRepository.findUsernamesByIds(otherUserIds)) {
+                userIdToName.put((Long) row[0], (String) row[1]);
+            }
+            for (Object[] row : conversationRepository.findHeadsWith(currentUserId, otherUserIds)) {
+                Long lowUserId = (Long) row[1];
+                headByUserId.put(lowUserId.equals(currentUserId) ? (Long) row[2] : lowUserId, row);
             }
         }
-        // 3. For each user in each case, get messages between currentUser and that user
+
+        // 3. Assemble in memory
         List<Map<String, Object>> result = new ArrayList<>();
-        for (Long caseId : caseIdToUsers.keySet()) {
+        for (Map.Entry<Long, long[]> entry : participantsByCase.entrySet()) {
+            Long caseId = entry.getKey();
+            if (!caseIdToTitle.containsKey(caseId)) continue; // deleted since the index was read
             Map<String, Object> caseMap = new HashMap<>();
             caseMap.put("caseId", caseId);
             caseMap.put("caseTitle", caseIdToTitle.get(caseId));
             List<Map<String, Object>> usersList = new ArrayList<>();
-            for (User user : caseIdToUsers.get(caseId)) {
-                Map<String, Object> userMap = new HashMap<>();
-                userMap.put("userId", user.getId());
-                userMap.put("userName", user.getUsername());
-                List<DirectMessage> messages = directMessageRepository.findChatBetweenUsers(currentUser, user);
-                userMap.put("messages", messages);
-                usersList.add(userMap);
+            for (long userId : entry.getValue()) {
+                String userName = userIdToName.get(userId);
+                if (userName == null) continue;
+                usersList.add(toUserHead(currentUserId, userId, userName, headByUserId.get(userId)));
             }
             caseMap.put("users", usersList);
             result.add(caseMap);
         }
         return result;
     }
-} 
\ No newline at end of file
+
+    private static Map<String, Object> toUserHead(Long currentUserId, Long userId, String userName, Object[] head) {
+        Map<String, Object> userMap = new HashMap<>();
+        userMap.put("userId", userId);
+        userMap.put("userName", userName);
+        DirectMessageDTO lastMessage = null;
+        int unreadCount = 0;
+        if (head != null) {
+            userMap.put("conversationId", head[0]);
+            unreadCount = (Integer) (currentUserId.equals(head[1]) ? head[3] : head[4]);
+            if (head[5] != null) {
+                lastMessage = new DirectMessageDTO((Long) head[5], (Long) head[6], (Long) head[7], (String) head[8],
+                    (LocalDateTime) head[9]);
+            }
+        }
+        userMap.put("lastMessage", lastMessage);
+        userMap.put("unreadCount", unreadCount);
+        // Kept for older clients that only test whether any messages exist
+        userMap.put("messages", lastMessage != null ? List.of(lastMessage) : List.of());
+        return userMap;
+    }
+}
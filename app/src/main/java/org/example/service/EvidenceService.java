@@ -1,7 +1,12 @@
 package org.example.service;
 
+import org.example.dto.CaseActivityEventDTO;
+import org.example.dto.CustodyEntryDTO;
+import org.example.dto.FileUploadDTO;
 import org.example.entity.*;
+import org.example.index.EvidenceTagIndex;
 import org.example.repository.EvidenceRepository;
+import org.example.service.FileStorageService.StoredFile;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,6 +14,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 @Service
 @Transactional
@@ -20,6 +27,18 @@ public class EvidenceService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private EvidenceTagIndex evidenceTagIndex;
+    
+    @Autowired
+    private CaseActivityPublisher caseActivityPublisher;
+
+    @Autowired
+    private MediaProcessingService mediaProcessingService;
+    
+    @Autowired
+    private CustodyLedgerService custodyLedgerService;
+    
     // Create evidence
     public Evidence createEvidence(CrimeCase crimeCase, User collectedBy, String description,
                                  EvidenceType type, String location, String source, 
@@ -42,13 +61,17 @@ public class EvidenceService {
         evidence.setCollectedAt(LocalDateTime.now());
         evidence.setUpdatedAt(LocalDateTime.now());
         
-        return evidenceRepository.save(evidence);
+        Evidence savedEvidence = evidenceRepository.save(evidence);
+        evidenceTagIndex.putAfterCommit(savedEvidence.getId(), savedEvidence.getTags());
+        return publish(CaseActivityEventDTO.Type.EVIDENCE_ADDED, savedEvidence);
     }
     
     // Update evidence
     public Evidence updateEvidence(Evidence evidence) {
         evidence.setUpdatedAt(LocalDateTime.now());
-        return evidenceRepository.save(evidence);
+        Evidence savedEvidence = evidenceRepository.save(evidence);
+        evidenceTagIndex.putAfterCommit(savedEvidence.getId(), savedEvidence.getTags());
+        return publish(CaseActivityEventDTO.Type.EVIDENCE_UPDATED, savedEvidence);
     }
     
     // Update evidence status
@@ -74,7 +97,7 @@ public class EvidenceService {
             
             evidence.setUpdatedAt(LocalDateTime.now());
             
-            return evidenceRepository.save(evidence);
+            return publish(CaseActivityEventDTO.Type.EVIDENCE_UPDATED, evidenceRepository.save(evidence));
         }
         throw new IllegalArgumentException("Evidence not found");
     }
@@ -93,7 +116,7 @@ public class EvidenceService {
             evidence.setAssignedAt(LocalDateTime.now());
             evidence.setUpdatedAt(LocalDateTime.now());
             
-            return evidenceRepository.save(evidence);
+            return publish(CaseActivityEventDTO.Type.EVIDENCE_UPDATED, evidenceRepository.save(evidence));
         }
         throw new IllegalArgumentException("Evidence not found");
     }
@@ -110,35 +133,65 @@ public class EvidenceService {
             evidence.setStatus(EvidenceStatus.ANALYZED);
             evidence.setUpdatedAt(LocalDateTime.now());
             
-            return evidenceRepository.save(evidence);
+            return publish(CaseActivityEventDTO.Type.EVIDENCE_UPDATED, evidenceRepository.save(evidence));
         }
         throw new IllegalArgumentException("Evidence not found");
     }
     
-    // Add chain of custody entry
+    // Add chain of custody entry: one ledger row per event; the evidence row only gets updatedAt touched.
+    // Touching it first locks the chain head, so concurrent appends queue instead of colliding on sequence.
+    public CustodyEntryDTO recordCustodyEntry(Long evidenceId, User handler, String action, String notes) {
+        if (evidenceRepository.touchUpdatedAt(evidenceId, LocalDateTime.now()) == 0) {
+            throw new IllegalArgumentException("Evidence not found");
+        }
+        Evidence evidence = evidenceRepository.findById(evidenceId)
+            .orElseThrow(() -> new IllegalArgumentException("Evidence not found"));
+        CustodyEntryDTO entry = custodyLedgerService.append(evidence, handler, action, notes);
+        publish(CaseActivityEventDTO.Type.EVIDENCE_UPDATED, evidence);
+        return entry;
+    }
+    
     public Evidence addChainOfCustodyEntry(Long evidenceId, User handler, String action, String notes) {
-        Optional<Evidence> evidenceOpt = evidenceRepository.findById(evidenceId);
-        if (evidenceOpt.isPresent()) {
-            Evidence evidence = evidenceOpt.get();
-            
-            // Add to existing chain of custody or create new
-            String currentChain = evidence.getChainOfCustody();
-            String newEntry = handler.getUsername() + " - " + action + " - " + LocalDateTime.now();
-            if (notes != null && !notes.isEmpty()) {
-                newEntry += " - " + notes;
-            }
-            
-            if (currentChain != null && !currentChain.isEmpty()) {
-                evidence.setChainOfCustody(currentChain + "; " + newEntry);
-            } else {
-                evidence.setChainOfCustody(newEntry);
-            }
-            
-            evidence.setUpdatedAt(LocalDateTime.now());
-            
-            return evidenceRepository.save(evidence);
+        recordCustodyEntry(evidenceId, handler, action, notes);
+        // Already managed by this transaction, so no second load
+        return evidenceRepository.getReferenceById(evidenceId);
+    }
+    
+    // Points the evidence at an uploaded file already written to the content-addressed store
+    public FileUploadDTO attachFile(Long evidenceId, StoredFile file, String fileName, String fileType) {
+        Evidence evidence = evidenceRepository.findById(evidenceId)
+            .orElseThrow(() -> new IllegalArgumentException("Evidence not found"));
+        evidence.setFilePath(file.getFilePath());
+        evidence.setFileSize(file.getSize());
+        evidence.setFileType(fileType);
+        evidence.setContentHash(file.getContentHash());
+        // Results for the previous file no longer apply; the pipeline refills these
+        evidence.setThumbnailPath(null);
+        evidence.setMediaWidth(null);
+        evidence.setMediaHeight(null);
+        evidence.setDetectedMimeType(null);
+        evidence.setMediaMetadata(null);
+        evidence.setMediaProcessedAt(null);
+        if (fileName != null) {
+            evidence.setOriginalFileName(fileName);
         }
-        throw new IllegalArgumentException("Evidence not found");
+        evidence.setUpdatedAt(LocalDateTime.now());
+        publish(CaseActivityEventDTO.Type.EVIDENCE_UPDATED, evidenceRepository.save(evidence));
+        mediaProcessingService.submitAfterCommit(MediaProcessingService.Target.EVIDENCE, evidenceId);
+        return new FileUploadDTO(evidenceId, evidence.getOriginalFileName(), fileType, file.getSize(),
+            file.getContentHash(), file.isDeduplicated());
+    }
+    
+    private Evidence publish(CaseActivityEventDTO.Type type, Evidence evidence) {
+        if (evidence.getCrimeCase() != null) {
+            caseActivityPublisher.publishAfterCommit(type, evidence.getCrimeCase().getId(), evidence.getId(),
+                CaseActivityPublisher.fields(
+                    "title", evidence.getTitle(),
+                    "status", evidence.getStatus(),
+                    "type", evidence.getType(),
+                    "assignedTo", evidence.getAssignedTo() != null ? evidence.getAssignedTo().getUsername() : null));
+        }
+        return evidence;
     }
     
     // Find operations
@@ -166,6 +219,14 @@ public class EvidenceService {
         return evidenceRepository.findByType(type);
     }
     
+    public List<Evidence> findByTag(String tag) {
+        if (!evidenceTagIndex.isReady()) {
+            return evidenceRepository.findByTag(tag);
+        }
+        List<Long> ids = LongStream.of(evidenceTagIndex.idsWithTag(tag)).boxed().collect(Collectors.toList());
+        return evidenceRepository.findAllById(ids);
+    }
+    
     public List<Evidence> findBySource(String source) {
         return evidenceRepository.findBySource(source);
     }
@@ -349,19 +410,13 @@ public class EvidenceService {
             .toList();
     }
     
-    // Get evidence with chain of custody
+    // Get evidence with chain of custody (ledger entries, or legacy free-text history)
     public List<Evidence> getEvidenceWithChainOfCustody() {
-        // Filter all evidence to find those with chain of custody
-        return evidenceRepository.findAll().stream()
-            .filter(e -> e.getChainOfCustody() != null && !e.getChainOfCustody().isEmpty())
-            .toList();
+        return evidenceRepository.findWithChainOfCustody();
     }
     
     public List<Evidence> getEvidenceWithChainOfCustodyForCase(CrimeCase crimeCase) {
-        // This method doesn't exist in repository, filter in memory
-        return evidenceRepository.findByCrimeCase(crimeCase).stream()
-            .filter(e -> e.getChainOfCustody() != null && !e.getChainOfCustody().isEmpty())
-            .toList();
+        return evidenceRepository.findWithChainOfCustodyForCase(crimeCase);
     }
     
     // Evidence progress tracking
@@ -0,0 +1,145 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Content-addressed file store under {@code app.file.upload-dir}. Uploads are streamed through a
+ * fixed-size buffer into a temp file while their SHA-256 is computed, then renamed to
+ * {@code objects/<first two hex chars>/<hash>}. Identical content is stored once.
+ */
+@Service
+public class FileStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String OBJECTS_DIR = "objects";
+    private static final String TEMP_DIR = "tmp";
+
+    @Value("${app.file.upload-dir:./uploads}")
+    private String uploadDir;
+
+    @Value("${app.file.max-upload-bytes:4294967296}")
+    private long maxUploadBytes;
+
+    private Path root;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Path.of(uploadDir).toAbsolutePath().normalize();
+        Files.createDirectories(root.resolve(OBJECTS_DIR));
+        Files.createDirectories(root.resolve(TEMP_DIR));
+    }
+
+    public StoredFile store(InputStream body) throws IOException {
+        Path temp = Files.createTempFile(root.resolve(TEMP_DIR), "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            try (ReadableByteChannel in = Channels.newChannel(body);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxUploadBytes) {
+                        throw new UploadTooLargeException(maxUploadBytes);
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                out.force(false);
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("Upload is empty");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String relativePath = relativePathFor(hash);
+            Path target = root.resolve(relativePath);
+            boolean deduplicated = Files.exists(target);
+            if (deduplicated) {
+                Files.delete(temp);
+            } else {
+                Files.createDirectories(target.getParent());
+                // A concurrent upload of the same bytes may win the rename; the content is identical either way
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.debug("Stored {} bytes as {}{}", size, hash, deduplicated ? " (deduplicated)" : "");
+            return new StoredFile(hash, size, relativePath, deduplicated);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static String contentTypeOrDefault(String contentType) {
+        return contentType != null && !contentType.isBlank() ? contentType : "application/octet-stream";
+    }
+
+    // Resolves a stored filePath, refusing anything outside the upload directory
+    public Path resolve(String relativePath) {
+        Path path = root.resolve(relativePath).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid file path");
+        }
+        return path;
+    }
+
+    private static String relativePathFor(String hash) {
+        return OBJECTS_DIR + "/" + hash.substring(0, 2) + "/" + hash;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static final class StoredFile {
+        private final String contentHash;
+        private final long size;
+        private final String filePath;
+        private final boolean deduplicated;
+
+        public StoredFile(String contentHash, long size, String filePath, boolean deduplicated) {
+            this.contentHash = contentHash;
+            this.size = size;
+            this.filePath = filePath;
+            this.deduplicated = deduplicated;
+        }
+
+        public String getContentHash() { return contentHash; }
+        public long getSize() { return size; }
+        public String getFilePath() { return filePath; }
+        public boolean isDeduplicated() { return deduplicated; }
+    }
+
+    public static class UploadTooLargeException extends RuntimeException {
+        public UploadTooLargeException(long limit) {
+            super("Upload exceeds the limit of " + limit + " bytes");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,7 +14,18 @@ public class HiringChatMessageService {
     @Autowired
     private HiringChatMessageRepository hiringChatMessageRepository;
 
+    @Autowired
+    private ChatWriteBehind chatWriteBehind;
+
     public HiringChatMessage save(HiringChatMessage message) {
+        if (chatWriteBehind.isEnabled() && message.getId() == null) {
+            message.setId(chatWriteBehind.nextHiringChatMessageId());
+            if (message.getTimestamp() == null) {
+                message.setTimestamp(LocalDateTime.now());
+            }
+            chatWriteBehind.submitAfterCommit(message);
+            return message;
+        }
         return hiringChatMessageRepository.save(message);
     }
 
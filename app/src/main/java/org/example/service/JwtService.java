@@ -1,14 +1,18 @@
 package org.example.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.example.entity.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,19 +21,43 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
+    // Claims that let JwtAuthenticationFilter authenticate a request without loading the user
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    // Built once from the configured secret; both are immutable and safe to share across threads
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    public JwtService() {
+    }
+
+    // For use outside the container, e.g. benchmarks
+    public JwtService(String secretKey, long jwtExpiration) {
+        this.secretKey = secretKey;
+        this.jwtExpiration = jwtExpiration;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getSubject();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token).getClaims());
     }
 
     public String generateToken(User user) {
@@ -37,44 +65,81 @@ public class JwtService {
     }
 
     public String generateToken(Map<String, Object> extraClaims, User user) {
-        return buildToken(extraClaims, user, jwtExpiration);
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion() != null ? user.getTokenVersion() : 0L);
+        return buildToken(claims, user, jwtExpiration);
+    }
+
+    // Verifies signature and expiry exactly once; throws JwtException otherwise
+    public VerifiedToken verify(String token) {
+        return new VerifiedToken(parser.parseSignedClaims(token).getPayload());
     }
 
     private String buildToken(Map<String, Object> extraClaims, User user, long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(user.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, org.springframework.security.core.userdetails.UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        // The parser already rejects expired tokens, so one parse covers signature, expiry and subject
+        VerifiedToken verified = verify(token);
+        return userDetails.getUsername().equals(verified.getSubject()) && !verified.isExpired();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
+    /**
+     * Result of a single successful parse: subject, expiry and the raw claims, so callers never
+     * re-verify the same token to read another field.
+     */
+    public static final class VerifiedToken {
+        private final Claims claims;
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+        private VerifiedToken(Claims claims) {
+            this.claims = claims;
+        }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
+        public String getSubject() {
+            return claims.getSubject();
+        }
+
+        public Instant getExpiresAt() {
+            Date expiration = claims.getExpiration();
+            return expiration != null ? expiration.toInstant() : null;
+        }
+
+        public boolean isExpired() {
+            Instant expiresAt = getExpiresAt();
+            return expiresAt != null && expiresAt.isBefore(Instant.now());
+        }
+
+        public Long getUserId() {
+            return longClaim(CLAIM_USER_ID);
+        }
+
+        public String getRole() {
+            return claims.get(CLAIM_ROLE, String.class);
+        }
+
+        public Long getTokenVersion() {
+            return longClaim(CLAIM_TOKEN_VERSION);
+        }
+
+        public Claims getClaims() {
+            return claims;
+        }
 
-    private javax.crypto.SecretKey getSignInKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        // Numeric claims come back as Integer or Long depending on magnitude
+        private Long longClaim(String name) {
+            Number value = claims.get(name, Number.class);
+            return value != null ? value.longValue() : null;
+        }
     }
-} 
\ No newline at end of file
+}
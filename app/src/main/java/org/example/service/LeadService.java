@@ -1,18 +1,33 @@
 package org.example.service;
 
+import org.example.dto.CaseActivityEventDTO;
+import org.example.dto.FileUploadDTO;
+import org.example.dto.LeadScoreDTO;
+import org.example.dto.TrendingLeadDTO;
+import org.example.dto.TrendingLeadPageDTO;
 import org.example.entity.*;
+import org.example.index.LeadVoteCounters;
+import org.example.index.TrendingLeadIndex;
 import org.example.repository.LeadRepository;
+import org.example.repository.LeadVoteRepository;
+import org.example.service.FileStorageService.StoredFile;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class LeadService {
+
+    private static final int MAX_TRENDING_PAGE_SIZE = 50;
     
     @Autowired
     private LeadRepository leadRepository;
@@ -20,6 +35,21 @@ public class LeadService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private CaseActivityPublisher caseActivityPublisher;
+
+    @Autowired
+    private MediaProcessingService mediaProcessingService;
+
+    @Autowired
+    private LeadVoteRepository leadVoteRepository;
+
+    @Autowired
+    private LeadVoteCounters leadVoteCounters;
+
+    @Autowired
+    private TrendingLeadIndex trendingLeadIndex;
+    
     // Create lead
     public Lead createLead(CrimeCase crimeCase, User submittedBy, String content, 
                           String title, LeadType type, LeadVisibility visibility) {
@@ -39,13 +69,13 @@ public class LeadService {
         lead.setStatus(LeadStatus.PENDING);
         lead.setSubmittedAt(LocalDateTime.now());
         
-        return leadRepository.save(lead);
+        return publish(CaseActivityEventDTO.Type.LEAD_SUBMITTED, leadRepository.save(lead));
     }
     
     // Update lead
     public Lead updateLead(Lead lead) {
         lead.setUpdatedAt(LocalDateTime.now());
-        return leadRepository.save(lead);
+        return publish(CaseActivityEventDTO.Type.LEAD_UPDATED, leadRepository.save(lead));
     }
     
     // Validate lead
@@ -63,7 +93,7 @@ public class LeadService {
             lead.setStatus(isValid ? LeadStatus.VALIDATED : LeadStatus.REJECTED);
             lead.setUpdatedAt(LocalDateTime.now());
             
-            return leadRepository.save(lead);
+            return publish(CaseActivityEventDTO.Type.LEAD_UPDATED, leadRepository.save(lead));
         }
         throw new IllegalArgumentException("Lead not found");
     }
@@ -77,7 +107,7 @@ public class LeadService {
             lead.setStatus(status);
             lead.setUpdatedAt(LocalDateTime.now());
             
-            return leadRepository.save(lead);
+            return publish(CaseActivityEventDTO.Type.LEAD_UPDATED, leadRepository.save(lead));
         }
         throw new IllegalArgumentException("Lead not found");
     }
@@ -93,13 +123,55 @@ public class LeadService {
                 tags.add(tag);
                 lead.setTags(tags);
                 lead.setUpdatedAt(LocalDateTime.now());
-                return leadRepository.save(lead);
+                return publish(CaseActivityEventDTO.Type.LEAD_UPDATED, leadRepository.save(lead));
             }
             return lead;
         }
         throw new IllegalArgumentException("Lead not found");
     }
     
+    // Points the lead at an uploaded file already written to the content-addressed store
+    public FileUploadDTO attachFile(Long leadId, StoredFile file, String fileName, String fileType) {
+        Lead lead = leadRepository.findById(leadId)
+            .orElseThrow(() -> new IllegalArgumentException("Lead not found"));
+        lead.setFilePath(file.getFilePath());
+        lead.setFileSize(file.getSize());
+        lead.setFileType(fileType);
+        lead.setContentHash(file.getContentHash());
+        // Results for the previous file no longer apply; the pipeline refills these
+        lead.setThumbnailPath(null);
+        lead.setMediaWidth(null);
+        lead.setMediaHeight(null);
+        lead.setDetectedMimeType(null);
+        lead.setMediaMetadata(null);
+        lead.setMediaProcessedAt(null);
+        if (fileName != null) {
+            lead.setOriginalFileName(fileName);
+        }
+        lead.setUpdatedAt(LocalDateTime.now());
+        publish(CaseActivityEventDTO.Type.LEAD_UPDATED, leadRepository.save(lead));
+        mediaProcessingService.submitAfterCommit(MediaProcessingService.Target.LEAD, leadId);
+        return new FileUploadDTO(leadId, lead.getOriginalFileName(), fileType, file.getSize(),
+            file.getContentHash(), file.isDeduplicated());
+    }
+    
+    // Every lead write goes through here, so it also keeps the trending index current. Every case
+    // subscriber gets the event, so only public leads carry their details; others send the id alone.
+    private Lead publish(CaseActivityEventDTO.Type type, Lead lead) {
+        trendingLeadIndex.updateAfterCommit(lead);
+        if (lead.getCrimeCase() != null) {
+            Map<String, Object> data = lead.getVisibility() == LeadVisibility.PUBLIC
+                ? CaseActivityPublisher.fields(
+                    "title", lead.getTitle(),
+                    "status", lead.getStatus(),
+                    "type", lead.getType(),
+                    "submittedBy", lead.getSubmittedBy() != null ? lead.getSubmittedBy().getUsername() : null)
+                : CaseActivityPublisher.fields();
+            caseActivityPublisher.publishAfterCommit(type, lead.getCrimeCase().getId(), lead.getId(), data);
+        }
+        return lead;
+    }
+    
     // Find operations
     public Optional<Lead> findById(Long id) {
         return leadRepository.findById(id);
@@ -257,6 +329,82 @@ public class LeadService {
         return leadRepository.searchByContent(searchTerm);
     }
     
+    // Casts or changes the user's vote (LeadVote.UP or LeadVote.DOWN); repeating the same vote is a no-op
+    public LeadScoreDTO vote(Long leadId, User user, int value) {
+        if (value != LeadVote.UP && value != LeadVote.DOWN) {
+            throw new IllegalArgumentException("Vote must be +1 or -1");
+        }
+        if (!leadRepository.existsById(leadId)) {
+            throw new IllegalArgumentException("Lead not found");
+        }
+        Integer previous = leadVoteRepository.findValueForUpdate(leadId, user.getId());
+        if (previous == null && leadVoteRepository.insertIfAbsent(leadId, user.getId(), value) == 0) {
+            // Lost a race with the same user's other request; its row is now there to update
+            previous = leadVoteRepository.findValueForUpdate(leadId, user.getId());
+        }
+        if (previous != null && previous != value) {
+            leadVoteRepository.updateValue(leadId, user.getId(), value);
+        }
+        return recordVoteChange(leadId, previous != null ? previous : 0, value);
+    }
+
+    // Withdraws the user's vote, if any
+    public LeadScoreDTO removeVote(Long leadId, User user) {
+        Integer previous = leadVoteRepository.findValueForUpdate(leadId, user.getId());
+        if (previous != null) {
+            leadVoteRepository.deleteVote(leadId, user.getId());
+        }
+        return recordVoteChange(leadId, previous != null ? previous : 0, 0);
+    }
+
+    @Transactional(readOnly = true)
+    public LeadScoreDTO getScore(Long leadId, User user) {
+        Integer myVote = user != null ? leadVoteRepository.findValue(leadId, user.getId()) : null;
+        long[] totals = leadVoteCounters.totals(leadId);
+        return new LeadScoreDTO(leadId, totals[0], totals[1], myVote != null ? myVote : 0);
+    }
+
+    // Queues the change for the counters and returns the score including it, since the
+    // counters only see it after commit
+    private LeadScoreDTO recordVoteChange(Long leadId, int from, int to) {
+        int up = (to == LeadVote.UP ? 1 : 0) - (from == LeadVote.UP ? 1 : 0);
+        int down = (to == LeadVote.DOWN ? 1 : 0) - (from == LeadVote.DOWN ? 1 : 0);
+        leadVoteCounters.recordAfterCommit(leadId, up, down);
+        trendingLeadIndex.recordVotesAfterCommit(leadId, up - down);
+        long[] totals = leadVoteCounters.totals(leadId);
+        return new LeadScoreDTO(leadId, totals[0] + up, totals[1] + down, to);
+    }
+    
+    // One page of the case's hot public leads; the ranking covers its top app.leads.trending-size
+    @Transactional(readOnly = true)
+    public TrendingLeadPageDTO getTrendingLeads(Long caseId, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_TRENDING_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        // In long so a huge page cannot wrap to a valid offset; pages past the kept top are empty
+        long offset = (long) pageNumber * pageSize;
+        if (offset >= trendingLeadIndex.getTrendingSize()) {
+            return new TrendingLeadPageDTO(caseId, List.of(), pageNumber, pageSize, false);
+        }
+        // One extra entry tells us whether a further page exists
+        List<TrendingLeadIndex.Ranked> ranked = trendingLeadIndex.top(caseId, (int) offset, pageSize + 1);
+        boolean hasMore = ranked.size() > pageSize;
+        if (hasMore) {
+            ranked = ranked.subList(0, pageSize);
+        }
+        Map<Long, Lead> leads = leadRepository.findAllById(ranked.stream().map(TrendingLeadIndex.Ranked::getLeadId).toList())
+            .stream().collect(Collectors.toMap(Lead::getId, Function.identity()));
+        List<TrendingLeadDTO> items = new ArrayList<>(ranked.size());
+        for (int i = 0; i < ranked.size(); i++) {
+            TrendingLeadIndex.Ranked entry = ranked.get(i);
+            Lead lead = leads.get(entry.getLeadId());
+            // Deleted or made private since the index last heard of it
+            if (lead != null && lead.getVisibility() == LeadVisibility.PUBLIC) {
+                items.add(new TrendingLeadDTO((int) offset + i + 1, entry.getScore(), entry.getPoints(), lead));
+            }
+        }
+        return new TrendingLeadPageDTO(caseId, items, pageNumber, pageSize, hasMore);
+    }
+    
     // Get leads with comments
     public List<Lead> getLeadsWithComments() {
         return leadRepository.findLeadsWithComments();
@@ -0,0 +1,225 @@
+package org.example.service;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pure-JDK file sniffing for the media pipeline: MIME type from magic bytes and the handful of
+ * EXIF fields worth showing for a photo. Only file headers are read.
+ */
+final class MediaProbe {
+
+    private static final int SNIFF_BYTES = 16;
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+
+    // IFD0
+    private static final int TAG_MAKE = 0x010F;
+    private static final int TAG_MODEL = 0x0110;
+    private static final int TAG_ORIENTATION = 0x0112;
+    private static final int TAG_DATE_TIME = 0x0132;
+    private static final int TAG_EXIF_IFD = 0x8769;
+    private static final int TAG_GPS_IFD = 0x8825;
+    // Exif sub-IFD
+    private static final int TAG_DATE_TIME_ORIGINAL = 0x9003;
+    // GPS sub-IFD
+    private static final int TAG_GPS_LATITUDE_REF = 0x0001;
+    private static final int TAG_GPS_LATITUDE = 0x0002;
+    private static final int TAG_GPS_LONGITUDE_REF = 0x0003;
+    private static final int TAG_GPS_LONGITUDE = 0x0004;
+
+    private MediaProbe() {
+    }
+
+    static String sniffMimeType(Path path) throws IOException {
+        byte[] head = new byte[SNIFF_BYTES];
+        int n;
+        try (InputStream in = Files.newInputStream(path)) {
+            n = in.readNBytes(head, 0, SNIFF_BYTES);
+        }
+        String sniffed = sniffMimeType(Arrays.copyOf(head, n));
+        return sniffed != null ? sniffed : Files.probeContentType(path);
+    }
+
+    static String sniffMimeType(byte[] head) {
+        if (startsWith(head, 0, 0xFF, 0xD8, 0xFF)) return "image/jpeg";
+        if (startsWith(head, 0, 0x89, 'P', 'N', 'G')) return "image/png";
+        if (startsWith(head, 0, 'G', 'I', 'F', '8')) return "image/gif";
+        if (startsWith(head, 0, 'B', 'M')) return "image/bmp";
+        if (startsWith(head, 0, '%', 'P', 'D', 'F')) return "application/pdf";
+        if (startsWith(head, 0, 'R', 'I', 'F', 'F')) {
+            if (startsWith(head, 8, 'W', 'E', 'B', 'P')) return "image/webp";
+            if (startsWith(head, 8, 'W', 'A', 'V', 'E')) return "audio/wav";
+            if (startsWith(head, 8, 'A', 'V', 'I', ' ')) return "video/x-msvideo";
+        }
+        if (startsWith(head, 4, 'f', 't', 'y', 'p')) {
+            if (startsWith(head, 8, 'q', 't', ' ', ' ')) return "video/quicktime";
+            if (startsWith(head, 8, 'M', '4', 'A')) return "audio/mp4";
+            return "video/mp4";
+        }
+        if (startsWith(head, 0, 0x1A, 0x45, 0xDF, 0xA3)) return "video/webm";
+        if (startsWith(head, 0, 'O', 'g', 'g', 'S')) return "audio/ogg";
+        if (startsWith(head, 0, 'f', 'L', 'a', 'C')) return "audio/flac";
+        if (startsWith(head, 0, 'I', 'D', '3')
+                || (head.length > 1 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xE0) == 0xE0)) return "audio/mpeg";
+        if (startsWith(head, 0, 'P', 'K', 3, 4)) return "application/zip";
+        return null;
+    }
+
+    /**
+     * Reads EXIF fields from a JPEG's APP1 segment. Returns an empty map when there is no EXIF
+     * block; a truncated or malformed block yields whatever was readable before the damage.
+     */
+    static Map<String, Object> readExif(Path jpeg) throws IOException {
+        Map<String, Object> exif = new LinkedHashMap<>();
+        byte[] tiff = findExifSegment(jpeg);
+        if (tiff == null) {
+            return exif;
+        }
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(tiff);
+            if (tiff[0] == 'I' && tiff[1] == 'I') {
+                buf.order(ByteOrder.LITTLE_ENDIAN);
+            } else if (tiff[0] != 'M' || tiff[1] != 'M') {
+                return exif;
+            }
+            if (buf.getShort(2) != 42) {
+                return exif;
+            }
+            Map<Integer, Object> ifd0 = readIfd(buf, buf.getInt(4));
+            putIfPresent(exif, "make", ifd0.get(TAG_MAKE));
+            putIfPresent(exif, "model", ifd0.get(TAG_MODEL));
+            putIfPresent(exif, "orientation", ifd0.get(TAG_ORIENTATION));
+            putIfPresent(exif, "dateTime", ifd0.get(TAG_DATE_TIME));
+            if (ifd0.get(TAG_EXIF_IFD) instanceof Long offset) {
+                putIfPresent(exif, "dateTimeOriginal", readIfd(buf, offset.intValue()).get(TAG_DATE_TIME_ORIGINAL));
+            }
+            if (ifd0.get(TAG_GPS_IFD) instanceof Long offset) {
+                Map<Integer, Object> gps = readIfd(buf, offset.intValue());
+                putIfPresent(exif, "latitude", coordinate(gps.get(TAG_GPS_LATITUDE), gps.get(TAG_GPS_LATITUDE_REF), "S"));
+                putIfPresent(exif, "longitude", coordinate(gps.get(TAG_GPS_LONGITUDE), gps.get(TAG_GPS_LONGITUDE_REF), "W"));
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // Offsets pointing outside the segment; keep what was read
+        }
+        return exif;
+    }
+
+    // Walks JPEG marker segments up to the start of scan, so image data is never read
+    private static byte[] findExifSegment(Path jpeg) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(jpeg)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return null;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                    return null;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return null;
+                }
+                if (marker == 0xFFE1 && length > EXIF_HEADER.length) {
+                    byte[] segment = new byte[length];
+                    in.readFully(segment);
+                    if (Arrays.equals(segment, 0, EXIF_HEADER.length, EXIF_HEADER, 0, EXIF_HEADER.length)) {
+                        return Arrays.copyOfRange(segment, EXIF_HEADER.length, segment.length);
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static Map<Integer, Object> readIfd(ByteBuffer buf, int offset) {
+        Map<Integer, Object> values = new LinkedHashMap<>();
+        int count = Short.toUnsignedInt(buf.getShort(offset));
+        for (int i = 0; i < count; i++) {
+            int entry = offset + 2 + i * 12;
+            int tag = Short.toUnsignedInt(buf.getShort(entry));
+            int type = Short.toUnsignedInt(buf.getShort(entry + 2));
+            int components = buf.getInt(entry + 4);
+            Object value = readValue(buf, entry + 8, type, components);
+            if (value != null) {
+                values.put(tag, value);
+            }
+        }
+        return values;
+    }
+
+    private static Object readValue(ByteBuffer buf, int valueField, int type, int components) {
+        // A corrupt count must not drive an allocation larger than the segment itself
+        if (components < 0 || components > buf.limit()) {
+            return null;
+        }
+        switch (type) {
+            case 2: { // ASCII, NUL-terminated
+                int at = components <= 4 ? valueField : buf.getInt(valueField);
+                int length = components;
+                while (length > 0 && buf.get(at + length - 1) == 0) {
+                    length--;
+                }
+                byte[] bytes = new byte[length];
+                buf.get(at, bytes);
+                return new String(bytes, StandardCharsets.US_ASCII).trim();
+            }
+            case 3: // SHORT
+                return components == 1 ? (long) Short.toUnsignedInt(buf.getShort(valueField)) : null;
+            case 4: // LONG
+                return components == 1 ? Integer.toUnsignedLong(buf.getInt(valueField)) : null;
+            case 5: { // RATIONAL, always stored at an offset
+                int at = buf.getInt(valueField);
+                double[] rationals = new double[components];
+                for (int i = 0; i < components; i++) {
+                    long numerator = Integer.toUnsignedLong(buf.getInt(at + i * 8));
+                    long denominator = Integer.toUnsignedLong(buf.getInt(at + i * 8 + 4));
+                    rationals[i] = denominator == 0 ? 0 : (double) numerator / denominator;
+                }
+                return rationals;
+            }
+            default:
+                return null;
+        }
+    }
+
+    // Degrees/minutes/seconds to signed decimal degrees
+    private static Double coordinate(Object dms, Object ref, String negativeRef) {
+        if (!(dms instanceof double[] parts) || parts.length != 3) {
+            return null;
+        }
+        double degrees = parts[0] + parts[1] / 60 + parts[2] / 3600;
+        return negativeRef.equals(ref) ? -degrees : degrees;
+    }
+
+    private static void putIfPresent(Map<String, Object> map, String key, Object value) {
+        if (value != null && !(value instanceof String s && s.isEmpty())) {
+            map.put(key, value);
+        }
+    }
+
+    private static boolean startsWith(byte[] head, int offset, int... expected) {
+        if (head.length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((head[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
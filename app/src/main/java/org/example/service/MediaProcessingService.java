@@ -0,0 +1,249 @@
+package org.example.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.example.index.AfterCommit;
+import org.example.repository.EvidenceRepository;
+import org.example.repository.LeadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Produces thumbnails and metadata for stored lead and evidence files on a small fixed pool.
+ * The work queue is bounded: when it is full a new file is simply left with
+ * {@code mediaProcessedAt = null} and the periodic sweep feeds it in as capacity frees up, so
+ * the database is the overflow buffer and a restart loses nothing.
+ */
+@Service
+public class MediaProcessingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaProcessingService.class);
+
+    public enum Target { LEAD, EVIDENCE }
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private EvidenceRepository evidenceRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Decoding is CPU-bound, so a few platform threads rather than virtual ones
+    @Value("${app.media.workers:2}")
+    private int workers;
+
+    @Value("${app.media.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.media.thumbnail-size:320}")
+    private int thumbnailSize;
+
+    private ThreadPoolExecutor executor;
+
+    // Queued or running jobs, so the sweep does not enqueue the same file twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("media-worker-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Anything still queued is picked up again by the next start's sweep
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public void submitAfterCommit(Target target, Long id) {
+        AfterCommit.run(() -> submit(target, id));
+    }
+
+    @Scheduled(fixedDelayString = "${app.media.sweep-interval-ms:60000}")
+    public void sweep() {
+        for (Target target : Target.values()) {
+            int room = executor.getQueue().remainingCapacity();
+            if (room == 0) {
+                return;
+            }
+            List<Long> ids = target == Target.LEAD
+                ? leadRepository.findIdsAwaitingMedia(PageRequest.of(0, room))
+                : evidenceRepository.findIdsAwaitingMedia(PageRequest.of(0, room));
+            ids.forEach(id -> submit(target, id));
+        }
+    }
+
+    private void submit(Target target, Long id) {
+        String key = target + ":" + id;
+        if (!inFlight.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(target, id);
+                } finally {
+                    inFlight.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key);
+            logger.debug("Media queue full; {} left for the sweep", key);
+        }
+    }
+
+    private void process(Target target, Long id) {
+        List<Object[]> rows = target == Target.LEAD
+            ? leadRepository.findStoredFile(id)
+            : evidenceRepository.findStoredFile(id);
+        if (rows.isEmpty()) {
+            return;
+        }
+        String filePath = (String) rows.get(0)[0];
+        String declaredType = (String) rows.get(0)[1];
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        String mimeType = null;
+        Integer width = null;
+        Integer height = null;
+        String thumbnailPath = null;
+        try {
+            Path path = fileStorageService.resolve(filePath);
+            metadata.put("sizeBytes", Files.size(path));
+            mimeType = MediaProbe.sniffMimeType(path);
+            if (mimeType == null) {
+                mimeType = declaredType;
+            }
+            if (declaredType != null && !declaredType.equals(mimeType)) {
+                metadata.put("declaredType", declaredType);
+            }
+            if ("image/jpeg".equals(mimeType)) {
+                Map<String, Object> exif = MediaProbe.readExif(path);
+                if (!exif.isEmpty()) {
+                    metadata.put("exif", exif);
+                }
+            }
+            if (mimeType != null && mimeType.startsWith("image/")) {
+                Thumbnail thumbnail = thumbnail(path);
+                if (thumbnail != null) {
+                    width = thumbnail.width;
+                    height = thumbnail.height;
+                    thumbnailPath = thumbnail.filePath;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Recorded rather than retried, so one bad file cannot keep a worker busy forever
+            logger.warn("Media processing failed for {} {}: {}", target, id, e.getMessage());
+            metadata.put("error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+
+        String metadataJson;
+        try {
+            metadataJson = objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            metadataJson = null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (target == Target.LEAD) {
+            leadRepository.recordMediaResult(id, filePath, thumbnailPath, width, height, mimeType, metadataJson, now);
+        } else {
+            evidenceRepository.recordMediaResult(id, filePath, thumbnailPath, width, height, mimeType, metadataJson, now);
+        }
+    }
+
+    // Decodes with source subsampling so a large photo never materialises at full resolution
+    private Thumbnail thumbnail(Path path) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (thumbnailSize * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage source = reader.read(0, param);
+
+                double scale = Math.min(1.0, (double) thumbnailSize / Math.max(source.getWidth(), source.getHeight()));
+                int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+                int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+                BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = scaled.createGraphics();
+                try {
+                    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, targetWidth, targetHeight);
+                    g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+                } finally {
+                    g.dispose();
+                }
+
+                ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+                ImageIO.write(scaled, "jpg", jpeg);
+                String filePath = fileStorageService.store(new ByteArrayInputStream(jpeg.toByteArray())).getFilePath();
+                return new Thumbnail(width, height, filePath);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static final class Thumbnail {
+        private final int width;
+        private final int height;
+        private final String filePath;
+
+        private Thumbnail(int width, int height, String filePath) {
+            this.width = width;
+            this.height = height;
+            this.filePath = filePath;
+        }
+    }
+}
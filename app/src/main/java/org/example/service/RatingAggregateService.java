@@ -0,0 +1,164 @@
+package org.example.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.example.entity.RatingAggregate;
+import org.example.entity.RatingAggregate.Source;
+import org.example.entity.RatingType;
+import org.example.repository.RatingAggregateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains {@link RatingAggregate} rows. Every rating write turns into a signed delta of
+ * (count, sum, sum of squares, star bucket) applied to the user's overall row and, for typed
+ * user ratings, to the row of that type, so reading an average never scans the ratings.
+ */
+@Service
+@Transactional
+public class RatingAggregateService {
+
+    private static final String REBUILD_SQL =
+        "WITH ratings_by_dimension AS (" +
+        "  SELECT rated_user_id AS user_id, 'RATING' AS source, 'ALL' AS dimension, rating FROM ratings " +
+        "  WHERE rated_user_id IS NOT NULL AND rating IS NOT NULL " +
+        "  UNION ALL " +
+        "  SELECT rated_user_id, 'USER_RATING', 'ALL', rating FROM user_ratings " +
+        "  WHERE rated_user_id IS NOT NULL AND rating IS NOT NULL " +
+        "  UNION ALL " +
+        "  SELECT rated_user_id, 'USER_RATING', type, rating FROM user_ratings " +
+        "  WHERE rated_user_id IS NOT NULL AND rating IS NOT NULL AND type IS NOT NULL" +
+        "), upserted AS (" +
+        "  INSERT INTO rating_aggregates (user_id, source, dimension, rating_count, rating_sum, rating_sum_squares, " +
+        "    stars_1, stars_2, stars_3, stars_4, stars_5) " +
+        "  SELECT user_id, source, dimension, COUNT(*), SUM(rating), SUM(rating * rating), " +
+        "    COUNT(*) FILTER (WHERE rating = 1), COUNT(*) FILTER (WHERE rating = 2), COUNT(*) FILTER (WHERE rating = 3), " +
+        "    COUNT(*) FILTER (WHERE rating = 4), COUNT(*) FILTER (WHERE rating = 5) " +
+        "  FROM ratings_by_dimension GROUP BY user_id, source, dimension " +
+        "  ON CONFLICT (user_id, source, dimension) DO UPDATE SET " +
+        "    rating_count = EXCLUDED.rating_count, rating_sum = EXCLUDED.rating_sum, " +
+        "    rating_sum_squares = EXCLUDED.rating_sum_squares, stars_1 = EXCLUDED.stars_1, stars_2 = EXCLUDED.stars_2, " +
+        "    stars_3 = EXCLUDED.stars_3, stars_4 = EXCLUDED.stars_4, stars_5 = EXCLUDED.stars_5 " +
+        "  RETURNING id" +
+        ") " +
+        // Rows inserted above are not visible to this DELETE; updated ones are excluded by id
+        "DELETE FROM rating_aggregates a WHERE NOT EXISTS (SELECT 1 FROM upserted u WHERE u.id = a.id)";
+
+    @Autowired
+    private RatingAggregateRepository aggregateRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Records one rating going from oldValue to newValue: null oldValue is a create,
+     * null newValue a delete. Must run in the rating write's transaction.
+     */
+    public void recordChange(Source source, Long userId, RatingType type, Integer oldValue, Integer newValue) {
+        if (Objects.equals(oldValue, newValue)) {
+            return;
+        }
+        long[] delta = new long[8];
+        accumulate(delta, oldValue, -1);
+        accumulate(delta, newValue, 1);
+        apply(source, userId, RatingAggregate.ALL, delta);
+        if (type != null) {
+            apply(source, userId, type.name(), delta);
+        }
+    }
+
+    public Summary getSummary(Source source, Long userId) {
+        return getSummaries(source, userId).getOrDefault(RatingAggregate.ALL, Summary.EMPTY);
+    }
+
+    // All of a user's rows for one source in a single query, keyed by dimension
+    public Map<String, Summary> getSummaries(Source source, Long userId) {
+        Map<String, Summary> summaries = new HashMap<>();
+        for (Object[] row : aggregateRepository.findTotals(userId, source)) {
+            long[] histogram = new long[5];
+            for (int i = 0; i < 5; i++) {
+                histogram[i] = ((Number) row[4 + i]).longValue();
+            }
+            summaries.put((String) row[0], new Summary(((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue(), ((Number) row[3]).longValue(), histogram));
+        }
+        return summaries;
+    }
+
+    /**
+     * Recomputes every aggregate from the rating tables in one statement: rows are upserted with
+     * their exact totals and rows with no ratings left are deleted, so it is safe to run on every
+     * startup and converges whatever state the table is in. The table lock (which allows reads)
+     * waits for rating writes in flight and holds new ones until commit, so no delta is applied
+     * twice or lost against the recomputed totals.
+     */
+    public int rebuild() {
+        jdbcTemplate.execute("LOCK TABLE rating_aggregates IN SHARE ROW EXCLUSIVE MODE");
+        return jdbcTemplate.update(REBUILD_SQL);
+    }
+
+    private void apply(Source source, Long userId, String dimension, long[] d) {
+        aggregateRepository.applyDelta(userId, source.name(), dimension, d[0], d[1], d[2], d[3], d[4], d[5], d[6], d[7]);
+    }
+
+    // delta layout: count, sum, sum of squares, stars 1..5
+    private static void accumulate(long[] delta, Integer value, long sign) {
+        if (value == null) {
+            return;
+        }
+        delta[0] += sign;
+        delta[1] += sign * value;
+        delta[2] += sign * value * value;
+        if (value >= 1 && value <= 5) {
+            delta[2 + value] += sign;
+        }
+    }
+
+    // Read-side view of one aggregate row
+    public static final class Summary {
+        static final Summary EMPTY = new Summary(0, 0, 0, new long[5]);
+
+        private final long count;
+        private final long sum;
+        private final long sumSquares;
+        private final long[] histogram;
+
+        private Summary(long count, long sum, long sumSquares, long[] histogram) {
+            this.count = count;
+            this.sum = sum;
+            this.sumSquares = sumSquares;
+            this.histogram = histogram;
+        }
+
+        public long getCount() { return count; }
+
+        // null when there are no ratings, matching SQL AVG
+        public Double getAverage() {
+            return count > 0 ? (double) sum / count : null;
+        }
+
+        // Population standard deviation
+        public Double getStandardDeviation() {
+            if (count == 0) {
+                return null;
+            }
+            double mean = (double) sum / count;
+            return Math.sqrt(Math.max(0, (double) sumSquares / count - mean * mean));
+        }
+
+        // Counts of 1..5 star ratings at index 0..4
+        public long[] getHistogram() { return histogram.clone(); }
+
+        public long countAtLeast(int stars) {
+            long total = 0;
+            for (int i = Math.max(1, stars); i <= 5; i++) {
+                total += histogram[i - 1];
+            }
+            return total;
+        }
+    }
+}
@@ -5,8 +5,10 @@ import java.util.Optional;
 
 import org.example.entity.CrimeCase;
 import org.example.entity.Rating;
+import org.example.entity.RatingAggregate;
 import org.example.entity.User;
 import org.example.entity.UserRole;
+import org.example.index.SolverLeaderboard;
 import org.example.repository.CrimeCaseRepository;
 import org.example.repository.RatingRepository;
 import org.example.repository.UserRepository;
@@ -27,6 +29,12 @@ public class RatingService {
     @Autowired
     private CrimeCaseRepository caseRepository;
     
+    @Autowired
+    private RatingAggregateService ratingAggregateService;
+    
+    @Autowired
+    private SolverLeaderboard solverLeaderboard;
+    
     /**
      * Rate a user - only RECRUITERS and ORGANIZATIONS can rate
      */
@@ -56,6 +64,7 @@ public class RatingService {
         if (existingRating.isPresent()) {
             // Update existing rating instead of creating new one
             Rating existing = existingRating.get();
+            Integer previous = existing.getRating();
             existing.setRating(rating);
             existing.setComment(comment);
             existing.setCategory(category);
@@ -67,6 +76,7 @@ public class RatingService {
             }
             
             Rating savedRating = ratingRepository.save(existing);
+            ratingAggregateService.recordChange(RatingAggregate.Source.RATING, ratedUserId, null, previous, rating);
             updateUserAverageRating(ratedUser);
             return savedRating;
         }
@@ -82,6 +92,7 @@ public class RatingService {
         }
         
         Rating savedRating = ratingRepository.save(newRating);
+        ratingAggregateService.recordChange(RatingAggregate.Source.RATING, ratedUserId, null, null, rating);
         
         // Update user's average rating
         updateUserAverageRating(ratedUser);
@@ -111,23 +122,26 @@ public class RatingService {
      * Get average rating for a user
      */
     public Double getAverageRating(Long userId) throws Exception {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new Exception("User not found"));
-        Double average = ratingRepository.calculateAverageRating(user);
+        if (!userRepository.existsById(userId)) {
+            throw new Exception("User not found");
+        }
+        Double average = ratingAggregateService.getSummary(RatingAggregate.Source.RATING, userId).getAverage();
         return average != null ? average : 0.0;
     }
     
     /**
-     * Update user's average rating and total ratings count
+     * Update user's average rating and total ratings count from the running aggregate
      */
     private void updateUserAverageRating(User user) {
-        Double average = ratingRepository.calculateAverageRating(user);
-        Long totalRatings = ratingRepository.countRatingsForUser(user);
+        RatingAggregateService.Summary summary =
+            ratingAggregateService.getSummary(RatingAggregate.Source.RATING, user.getId());
+        Double average = summary.getAverage();
         
         user.setAverageRating(average != null ? average : 0.0);
-        user.setTotalRatings(totalRatings != null ? totalRatings.intValue() : 0);
+        user.setTotalRatings((int) summary.getCount());
         
         userRepository.save(user);
+        solverLeaderboard.updateAfterCommit(user);
     }
     
     /**
@@ -148,6 +162,7 @@ public class RatingService {
         
         User ratedUser = rating.getRatedUser();
         ratingRepository.delete(rating);
+        ratingAggregateService.recordChange(RatingAggregate.Source.RATING, ratedUser.getId(), null, rating.getRating(), null);
         
         // Update user's average rating after deletion
         updateUserAverageRating(ratedUser);
@@ -1,13 +1,17 @@
 package org.example.service;
 
 import org.example.entity.*;
+import org.example.repository.RatingAggregateRepository;
 import org.example.repository.UserRatingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -20,6 +24,15 @@ public class UserRatingService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private RatingAggregateService ratingAggregateService;
+    
+    @Autowired
+    private RatingAggregateRepository ratingAggregateRepository;
+    
+    @Value("${app.leaderboard.top-limit:100}")
+    private int topLimit;
+    
     // Create rating
     public UserRating createRating(User rater, User ratedUser, CrimeCase crimeCase, 
                                  Integer rating, String comment, RatingType type) {
@@ -52,6 +65,7 @@ public class UserRatingService {
         userRating.setRatedAt(LocalDateTime.now());
         
         UserRating savedRating = userRatingRepository.save(userRating);
+        ratingAggregateService.recordChange(RatingAggregate.Source.USER_RATING, ratedUser.getId(), type, null, rating);
         
         // Update user's average rating
         updateUserAverageRating(ratedUser);
@@ -64,6 +78,7 @@ public class UserRatingService {
         Optional<UserRating> ratingOpt = userRatingRepository.findById(ratingId);
         if (ratingOpt.isPresent()) {
             UserRating rating = ratingOpt.get();
+            Integer previous = rating.getRating();
             
             if (newRating != null) {
                 if (newRating < 1 || newRating > 5) {
@@ -78,6 +93,8 @@ public class UserRatingService {
             
             rating.setRatedAt(LocalDateTime.now());
             UserRating savedRating = userRatingRepository.save(rating);
+            ratingAggregateService.recordChange(RatingAggregate.Source.USER_RATING, rating.getRatedUser().getId(),
+                rating.getType(), previous, rating.getRating());
             
             // Update user's average rating
             updateUserAverageRating(rating.getRatedUser());
@@ -95,6 +112,8 @@ public class UserRatingService {
             User ratedUser = rating.getRatedUser();
             
             userRatingRepository.deleteById(ratingId);
+            ratingAggregateService.recordChange(RatingAggregate.Source.USER_RATING, ratedUser.getId(),
+                rating.getType(), rating.getRating(), null);
             
             // Update user's average rating
             updateUserAverageRating(ratedUser);
@@ -154,30 +173,45 @@ public class UserRatingService {
         return userRatingRepository.findRatingsInPeriod(startDate, endDate);
     }
     
-    // Statistics
+    // Statistics: (user, average of their user ratings), best first, any role; read from the
+    // USER_RATING aggregates instead of grouping user_ratings, and capped at app.leaderboard.top-limit
     public List<Object[]> getTopRatedUsers() {
-        return userRatingRepository.findTopRatedUsers();
+        return getTopRatedUsers(topLimit);
+    }
+    
+    public List<Object[]> getTopRatedUsers(int limit) {
+        return ratingAggregateRepository.findTopAverages(RatingAggregate.Source.USER_RATING, RatingAggregate.ALL,
+            PageRequest.of(0, Math.max(1, limit)));
     }
     
     public long getRatingCount(User ratedUser) {
-        return userRatingRepository.countByRatedUser(ratedUser);
+        return aggregate(ratedUser).getCount();
     }
     
     public long getRatingCountByType(User ratedUser, RatingType type) {
-        return userRatingRepository.findByRatedUserAndType(ratedUser, type).size();
+        return aggregate(ratedUser, type).getCount();
     }
     
     public long getHighRatingCount(User ratedUser, Integer minRating) {
-        return userRatingRepository.countByRatedUserAndRatingGreaterThanEqual(ratedUser, minRating);
+        return aggregate(ratedUser).countAtLeast(minRating);
     }
     
-    // Average rating calculations
+    // Average rating calculations, read from the running aggregates
     public Double getAverageRating(User ratedUser) {
-        return userRatingRepository.calculateAverageRatingForUser(ratedUser);
+        return aggregate(ratedUser).getAverage();
     }
     
     public Double getAverageRatingByType(User ratedUser, RatingType type) {
-        return userRatingRepository.calculateAverageRatingForUserByType(ratedUser, type);
+        return aggregate(ratedUser, type).getAverage();
+    }
+    
+    private RatingAggregateService.Summary aggregate(User ratedUser) {
+        return ratingAggregateService.getSummary(RatingAggregate.Source.USER_RATING, ratedUser.getId());
+    }
+    
+    private RatingAggregateService.Summary aggregate(User ratedUser, RatingType type) {
+        return ratingAggregateService.getSummaries(RatingAggregate.Source.USER_RATING, ratedUser.getId())
+            .getOrDefault(type.name(), RatingAggregateService.Summary.EMPTY);
     }
     
     // Organization ratings for solver
@@ -245,36 +279,40 @@ public class UserRatingService {
     
     // Update user's average rating
     private void updateUserAverageRating(User ratedUser) {
-        Double averageRating = getAverageRating(ratedUser);
-        Integer totalRatings = (int) getRatingCount(ratedUser);
+        RatingAggregateService.Summary summary = aggregate(ratedUser);
+        Double averageRating = summary.getAverage();
         
         if (averageRating != null) {
             ratedUser.setAverageRating(averageRating);
-            ratedUser.setTotalRatings(totalRatings);
+            ratedUser.setTotalRatings((int) summary.getCount());
             userService.updateUserRating(ratedUser);
         }
     }
     
-    // Get rating statistics for a user
+    // Get rating statistics for a user: one read of the user's aggregate rows
     public RatingStatistics getRatingStatistics(User ratedUser) {
-        Double overallAverage = getAverageRating(ratedUser);
-        Double performanceAverage = getAverageRatingByType(ratedUser, RatingType.CASE_PERFORMANCE);
-        Double communicationAverage = getAverageRatingByType(ratedUser, RatingType.COMMUNICATION);
-        Double professionalismAverage = getAverageRatingByType(ratedUser, RatingType.PROFESSIONALISM);
-        Double expertiseAverage = getAverageRatingByType(ratedUser, RatingType.EXPERTISE);
-        Double reliabilityAverage = getAverageRatingByType(ratedUser, RatingType.RELIABILITY);
-        
-        long totalRatings = getRatingCount(ratedUser);
-        long highRatings = getHighRatingCount(ratedUser, 4);
-        long perfectRatings = getHighRatingCount(ratedUser, 5);
+        Map<String, RatingAggregateService.Summary> summaries =
+            ratingAggregateService.getSummaries(RatingAggregate.Source.USER_RATING, ratedUser.getId());
+        RatingAggregateService.Summary overall =
+            summaries.getOrDefault(RatingAggregate.ALL, RatingAggregateService.Summary.EMPTY);
         
         return new RatingStatistics(
-            overallAverage, performanceAverage, communicationAverage, 
-            professionalismAverage, expertiseAverage, reliabilityAverage,
-            totalRatings, highRatings, perfectRatings
+            overall.getAverage(),
+            averageOf(summaries, RatingType.CASE_PERFORMANCE),
+            averageOf(summaries, RatingType.COMMUNICATION),
+            averageOf(summaries, RatingType.PROFESSIONALISM),
+            averageOf(summaries, RatingType.EXPERTISE),
+            averageOf(summaries, RatingType.RELIABILITY),
+            overall.getCount(), overall.countAtLeast(4), overall.countAtLeast(5),
+            overall.getStandardDeviation(), overall.getHistogram()
         );
     }
     
+    private static Double averageOf(Map<String, RatingAggregateService.Summary> summaries, RatingType type) {
+        RatingAggregateService.Summary summary = summaries.get(type.name());
+        return summary != null ? summary.getAverage() : null;
+    }
+    
     // Inner class for rating statistics
     public static class RatingStatistics {
         private final Double overallAverage;
@@ -286,11 +324,14 @@ public class UserRatingService {
         private final long totalRatings;
         private final long highRatings;
         private final long perfectRatings;
+        private final Double standardDeviation;
+        private final long[] histogram;
         
         public RatingStatistics(Double overallAverage, Double performanceAverage, 
                               Double communicationAverage, Double professionalismAverage,
                               Double expertiseAverage, Double reliabilityAverage,
-                              long totalRatings, long highRatings, long perfectRatings) {
+                              long totalRatings, long highRatings, long perfectRatings,
+                              Double standardDeviation, long[] histogram) {
             this.overallAverage = overallAverage;
             this.performanceAverage = performanceAverage;
             this.communicationAverage = communicationAverage;
@@ -300,6 +341,8 @@ public class UserRatingService {
             this.totalRatings = totalRatings;
             this.highRatings = highRatings;
             this.perfectRatings = perfectRatings;
+            this.standardDeviation = standardDeviation;
+            this.histogram = histogram;
         }
         
         // Getters
@@ -312,6 +355,9 @@ public class UserRatingService {
         public long getTotalRatings() { return totalRatings; }
         public long getHighRatings() { return highRatings; }
         public long getPerfectRatings() { return perfectRatings; }
+        public Double getStandardDeviation() { return standardDeviation; }
+        // Counts of 1..5 star ratings at index 0..4
+        public long[] getHistogram() { return histogram; }
         
         public double getHighRatingPercentage() {
             return totalRatings > 0 ? (double) highRatings / totalRatings * 100 : 0;
@@ -1,14 +1,22 @@
 package org.example.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
+import org.example.dto.LeaderboardEntryDTO;
 import org.example.entity.User;
 import org.example.entity.UserRole;
+import org.example.index.SolverLeaderboard;
+import org.example.index.TokenVersionCache;
 import org.example.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +31,15 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+    
+    @Autowired
+    private SolverLeaderboard solverLeaderboard;
+    
+    @Value("${app.leaderboard.top-limit:100}")
+    private int topLimit;
+    
     // Basic CRUD operations
     public User createUser(User user) {
         // Encode password
@@ -35,12 +52,19 @@ public class UserService {
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        solverLeaderboard.updateAfterCommit(savedUser);
+        return savedUser;
     }
     
     public User updateUser(User user) {
+        boolean credentialsChanged = user.getId() != null && credentialsChanged(user);
         user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        if (credentialsChanged) {
+            revokeTokens(savedUser.getId());
+        }
+        return savedUser;
     }
     
     public Optional<User> findById(Long id) {
@@ -65,6 +89,26 @@ public class UserService {
     
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        tokenVersionCache.evictAfterCommit(id);
+        solverLeaderboard.removeAfterCommit(id);
+    }
+    
+    // Invalidates every token issued to the user so far; they must log in again
+    public void revokeTokens(Long userId) {
+        userRepository.incrementTokenVersion(userId);
+        tokenVersionCache.evictAfterCommit(userId);
+    }
+    
+    // A profile body usually omits the password, so only a supplied one that differs counts as a change
+    private boolean credentialsChanged(User user) {
+        List<Object[]> rows = userRepository.findCredentialStateById(user.getId());
+        if (rows.isEmpty()) {
+            return false;
+        }
+        Object[] stored = rows.get(0);
+        return !Objects.equals(stored[0], user.getUsername())
+            || stored[1] != user.getRole()
+            || (user.getPassword() != null && !Objects.equals(stored[2], user.getPassword()));
     }
     
     // Role-based operations
@@ -141,12 +185,14 @@ public class UserService {
         // This will be called by RatingService to update user's average rating
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        solverLeaderboard.updateAfterCommit(user);
     }
     
     public void incrementSolvedCases(User user) {
         user.setSolvedCasesCount(user.getSolvedCasesCount() + 1);
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        solverLeaderboard.updateAfterCommit(user);
     }
     
     public void updateActiveCasesCount(User user, int count) {
@@ -202,8 +248,50 @@ public class UserService {
         return userRepository.findByLocationContainingIgnoreCase(location);
     }
     
+    // Same order as the old ORDER BY averageRating, solvedCasesCount, read from the in-memory board;
+    // only the first app.leaderboard.top-limit solvers, where the old query returned all of them
     public List<User> findTopSolvers() {
-        return userRepository.findTopSolvers();
+        return findTopSolvers(topLimit);
+    }
+    
+    public List<User> findTopSolvers(int limit) {
+        List<Long> ids = solverLeaderboard.top(SolverLeaderboard.Board.RATING, Math.min(limit, topLimit)).stream()
+            .map(SolverLeaderboard.Standing::getUserId)
+            .toList();
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(ids).forEach(user -> users.put(user.getId(), user));
+        List<User> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = users.get(id);
+            if (user != null) {
+                ordered.add(user);
+            }
+        }
+        return ordered;
+    }
+    
+    // Leaderboard pages: the top of a board, or a user and their neighbours on it
+    public List<LeaderboardEntryDTO> getLeaderboard(SolverLeaderboard.Board board, int limit) {
+        return toLeaderboardEntries(solverLeaderboard.top(board, limit));
+    }
+    
+    public List<LeaderboardEntryDTO> getLeaderboardAround(SolverLeaderboard.Board board, Long userId, int radius) {
+        return toLeaderboardEntries(solverLeaderboard.around(board, userId, radius));
+    }
+    
+    private List<LeaderboardEntryDTO> toLeaderboardEntries(List<SolverLeaderboard.Standing> standings) {
+        if (standings.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> usernames = new HashMap<>();
+        for (Object[] row : userRepository.findUsernamesByIds(
+                standings.stream().map(SolverLeaderboard.Standing::getUserId).toList())) {
+            usernames.put((Long) row[0], (String) row[1]);
+        }
+        return standings.stream()
+            .map(s -> new LeaderboardEntryDTO(s.getRank(), s.getUserId(), usernames.get(s.getUserId()),
+                s.getSolvedCases(), s.getAverageRating(), s.getTotalRatings(), s.getBadgeCount()))
+            .toList();
     }
     
     public List<User> findSolversByMinRating(Double minRating) {
@@ -254,7 +342,9 @@ public class UserService {
                 user.setPasswordResetToken(null);
                 user.setPasswordResetExpiry(null);
                 user.setUpdatedAt(LocalDateTime.now());
-                return userRepository.save(user);
+                User savedUser = userRepository.save(user);
+                revokeTokens(savedUser.getId());
+                return savedUser;
             }
         }
         throw new IllegalArgumentException("Invalid or expired password reset token");
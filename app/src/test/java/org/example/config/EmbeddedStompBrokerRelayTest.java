@@ -0,0 +1,155 @@
+package org.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Relay mode end to end: two Spring broker relays, standing in for two app instances, share one
+ * {@link EmbeddedStompBroker}. A message one instance publishes must reach a client session held
+ * by the other, which is what lets /topic and /user/queue traffic cross instances.
+ */
+class EmbeddedStompBrokerRelayTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private EmbeddedStompBroker broker;
+    private Instance publisher;
+    private Instance subscriber;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        int port = freePort();
+        broker = new EmbeddedStompBroker(port);
+        broker.start();
+        publisher = new Instance(port);
+        subscriber = new Instance(port);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        publisher.relay.stop();
+        subscriber.relay.stop();
+        broker.stop();
+    }
+
+    @Test
+    void messagePublishedOnOneInstanceReachesASubscriberOnAnother() throws Exception {
+        subscriber.connect("session-1");
+        subscriber.subscribe("session-1", "sub-1", "/topic/case.7");
+
+        publisher.publish("/topic/case.7", "{\"type\":\"LEAD_ADDED\"}");
+
+        Message<?> delivered = subscriber.await(StompCommand.MESSAGE);
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(delivered);
+        assertEquals("session-1", headers.getSessionId());
+        assertEquals("sub-1", headers.getSubscriptionId());
+        assertEquals("/topic/case.7", headers.getDestination());
+        assertArrayEquals("{\"type\":\"LEAD_ADDED\"}".getBytes(StandardCharsets.UTF_8), (byte[]) delivered.getPayload());
+    }
+
+    @Test
+    void onlyExactDestinationMatchesAreDelivered() throws Exception {
+        subscriber.connect("session-1");
+        subscriber.subscribe("session-1", "sub-1", "/topic/case.7");
+
+        publisher.publish("/topic/case.8", "other case");
+        publisher.publish("/topic/case.7", "this case");
+
+        Message<?> delivered = subscriber.await(StompCommand.MESSAGE);
+        assertArrayEquals("this case".getBytes(StandardCharsets.UTF_8), (byte[]) delivered.getPayload());
+        assertNull(subscriber.outbound.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // One app instance: a started relay plus a queue of the frames it sends to its clients
+    private static final class Instance {
+        private final StompBrokerRelayMessageHandler relay;
+        private final ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel();
+        private final BlockingQueue<Message<?>> outbound = new LinkedBlockingQueue<>();
+
+        private Instance(int port) throws InterruptedException {
+            ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+            clientOutbound.subscribe(outbound::add);
+            relay = new StompBrokerRelayMessageHandler(inbound, clientOutbound, new ExecutorSubscribableChannel(),
+                List.of("/topic", "/queue"));
+            relay.setRelayHost("127.0.0.1");
+            relay.setRelayPort(port);
+            relay.setSystemHeartbeatSendInterval(0);
+            relay.setSystemHeartbeatReceiveInterval(0);
+            relay.start();
+
+            // The system session connects in the background; client frames are refused until it has
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (!relay.isBrokerAvailable()) {
+                assertTrue(System.nanoTime() < deadline, "Relay never connected to the embedded broker");
+                Thread.sleep(20);
+            }
+        }
+
+        private void connect(String sessionId) throws InterruptedException {
+            StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.CONNECT);
+            headers.setSessionId(sessionId);
+            headers.setAcceptVersion("1.2");
+            headers.setHeartbeat(0, 0);
+            inbound.send(MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders()));
+            await(StompCommand.CONNECTED);
+        }
+
+        // Returns once the broker has confirmed the subscription with a receipt
+        private void subscribe(String sessionId, String subscriptionId, String destination) throws InterruptedException {
+            StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+            headers.setSessionId(sessionId);
+            headers.setSubscriptionId(subscriptionId);
+            headers.setDestination(destination);
+            headers.setReceipt("receipt-" + subscriptionId);
+            inbound.send(MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders()));
+            assertEquals("receipt-" + subscriptionId, StompHeaderAccessor.wrap(await(StompCommand.RECEIPT)).getReceiptId());
+        }
+
+        // What SimpMessagingTemplate.convertAndSend puts on the broker channel
+        private void publish(String destination, String payload) {
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setDestination(destination);
+            relay.handleMessage(MessageBuilder.createMessage(payload.getBytes(StandardCharsets.UTF_8), headers.getMessageHeaders()));
+        }
+
+        private Message<?> await(StompCommand command) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (true) {
+                Message<?> message = outbound.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                assertNotNull(message, "No " + command + " frame within " + TIMEOUT_SECONDS + "s");
+                if (StompHeaderAccessor.wrap(message).getCommand() == command) {
+                    return message;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.example.entity.CasePrivacy;
+import org.example.repository.CrimeCaseRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * SUBSCRIBE frames as they reach the inbound channel, before /user destinations are resolved.
+ */
+@ExtendWith(MockitoExtension.class)
+class StompSubscribeAuthorizationTest {
+
+    private static final StompPrincipal ALICE = new StompPrincipal(1L, "alice", "SOLVER");
+
+    @Mock
+    private CrimeCaseRepository crimeCaseRepository;
+
+    @Mock
+    private WebSocketAuthenticator authenticator;
+
+    @InjectMocks
+    private CaseTopicAuthorizer caseTopicAuthorizer;
+
+    @Test
+    void ownUserQueueIsAllowed() {
+        Message<byte[]> frame = subscribe(ALICE, "/user/queue/dm");
+        assertSame(frame, interceptor().preSend(frame, null));
+    }
+
+    @Test
+    void anotherUsersResolvedQueueIsRejected() {
+        // Bob's session queue as the simple broker and relay name it after resolving /user/queue/dm
+        Message<byte[]> frame = subscribe(ALICE, "/queue/dm-userbob-session-1");
+        assertThrows(MessageDeliveryException.class, () -> interceptor().preSend(frame, null));
+    }
+
+    @Test
+    void userRegistryBroadcastTopicsAreRejected() {
+        assertThrows(MessageDeliveryException.class,
+            () -> interceptor().preSend(subscribe(ALICE, "/topic/unresolved-user-destination"), null));
+        assertThrows(MessageDeliveryException.class,
+            () -> interceptor().preSend(subscribe(ALICE, "/topic/simp-user-registry"), null));
+    }
+
+    @Test
+    void publicCaseTopicIsAllowedAndPrivateNeedsMembership() {
+        when(crimeCaseRepository.findPrivacyById(7L)).thenReturn(List.of(CasePrivacy.PUBLIC));
+        when(crimeCaseRepository.findPrivacyById(8L)).thenReturn(List.of(CasePrivacy.PRIVATE));
+        when(crimeCaseRepository.countMembership(8L, 1L)).thenReturn(0L);
+
+        Message<byte[]> publicCase = subscribe(ALICE, "/topic/case.7");
+        assertSame(publicCase, interceptor().preSend(publicCase, null));
+        assertThrows(MessageDeliveryException.class, () -> interceptor().preSend(subscribe(ALICE, "/topic/case.8"), null));
+    }
+
+    @Test
+    void wildcardsAndUnknownTopicsAreRejected() {
+        assertThrows(MessageDeliveryException.class, () -> interceptor().preSend(subscribe(ALICE, "/topic/case.*"), null));
+        assertThrows(MessageDeliveryException.class, () -> interceptor().preSend(subscribe(ALICE, "/topic/other"), null));
+    }
+
+    private StompAuthChannelInterceptor interceptor() {
+        return new StompAuthChannelInterceptor(authenticator, caseTopicAuthorizer);
+    }
+
+    private static Message<byte[]> subscribe(StompPrincipal user, String destination) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        headers.setSessionId("alice-session-1");
+        headers.setSubscriptionId("sub-1");
+        headers.setDestination(destination);
+        headers.setUser(user);
+        headers.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+}
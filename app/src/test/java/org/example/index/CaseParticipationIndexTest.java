@@ -0,0 +1,60 @@
+package org.example.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.repository.CaseCommentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CaseParticipationIndexTest {
+
+    @Mock
+    private CaseCommentRepository caseCommentRepository;
+
+    @InjectMocks
+    private CaseParticipationIndex index;
+
+    @Test
+    void reconcileDropsPairsNoLongerInTheDatabase() {
+        when(caseCommentRepository.findDistinctCaseUserPairs()).thenReturn(pairs(1, 10, 1, 11, 2, 10));
+        index.reconcile();
+        assertArrayEquals(new long[] { 11 }, index.coParticipantsOf(10));
+
+        when(caseCommentRepository.findDistinctCaseUserPairs()).thenReturn(pairs(2, 10));
+        index.reconcile();
+        assertArrayEquals(new long[0], index.coParticipantsOf(10));
+        assertArrayEquals(new long[] { 2 }, index.casesOf(10));
+        assertArrayEquals(new long[0], index.participantsOf(1));
+    }
+
+    @Test
+    void changesCommittedWhileReadingSurviveTheSwap() {
+        when(caseCommentRepository.findDistinctCaseUserPairs()).thenAnswer(invocation -> {
+            // Committed after the read started, so missing from the rows returned
+            index.add(3, 12);
+            index.removeCase(1);
+            return pairs(1, 10, 2, 10);
+        });
+        index.reconcile();
+
+        assertArrayEquals(new long[] { 2 }, index.casesOf(10));
+        assertArrayEquals(new long[] { 12 }, index.participantsOf(3));
+        assertArrayEquals(new long[0], index.participantsOf(1));
+    }
+
+    private static List<Object[]> pairs(long... caseUserPairs) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < caseUserPairs.length; i += 2) {
+            rows.add(new Object[] { caseUserPairs[i], caseUserPairs[i + 1] });
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RankedSkipListTest {
+
+    @Test
+    void ordersByScoreThenTieBreakThenId() {
+        RankedSkipList list = new RankedSkipList();
+        list.put(3, 4.0, 1);
+        list.put(1, 5.0, 0);
+        list.put(2, 4.0, 2);
+        list.put(4, 4.0, 1);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(list.range(1, 10)));
+        assertEquals(1, list.rank(1));
+        assertEquals(4, list.rank(4));
+        assertEquals(0, list.rank(99));
+    }
+
+    @Test
+    void putMovesAnExistingIdAndRemoveDropsIt() {
+        RankedSkipList list = new RankedSkipList();
+        list.put(1, 1, 0);
+        list.put(2, 2, 0);
+        list.put(1, 3, 0);
+        assertEquals(2, list.size());
+        assertEquals(List.of(1L, 2L), ids(list.range(1, 10)));
+
+        list.remove(1);
+        list.remove(42);
+        assertEquals(1, list.size());
+        assertFalse(list.contains(1));
+        assertTrue(list.contains(2));
+        assertEquals(1, list.rank(2));
+    }
+
+    @Test
+    void rangeOutsideTheListIsEmptyOrShort() {
+        RankedSkipList list = new RankedSkipList();
+        assertTrue(list.range(1, 5).isEmpty());
+        list.put(1, 1, 0);
+        list.put(2, 2, 0);
+        assertTrue(list.range(0, 5).isEmpty());
+        assertTrue(list.range(3, 5).isEmpty());
+        assertTrue(list.range(1, 0).isEmpty());
+        assertEquals(List.of(1L), ids(list.range(2, 5)));
+    }
+
+    @Test
+    void randomUpdatesMatchASortedReference() {
+        Random random = new Random(18);
+        RankedSkipList list = new RankedSkipList();
+        Map<Long, double[]> reference = new HashMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            long id = random.nextInt(500);
+            if (random.nextInt(5) == 0) {
+                list.remove(id);
+                reference.remove(id);
+            } else {
+                // Few distinct scores so ties on score and tie-break are common
+                double score = random.nextInt(20);
+                double tieBreak = random.nextInt(3);
+                list.put(id, score, tieBreak);
+                reference.put(id, new double[] { score, tieBreak });
+            }
+            if (step % 500 == 0) {
+                assertMatches(reference, list, random);
+            }
+        }
+        assertMatches(reference, list, random);
+    }
+
+    private static void assertMatches(Map<Long, double[]> reference, RankedSkipList list, Random random) {
+        List<Long> expected = new ArrayList<>(reference.keySet());
+        expected.sort(Comparator.<Long>comparingDouble(id -> -reference.get(id)[0])
+            .thenComparingDouble(id -> -reference.get(id)[1])
+            .thenComparingLong(id -> id));
+
+        assertEquals(expected.size(), list.size());
+        List<RankedSkipList.Entry> all = list.range(1, expected.size());
+        assertEquals(expected, ids(all));
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(i + 1, all.get(i).rank);
+            assertEquals(i + 1, list.rank(expected.get(i)));
+        }
+        if (!expected.isEmpty()) {
+            int from = 1 + random.nextInt(expected.size());
+            int limit = random.nextInt(30);
+            assertEquals(expected.subList(from - 1, Math.min(expected.size(), from - 1 + limit)), ids(list.range(from, limit)));
+        }
+    }
+
+    private static List<Long> ids(List<RankedSkipList.Entry> entries) {
+        List<Long> ids = new ArrayList<>(entries.size());
+        for (RankedSkipList.Entry entry : entries) {
+            ids.add(entry.id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+class SortedLongSetsTest {
+
+    @Test
+    void intersectMergesSimilarSizes() {
+        assertArrayEquals(new long[] { 3, 7 }, SortedLongSets.intersect(new long[] { 1, 3, 5, 7 }, new long[] { 2, 3, 7, 9 }));
+        assertArrayEquals(SortedLongSets.EMPTY, SortedLongSets.intersect(new long[] { 1, 2 }, new long[] { 3, 4 }));
+        assertArrayEquals(SortedLongSets.EMPTY, SortedLongSets.intersect(SortedLongSets.EMPTY, new long[] { 1 }));
+    }
+
+    @Test
+    void intersectProbesWhenSizesAreLopsided() {
+        long[] large = LongStream.range(0, 1000).map(v -> v * 2).toArray();
+        assertArrayEquals(new long[] { 4, 1998 }, SortedLongSets.intersect(new long[] { 3, 4, 1998 }, large));
+        // Argument order does not matter
+        assertArrayEquals(new long[] { 4, 1998 }, SortedLongSets.intersect(large, new long[] { 3, 4, 1998 }));
+    }
+
+    @Test
+    void unionKeepsOrderAndDropsDuplicates() {
+        assertArrayEquals(new long[] { 1, 2, 3, 5, 7, 9 }, SortedLongSets.union(new long[] { 1, 3, 5, 7 }, new long[] { 2, 3, 7, 9 }));
+        assertArrayEquals(new long[] { 1, 2 }, SortedLongSets.union(SortedLongSets.EMPTY, new long[] { 1, 2 }));
+    }
+
+    @Test
+    void insertAndRemoveReturnNewArraysAndLeaveInputAlone() {
+        long[] set = { 1, 5 };
+        assertArrayEquals(new long[] { 1, 3, 5 }, SortedLongSets.insert(set, 3));
+        assertArrayEquals(new long[] { 1, 5 }, set);
+        assertSame(set, SortedLongSets.insert(set, 5));
+        assertArrayEquals(new long[] { 5 }, SortedLongSets.remove(set, 1));
+        assertSame(set, SortedLongSets.remove(set, 4));
+        assertSame(SortedLongSets.EMPTY, SortedLongSets.remove(new long[] { 9 }, 9));
+    }
+
+    @Test
+    void matchesTreeSetOnRandomSets() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            TreeSet<Long> a = randomSet(random, random.nextInt(40));
+            TreeSet<Long> b = randomSet(random, random.nextInt(2000));
+            long[] left = toArray(a);
+            long[] right = toArray(b);
+
+            TreeSet<Long> expectedUnion = new TreeSet<>(a);
+            expectedUnion.addAll(b);
+            TreeSet<Long> expectedIntersection = new TreeSet<>(a);
+            expectedIntersection.retainAll(b);
+
+            assertArrayEquals(toArray(expectedUnion), SortedLongSets.union(left, right));
+            assertArrayEquals(toArray(expectedIntersection), SortedLongSets.intersect(left, right));
+        }
+    }
+
+    private static TreeSet<Long> randomSet(Random random, int size) {
+        TreeSet<Long> set = new TreeSet<>();
+        for (int i = 0; i < size; i++) {
+            set.add((long) random.nextInt(5000));
+        }
+        return set;
+    }
+
+    private static long[] toArray(TreeSet<Long> set) {
+        return set.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDateTime;
+
+import org.example.entity.CrimeCase;
+import org.example.entity.CustodyEntry;
+import org.example.entity.Evidence;
+import org.example.entity.User;
+import org.example.service.CustodyLedgerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Custody entries hang off evidence that is removed through the case's JPA cascade, so the
+ * database key has to cascade too or deleting a case with a custody history is rejected. Runs on
+ * the embedded test database, whose schema Hibernate generates from the mappings.
+ */
+@DataJpaTest
+class CustodyEntryCascadeTest {
+
+    // Only the repositories under test, so unrelated queries are not validated against H2
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = CrimeCase.class)
+    @EnableJpaRepositories(basePackageClasses = CrimeCaseRepository.class, includeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE, classes = {CrimeCaseRepository.class, CustodyEntryRepository.class}))
+    static class Config {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CrimeCaseRepository crimeCaseRepository;
+
+    @Autowired
+    private CustodyEntryRepository custodyEntryRepository;
+
+    @Test
+    void deletingACaseRemovesTheCustodyEntriesOfItsEvidence() {
+        User handler = new User();
+        handler.setUsername("analyst7");
+        handler.setEmail("analyst7@example.org");
+        handler.setPassword("secret");
+        entityManager.persist(handler);
+
+        CrimeCase crimeCase = new CrimeCase();
+        crimeCase.setTitle("Warehouse break-in");
+        crimeCase.setPostedBy(handler);
+        entityManager.persist(crimeCase);
+
+        Evidence evidence = new Evidence();
+        evidence.setTitle("Crowbar");
+        evidence.setCrimeCase(crimeCase);
+        entityManager.persist(evidence);
+
+        for (int sequence = 1; sequence <= 2; sequence++) {
+            CustodyEntry entry = new CustodyEntry();
+            entry.setEvidence(evidence);
+            entry.setSequence(sequence);
+            entry.setHandler(handler);
+            entry.setAction("TRANSFERRED");
+            entry.setRecordedAt(LocalDateTime.of(2024, 1, 1, 9, 0).plusHours(sequence));
+            entry.setPreviousHash(CustodyLedgerService.GENESIS_HASH);
+            entry.setEntryHash(CustodyLedgerService.GENESIS_HASH);
+            entityManager.persist(entry);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(2, custodyEntryRepository.countByEvidenceId(evidence.getId()));
+
+        crimeCaseRepository.deleteById(crimeCase.getId());
+        entityManager.flush();
+
+        assertFalse(crimeCaseRepository.existsById(crimeCase.getId()));
+        assertEquals(0, custodyEntryRepository.countByEvidenceId(evidence.getId()));
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.dto.CustodyVerificationDTO;
+import org.junit.jupiter.api.Test;
+
+class CustodyLedgerServiceTest {
+
+    private static final Long EVIDENCE_ID = 7L;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @Test
+    void emptyChainIsValidAndHeadsAtGenesis() {
+        CustodyVerificationDTO result = verify(List.of());
+        assertTrue(result.isValid());
+        assertEquals(0, result.getEntryCount());
+        assertEquals(CustodyLedgerService.GENESIS_HASH, result.getHeadHash());
+    }
+
+    @Test
+    void intactChainVerifies() {
+        List<Object[]> rows = chain(4);
+        CustodyVerificationDTO result = verify(rows);
+        assertTrue(result.isValid());
+        assertEquals(4, result.getEntryCount());
+        assertNull(result.getFirstInvalidSequence());
+        assertEquals(rows.get(3)[7], result.getHeadHash());
+    }
+
+    @Test
+    void editedFieldIsDetectedAtThatEntry() {
+        List<Object[]> rows = chain(4);
+        rows.get(1)[4] = "moved to a different locker";
+        CustodyVerificationDTO result = verify(rows);
+        assertFalse(result.isValid());
+        assertEquals(2, result.getFirstInvalidSequence());
+    }
+
+    @Test
+    void rehashedEntryStillBreaksTheNextLink() {
+        List<Object[]> rows = chain(4);
+        // Forge entry 2 consistently with itself; entry 3 still points at the original hash
+        Object[] forged = rows.get(1);
+        forged[3] = "RELEASED";
+        forged[7] = CustodyLedgerService.hash((String) forged[6], EVIDENCE_ID, 2, (Long) forged[2],
+            (String) forged[3], (String) forged[4], (LocalDateTime) forged[5]);
+        CustodyVerificationDTO result = verify(rows);
+        assertFalse(result.isValid());
+        assertEquals(3, result.getFirstInvalidSequence());
+    }
+
+    @Test
+    void deletedEntryIsDetectedBySequenceGap() {
+        List<Object[]> rows = chain(4);
+        rows.remove(2);
+        CustodyVerificationDTO result = verify(rows);
+        assertFalse(result.isValid());
+        assertEquals(4, result.getFirstInvalidSequence());
+    }
+
+    @Test
+    void hashSeparatesFieldBoundaries() {
+        String a = CustodyLedgerService.hash(CustodyLedgerService.GENESIS_HASH, EVIDENCE_ID, 1, 3L, "ab", "c", START);
+        String b = CustodyLedgerService.hash(CustodyLedgerService.GENESIS_HASH, EVIDENCE_ID, 1, 3L, "a", "bc", START);
+        String noNotes = CustodyLedgerService.hash(CustodyLedgerService.GENESIS_HASH, EVIDENCE_ID, 1, 3L, "a", null, START);
+        String emptyNotes = CustodyLedgerService.hash(CustodyLedgerService.GENESIS_HASH, EVIDENCE_ID, 1, 3L, "a", "", START);
+        assertNotEquals(a, b);
+        assertNotEquals(noNotes, emptyNotes);
+    }
+
+    private static CustodyVerificationDTO verify(List<Object[]> rows) {
+        CustodyLedgerService.ChainCheck check = new CustodyLedgerService.ChainCheck(EVIDENCE_ID);
+        rows.forEach(check::accept);
+        return check.result();
+    }
+
+    // Rows shaped like CustodyEntryRepository.findChainRows
+    private static List<Object[]> chain(int length) {
+        List<Object[]> rows = new ArrayList<>();
+        String previous = CustodyLedgerService.GENESIS_HASH;
+        for (int sequence = 1; sequence <= length; sequence++) {
+            Long handlerId = 100L + sequence;
+            String action = sequence == 1 ? "COLLECTED" : "TRANSFERRED";
+            String notes = sequence % 2 == 0 ? "handed over at desk " + sequence : null;
+            LocalDateTime recordedAt = START.plusMinutes(sequence);
+            String hash = CustodyLedgerService.hash(previous, EVIDENCE_ID, sequence, handlerId, action, notes, recordedAt);
+            rows.add(new Object[] { EVIDENCE_ID, sequence, handlerId, action, notes, recordedAt, previous, hash });
+            previous = hash;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.service;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.example.dto.CaseActivityEventDTO;
+import org.example.entity.CrimeCase;
+import org.example.entity.Lead;
+import org.example.entity.LeadStatus;
+import org.example.entity.LeadType;
+import org.example.entity.LeadVisibility;
+import org.example.entity.User;
+import org.example.index.LeadVoteCounters;
+import org.example.index.TrendingLeadIndex;
+import org.example.repository.LeadRepository;
+import org.example.repository.LeadVoteRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LeadServiceTest {
+
+    @Mock
+    private LeadRepository leadRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private CaseActivityPublisher caseActivityPublisher;
+
+    @Mock
+    private MediaProcessingService mediaProcessingService;
+
+    @Mock
+    private LeadVoteRepository leadVoteRepository;
+
+    @Mock
+    private LeadVoteCounters leadVoteCounters;
+
+    @Mock
+    private TrendingLeadIndex trendingLeadIndex;
+
+    @InjectMocks
+    private LeadService leadService;
+
+    @Test
+    void privateLeadEventCarriesOnlyTheId() {
+        Lead lead = lead(LeadVisibility.PRIVATE);
+        when(leadRepository.save(lead)).thenReturn(lead);
+
+        leadService.updateLead(lead);
+
+        verify(caseActivityPublisher).publishAfterCommit(eq(CaseActivityEventDTO.Type.LEAD_UPDATED), eq(7L), eq(42L),
+            argThat(data -> data.isEmpty()));
+    }
+
+    @Test
+    void teamLeadEventCarriesOnlyTheId() {
+        Lead lead = lead(LeadVisibility.TEAM);
+        when(leadRepository.save(lead)).thenReturn(lead);
+
+        leadService.updateLead(lead);
+
+        verify(caseActivityPublisher).publishAfterCommit(eq(CaseActivityEventDTO.Type.LEAD_UPDATED), eq(7L), eq(42L),
+            argThat(data -> data.isEmpty()));
+    }
+
+    @Test
+    void publicLeadEventCarriesItsDetails() {
+        Lead lead = lead(LeadVisibility.PUBLIC);
+        when(leadRepository.save(lead)).thenReturn(lead);
+
+        leadService.updateLead(lead);
+
+        verify(caseActivityPublisher).publishAfterCommit(eq(CaseActivityEventDTO.Type.LEAD_UPDATED), eq(7L), eq(42L),
+            argThat(data -> "Suspicious van".equals(data.get("title")) && "solver1".equals(data.get("submittedBy"))));
+    }
+
+    private static Lead lead(LeadVisibility visibility) {
+        CrimeCase crimeCase = new CrimeCase();
+        crimeCase.setId(7L);
+        User submitter = new User();
+        submitter.setUsername("solver1");
+        Lead lead = new Lead();
+        lead.setId(42L);
+        lead.setCrimeCase(crimeCase);
+        lead.setSubmittedBy(submitter);
+        lead.setTitle("Suspicious van");
+        lead.setStatus(LeadStatus.PENDING);
+        lead.setType(LeadType.values()[0]);
+        lead.setVisibility(visibility);
+        return lead;
+    }
+}
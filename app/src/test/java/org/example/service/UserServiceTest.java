@@ -0,0 +1,101 @@
+package org.example.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.example.entity.User;
+import org.example.entity.UserRole;
+import org.example.index.SolverLeaderboard;
+import org.example.index.TokenVersionCache;
+import org.example.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    private static final String STORED_HASH = "$2a$10$storedhash";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
+    @Mock
+    private SolverLeaderboard solverLeaderboard;
+
+    @InjectMocks
+    private UserService userService;
+
+    @Test
+    void profileUpdateWithoutPasswordKeepsTokensValid() {
+        User profile = user("solver1", UserRole.SOLVER, null);
+        storedCredentials("solver1", UserRole.SOLVER);
+        when(userRepository.save(profile)).thenReturn(profile);
+
+        userService.updateUser(profile);
+
+        verify(userRepository, never()).incrementTokenVersion(any());
+        verify(tokenVersionCache, never()).evictAfterCommit(any());
+    }
+
+    @Test
+    void profileUpdateWithSameHashKeepsTokensValid() {
+        User profile = user("solver1", UserRole.SOLVER, STORED_HASH);
+        storedCredentials("solver1", UserRole.SOLVER);
+        when(userRepository.save(profile)).thenReturn(profile);
+
+        userService.updateUser(profile);
+
+        verify(userRepository, never()).incrementTokenVersion(any());
+    }
+
+    @Test
+    void newPasswordRevokesTokens() {
+        User profile = user("solver1", UserRole.SOLVER, "$2a$10$newhash");
+        storedCredentials("solver1", UserRole.SOLVER);
+        when(userRepository.save(profile)).thenReturn(profile);
+
+        userService.updateUser(profile);
+
+        verify(userRepository).incrementTokenVersion(5L);
+        verify(tokenVersionCache).evictAfterCommit(5L);
+    }
+
+    @Test
+    void roleChangeRevokesTokensEvenWithoutPassword() {
+        User profile = user("solver1", UserRole.ORGANIZATION, null);
+        storedCredentials("solver1", UserRole.SOLVER);
+        when(userRepository.save(profile)).thenReturn(profile);
+
+        userService.updateUser(profile);
+
+        verify(userRepository).incrementTokenVersion(5L);
+    }
+
+    private void storedCredentials(String username, UserRole role) {
+        when(userRepository.findCredentialStateById(5L))
+            .thenReturn(List.<Object[]>of(new Object[] { username, role, STORED_HASH }));
+    }
+
+    private static User user(String username, UserRole role, String password) {
+        User user = new User();
+        user.setId(5L);
+        user.setUsername(username);
+        user.setRole(role);
+        user.setPassword(password);
+        return user;
+    }
+}
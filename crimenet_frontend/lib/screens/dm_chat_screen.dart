@@ -80,17 +80,23 @@ class _DMChatScreenState extends State<DMChatScreen> {
     setState(() {
       isConnected = true;
     });
+    // The server resolves /user/queue/dm to this session's authenticated user
     stompClient!.subscribe(
-      destination: '/topic/dm.${currentUser!.id}',
+      destination: '/user/queue/dm',
       callback: (frame) {
         if (frame.body != null) {
           final msg = json.decode(frame.body!);
-          if ((msg['sender']['id'] == widget.peerUser.id &&
-                  msg['receiver']['id'] == currentUser!.id) ||
-              (msg['sender']['id'] == currentUser!.id &&
-                  msg['receiver']['id'] == widget.peerUser.id)) {
+          // Own messages are already shown optimistically by sendMessage
+          if (msg['senderId'] == widget.peerUser.id &&
+              msg['receiverId'] == currentUser!.id) {
             setState(() {
-              messages.add(msg);
+              messages.add({
+                'id': msg['id'],
+                'sender': {'id': msg['senderId']},
+                'receiver': {'id': msg['receiverId']},
+                'content': msg['content'],
+                'sentAt': msg['sentAt'],
+              });
             });
           }
         }
@@ -102,7 +108,6 @@ class _DMChatScreenState extends State<DMChatScreen> {
     if (_controller.text.trim().isEmpty || stompClient == null || !isConnected)
       return;
     final msg = {
-      'senderId': currentUser!.id,
       'receiverId': widget.peerUser.id,
       'content': _controller.text.trim(),
       'caseId': widget.caseId,
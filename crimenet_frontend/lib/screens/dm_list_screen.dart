@@ -129,9 +129,23 @@ class _DMInboxScreenState extends State<DMInboxScreen> {
                                     style: theme.textTheme.labelLarge,
                                   ),
                                   subtitle: Text(
-                                    '${(user['messages'] as List).length} messages',
+                                    (user['lastMessage']?['content'] ?? '')
+                                        as String,
+                                    maxLines: 1,
+                                    overflow: TextOverflow.ellipsis,
                                     style: theme.textTheme.bodySmall,
                                   ),
+                                  trailing: (user['unreadCount'] ?? 0) > 0
+                                      ? CircleAvatar(
+                                          radius: 10,
+                                          backgroundColor:
+                                              theme.colorScheme.primary,
+                                          child: Text(
+                                            '${user['unreadCount']}',
+                                            style: theme.textTheme.labelSmall,
+                                          ),
+                                        )
+                                      : null,
                                   onTap: () => _navigateToChat(user, caseMap),
                                 ),
                               ),